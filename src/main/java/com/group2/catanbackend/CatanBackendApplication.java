@@ -2,8 +2,10 @@ package com.group2.catanbackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CatanBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,60 @@
+package com.group2.catanbackend.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out game ids: two hex digits naming a shard of this node, followed by eight base32 characters.
+ * <p>
+ * The base32 part encodes a 40 bit counter passed through a bijective mixer, so ids look random but no two ids of
+ * this process are the same until 2^40 ids were handed out. The counter starts at a random point, which makes a clash
+ * with ids from an earlier run unlikely; callers still have to reject an id that is already taken.
+ * The lowercase Crockford alphabet keeps ids URL-safe and free of ambiguous characters.
+ */
+@Component
+public class GameIdAllocator {
+    public static final int ID_LENGTH = 2 + 8;
+    private static final int BITS = 40;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] BASE32 = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+
+    private final ShardRing shardRing;
+    private final AtomicLong counter;
+
+    @Autowired
+    public GameIdAllocator(ShardRing shardRing) {
+        this(shardRing, ThreadLocalRandom.current().nextLong());
+    }
+
+    GameIdAllocator(ShardRing shardRing, long start) {
+        this.shardRing = shardRing;
+        this.counter = new AtomicLong(start);
+    }
+
+    public String nextId() {
+        long n = counter.getAndIncrement();
+        int shard = shardRing.localShard(n);
+        long body = mix(n & MASK);
+        char[] id = new char[ID_LENGTH];
+        id[0] = HEX[shard >>> 4];
+        id[1] = HEX[shard & 0xF];
+        for (int i = ID_LENGTH - 1; i >= 2; i--) {
+            id[i] = BASE32[(int) (body & 0x1F)];
+            body >>>= 5;
+        }
+        return new String(id);
+    }
+
+    //odd multipliers and xor-shifts are both invertible modulo 2^40, so distinct counters give distinct ids
+    static long mix(long x) {
+        x = x * 0x9E3779B97F4A7C15L & MASK;
+        x ^= x >>> 21;
+        x = x * 0xBF58476D1CE4E5B9L & MASK;
+        x ^= x >>> 19;
+        return x;
+    }
+}
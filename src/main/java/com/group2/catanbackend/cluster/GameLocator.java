@@ -0,0 +1,43 @@
+package com.group2.catanbackend.cluster;
+
+import com.group2.catanbackend.service.GameRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells which node holds a game. The registry knows where games went that were handed over to another node,
+ * every other game lives on the node the shard ring assigns its id or token to.
+ * <p>
+ * Only asked once a lookup on this node failed, as a shared registry may have to read its records.
+ */
+@Component
+public class GameLocator {
+    private final GameRegistry gameRegistry;
+    private final ShardRing shardRing;
+
+    @Autowired
+    public GameLocator(GameRegistry gameRegistry, ShardRing shardRing) {
+        this.gameRegistry = gameRegistry;
+        this.shardRing = shardRing;
+    }
+
+    /**
+     * @return base URL of the node holding the game
+     */
+    public String ownerOfGame(String gameId) {
+        String owner = gameRegistry.ownerOf(gameId);
+        return owner != null ? owner : shardRing.ownerOf(gameId);
+    }
+
+    /**
+     * @return base URL of the node holding the game of the token
+     */
+    public String ownerOfToken(String token) {
+        String owner = gameRegistry.ownerOfToken(token);
+        return owner != null ? owner : shardRing.ownerOf(token);
+    }
+
+    public boolean isSelf(String node) {
+        return shardRing.getSelf().equals(node);
+    }
+}
@@ -0,0 +1,169 @@
+package com.group2.catanbackend.cluster;
+
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.exception.ErrorCode;
+import com.group2.catanbackend.exception.NotAuthorizedException;
+import com.group2.catanbackend.service.GameService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains this node for a deploy by handing every running game over to another node.
+ * <p>
+ * A game is encoded and sent while its lock is held, so a move either made it into the handed over state or is
+ * answered with a redirect to the new node. Players are told to reconnect there; their tokens stay valid.
+ * <p>
+ * Every handover carries an id. If the answer to it is lost, the other node is asked by that id whether it adopted
+ * the game; one that did not gives the handover up, so the game runs on exactly one of the nodes.
+ */
+@Service
+@Slf4j
+public class GameMigrator {
+    private static final int CONFIRM_ATTEMPTS = 3;
+
+    private final GameService gameService;
+    private final byte[] secret;
+    private final int threads;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    /**
+     * @param secret shared by all nodes, cluster requests are refused while it is empty
+     */
+    @Autowired
+    public GameMigrator(GameService gameService,
+                        @Value("${catan.cluster.secret:}") String secret,
+                        @Value("${catan.cluster.drain-threads:4}") int threads,
+                        @Value("${catan.cluster.handover-timeout-ms:5000}") long timeoutMillis) {
+        this.gameService = gameService;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.threads = threads;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * @throws NotAuthorizedException if the secret is missing or wrong
+     */
+    public void checkSecret(String presented) {
+        if (secret.length == 0 || presented == null
+                || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8)))
+            throw new NotAuthorizedException(ErrorCode.ERROR_CLUSTER_SECRET);
+    }
+
+    /**
+     * @return the number of games handed over, games that could not be handed over keep running here
+     */
+    public int drain(String node) throws InterruptedException {
+        List<RunningInstanceService> games = gameService.getRunningGames().values().stream()
+                .filter(game -> game.getMovedTo() == null)
+                .toList();
+        if (games.isEmpty())
+            return 0;
+        AtomicInteger migrated = new AtomicInteger();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, games.size()));
+        try {
+            for (RunningInstanceService game : games) {
+                executor.execute(() -> {
+                    try {
+                        migrate(game, node);
+                        migrated.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        log.error("Could not hand game " + game.getGameId() + " over to " + node, e);
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Handed " + migrated.get() + " of " + games.size() + " games over to " + node + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return migrated.get();
+    }
+
+    public void migrate(RunningInstanceService game, String node) {
+        game.handOver(node, handover -> send(node, game.getGameId(), handover));
+    }
+
+    private void send(String node, String gameId, byte[] handover) {
+        String handoverId = UUID.randomUUID().toString();
+        HttpRequest request = request(node + Constants.CLUSTER_PATH + Constants.CLUSTER_GAMES_PATH, handoverId)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(handover))
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = exchange(request);
+        } catch (IOException e) {
+            //the game may have arrived and only the answer got lost
+            if (isAdopted(node, gameId, handoverId))
+                return;
+            throw new UncheckedIOException("Could not reach node " + node, e);
+        }
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("Node " + node + " refused the game: " + response.statusCode() + " " + response.body());
+    }
+
+    /**
+     * @return false if the node did not adopt the handover, it then refuses it for good
+     * @throws IllegalStateException if the node could not tell, the game keeps running here and may run there as well
+     */
+    private boolean isAdopted(String node, String gameId, String handoverId) {
+        HttpRequest request = request(node + Constants.CLUSTER_PATH + Constants.CLUSTER_GAMES_PATH + "/" + gameId
+                + Constants.CLUSTER_CONFIRM_PATH, handoverId)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        Exception failure = null;
+        for (int attempt = 0; attempt < CONFIRM_ATTEMPTS; attempt++) {
+            try {
+                HttpResponse<String> response = exchange(request);
+                if (response.statusCode() == 200 || response.statusCode() == 404)
+                    return response.statusCode() == 200;
+                failure = new IllegalStateException(response.statusCode() + " " + response.body());
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        throw new IllegalStateException("Node " + node + " could not confirm handover " + handoverId + " of game " + gameId, failure);
+    }
+
+    private HttpRequest.Builder request(String url, String handoverId) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header(Constants.CLUSTER_SECRET_HEADER, new String(secret, StandardCharsets.UTF_8))
+                .header(Constants.CLUSTER_HANDOVER_HEADER, handoverId);
+    }
+
+    private HttpResponse<String> exchange(HttpRequest request) throws IOException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing a game over to " + request.uri().getAuthority(), e);
+        }
+    }
+}
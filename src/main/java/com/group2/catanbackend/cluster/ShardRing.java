@@ -0,0 +1,139 @@
+package com.group2.catanbackend.cluster;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Assigns the shards of the game id space to the nodes of the cluster on a consistent-hash ring.
+ * <p>
+ * Game ids and the player tokens of a game start with two hex digits naming one of {@link #SHARDS} shards, so any
+ * node can tell from an id or token alone which node owns the game. Every node is placed on the ring at several
+ * virtual points and a shard belongs to the first node point following the shard's point. Adding or removing a node
+ * only moves the shards next to its points.
+ * <p>
+ * Without configured nodes this node owns every shard.
+ */
+@Component
+@Slf4j
+public class ShardRing {
+    public static final int SHARDS = 256;
+
+    @Getter
+    private final String self;
+    @Getter
+    private final List<String> nodes;
+    private final String[] owners = new String[SHARDS];
+    private final int[] localShards;
+
+    public ShardRing() {
+        this("", "", 1);
+    }
+
+    /**
+     * @param nodes comma separated base URLs of all nodes, e.g. {@code http://localhost:8080,http://localhost:8081}
+     * @param self base URL of this node, one of the nodes
+     * @param virtualNodes points per node on the ring, more points spread the shards more evenly
+     */
+    @Autowired
+    public ShardRing(@Value("${catan.cluster.nodes:}") String nodes,
+                     @Value("${catan.cluster.self:http://${server.address:localhost}:${server.port:8080}}") String self,
+                     @Value("${catan.cluster.virtual-nodes:128}") int virtualNodes) {
+        this.self = self;
+        this.nodes = Arrays.stream(nodes.split(",")).map(String::trim).filter(node -> !node.isEmpty()).distinct().toList();
+        if (this.nodes.isEmpty()) {
+            Arrays.fill(owners, self);
+        } else {
+            if (!this.nodes.contains(self))
+                throw new IllegalArgumentException("Node " + self + " is not one of the cluster nodes " + this.nodes);
+            assignShards(virtualNodes);
+        }
+        localShards = new int[(int) Arrays.stream(owners).filter(self::equals).count()];
+        for (int shard = 0, i = 0; shard < SHARDS; shard++) {
+            if (owners[shard].equals(self))
+                localShards[i++] = shard;
+        }
+        if (!this.nodes.isEmpty())
+            log.info("Node " + self + " owns " + localShards.length + " of " + SHARDS + " shards");
+    }
+
+    private void assignShards(int virtualNodes) {
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Map.Entry<Long, String> owner = ring.ceilingEntry(hash("shard-" + shard));
+            owners[shard] = (owner != null ? owner : ring.firstEntry()).getValue();
+        }
+    }
+
+    public boolean isClustered() {
+        return !nodes.isEmpty();
+    }
+
+    /**
+     * @param id a game id or a token
+     * @return the shard named by the first two hex digits, -1 if the id names none
+     */
+    public static int shardOf(String id) {
+        if (id == null || id.length() < 2)
+            return -1;
+        int high = Character.digit(id.charAt(0), 16);
+        int low = Character.digit(id.charAt(1), 16);
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    /**
+     * @param id a game id or a token
+     * @return base URL of the owning node, this node for ids that name no shard
+     */
+    public String ownerOf(String id) {
+        int shard = shardOf(id);
+        return shard < 0 ? self : owners[shard];
+    }
+
+    public boolean isLocal(String id) {
+        return ownerOf(id).equals(self);
+    }
+
+    /**
+     * @param n any number, consecutive numbers cycle through the shards owned by this node
+     * @return one of the shards owned by this node
+     */
+    public int localShard(long n) {
+        if (localShards.length == 0)
+            throw new IllegalStateException("Node " + self + " owns no shards");
+        return localShards[(int) Math.floorMod(n, (long) localShards.length)];
+    }
+
+    /**
+     * Puts the shard of the game in front of a token, so requests carrying only the token can be routed.
+     * Tokens that are not hex at the start are returned unchanged.
+     */
+    public static String withShardOf(String token, String gameId) {
+        if (shardOf(token) < 0 || shardOf(gameId) < 0)
+            return token;
+        return gameId.substring(0, 2) + token.substring(2);
+    }
+
+    //FNV-1a with a final mix, String.hashCode clusters too much for short similar keys
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
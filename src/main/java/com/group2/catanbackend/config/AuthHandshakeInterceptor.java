@@ -1,5 +1,8 @@
 package com.group2.catanbackend.config;
 
+import com.group2.catanbackend.cluster.GameLocator;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.GameSession;
 import com.group2.catanbackend.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
+import java.net.URI;
 import java.util.Map;
 
 import static com.group2.catanbackend.config.Util.extractToken;
@@ -17,15 +21,31 @@ import static com.group2.catanbackend.config.Util.extractToken;
 public class AuthHandshakeInterceptor implements HandshakeInterceptor {
 
     private final TokenService tokenService;
-    public AuthHandshakeInterceptor(@Autowired TokenService tokenService){
+    private final GameLocator gameLocator;
+    public AuthHandshakeInterceptor(@Autowired TokenService tokenService, @Autowired GameLocator gameLocator){
         this.tokenService = tokenService;
+        this.gameLocator = gameLocator;
     }
     @Override
     public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler, Map<String, Object> attributes) throws Exception {
         String token = extractToken(request);
+        Player player = tokenService.getPlayerByToken(token);
 
-        if(tokenService.tokenExists(token))
+        if(player != null) {
+            //resolved once here, UserHandshakeHandler and the STOMP handlers read it from the session
+            attributes.put(Constants.SESSION_ATTRIBUTE_GAME_SESSION, new GameSession(player));
             return true;
+        }
+
+        //the game of the token lives on another node, the client opens the socket there
+        String owner = token == null ? null : gameLocator.ownerOfToken(token);
+        if(owner != null && !gameLocator.isSelf(owner)){
+            URI uri = request.getURI();
+            response.setStatusCode(HttpStatus.TEMPORARY_REDIRECT);
+            response.getHeaders().setLocation(URI.create(owner + uri.getRawPath()
+                    + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery())));
+            return false;
+        }
 
         response.setStatusCode(HttpStatus.FORBIDDEN);
         return false;
@@ -2,14 +2,30 @@ package com.group2.catanbackend.config;
 
 public class Constants {
     public static final String SOCKET_ENDPOINT = "catan";
+    public static final String LOBBY_SOCKET_ENDPOINT = "catan/lobbies";
     public static final String SOCKET_ADDRESS = "localhost";
     public static final int SOCKET_PORT = 8080;
 
     public static final String TOPIC_GAME = "/topic/game/%s/";
     public static final String TOPIC_GAME_PROGRESS ="/topic/game/%s/messages";
     public static final String TOPIC_GAME_LOBBY = "/topic/game/%s/messages";
+    public static final String TOPIC_LOBBY_DIRECTORY = "/topic/lobbies";
+    //internal topics of the broker relay, the user registry carries the tokens of all connected players
+    public static final String TOPIC_UNRESOLVED_USER_DESTINATION = "/topic/unresolved-user-destination";
+    public static final String TOPIC_USER_REGISTRY = "/topic/simp-user-registry";
     public static final String QUEUE_USER_MESSAGE = "/queue/messages";
     public static final String USER_DESTINATION_PREFIX = "/user";
     public static final String FULL_USER_QUEUE_PATH = USER_DESTINATION_PREFIX+QUEUE_USER_MESSAGE;
+    public static final String APP_DESTINATION_PREFIX = "/app";
+    public static final String APP_GAME_MOVE = "/gamemove";
+    public static final String APP_LOBBY_DIRECTORY = "/lobbies";
+    public static final String SESSION_ATTRIBUTE_GAME_SESSION = "gameSession";
     public static final int MAX_PLAYER_COUNT = 4;
+    public static final String CLUSTER_PATH = "/catan/cluster";
+    public static final String CLUSTER_GAMES_PATH = "/games";
+    public static final String CLUSTER_SECRET_HEADER = "X-Catan-Cluster-Secret";
+    public static final String CLUSTER_HANDOVER_HEADER = "X-Catan-Handover-Id";
+    public static final String CLUSTER_CONFIRM_PATH = "/confirm";
+    public static final String MONITORING_PATH = "/catan/monitoring";
+    public static final String GAME_PATH = "/catan/game";
 }
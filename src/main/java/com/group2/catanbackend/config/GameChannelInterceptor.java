@@ -1,6 +1,8 @@
 package com.group2.catanbackend.config;
 
 import com.group2.catanbackend.exception.SubscriptionDeniedException;
+import com.group2.catanbackend.service.GameSession;
+import com.group2.catanbackend.service.RateLimits;
 import com.group2.catanbackend.service.TokenService;
 import jakarta.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,18 +14,27 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.stereotype.Component;
 
 import java.security.Principal;
+import java.util.Map;
 
 @Component
 public class GameChannelInterceptor implements ChannelInterceptor {
 
+    private static final String GAME_MOVE_DESTINATION = Constants.APP_DESTINATION_PREFIX + Constants.APP_GAME_MOVE;
     private final TokenService tokenService;
-    public GameChannelInterceptor(@Autowired TokenService tokenService){
+    private final RateLimits rateLimits;
+    public GameChannelInterceptor(@Autowired TokenService tokenService, @Autowired RateLimits rateLimits){
         this.tokenService = tokenService;
+        this.rateLimits = rateLimits;
     }
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if(accessor.getUser() == null && !isAllowedAnonymously(accessor))
+            throw new SubscriptionDeniedException("Anonymous sessions can only subscribe to the lobby directory");
+
         if(StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            if(isInternalTopic(accessor.getDestination()))
+                throw new SubscriptionDeniedException("Cannot subscribe to " + accessor.getDestination());
             String token = getToken(accessor.getUser());
             String gameID = extractGameId(accessor.getDestination());
 
@@ -33,9 +44,39 @@ public class GameChannelInterceptor implements ChannelInterceptor {
 
             return message;
         }
+        if(StompCommand.SEND.equals(accessor.getCommand()) && GAME_MOVE_DESTINATION.equals(accessor.getDestination())) {
+            //moves over the limit are dropped here, before a worker of the inbound channel picks them up
+            if(!rateLimits.allowMove(getToken(accessor.getUser())))
+                return null;
+            stampMoveReceived(accessor);
+        }
         return message;
     }
 
+    //preSend runs on the thread that read the frame, before it waits for a worker of the inbound channel
+    private void stampMoveReceived(StompHeaderAccessor accessor){
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if(attributes != null && attributes.get(Constants.SESSION_ATTRIBUTE_GAME_SESSION) instanceof GameSession session)
+            session.moveReceived(System.nanoTime());
+    }
+
+    //Sessions of the lobby endpoint have no user. They may only follow the lobby directory.
+    private boolean isAllowedAnonymously(StompHeaderAccessor accessor){
+        StompCommand command = accessor.getCommand();
+        if(command == null)
+            return true; //heartbeats and other non STOMP messages
+        return switch (command) {
+            case CONNECT, STOMP, DISCONNECT, UNSUBSCRIBE -> true;
+            case SUBSCRIBE -> Constants.TOPIC_LOBBY_DIRECTORY.equals(accessor.getDestination())
+                    || (Constants.APP_DESTINATION_PREFIX + Constants.APP_LOBBY_DIRECTORY).equals(accessor.getDestination());
+            default -> false;
+        };
+    }
+
+    private boolean isInternalTopic(@Nullable String destination){
+        return Constants.TOPIC_USER_REGISTRY.equals(destination) || Constants.TOPIC_UNRESOLVED_USER_DESTINATION.equals(destination);
+    }
+
     private String getToken(Principal principal){
         if(principal == null)
             return null;
@@ -0,0 +1,43 @@
+package com.group2.catanbackend.config;
+
+import com.group2.catanbackend.service.TokenBucketLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+/**
+ * Answers requests over the limit with 429 before the controller runs. No exception is thrown and nothing is logged,
+ * so a flood of requests costs little more than reading the headers.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final Predicate<HttpServletRequest> allowed;
+    private final TokenBucketLimiter limiter;
+    private final byte[] body;
+
+    /**
+     * @param body the serialized error response, written as is to every rejected request
+     */
+    public RateLimitInterceptor(Predicate<HttpServletRequest> allowed, TokenBucketLimiter limiter, byte[] body) {
+        this.allowed = allowed;
+        this.limiter = limiter;
+        this.body = body;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (allowed.test(request))
+            return true;
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return false;
+    }
+}
@@ -1,13 +1,19 @@
 package com.group2.catanbackend.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.monitoring.RecordingJsonMessageConverter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSocketMessageBroker
 public class SocketConfiguration implements WebSocketMessageBrokerConfigurer {
@@ -16,18 +22,39 @@ public class SocketConfiguration implements WebSocketMessageBrokerConfigurer {
     private final GameChannelInterceptor gameChannelInterceptor;
 
     private final AuthHandshakeInterceptor authHandshakeInterceptor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catan.broker.relay.enabled:false}")
+    private boolean relayEnabled;
+    @Value("${catan.broker.relay.host:localhost}")
+    private String relayHost;
+    @Value("${catan.broker.relay.port:61613}")
+    private int relayPort;
+    @Value("${catan.broker.relay.client-login:guest}")
+    private String clientLogin;
+    @Value("${catan.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+    @Value("${catan.broker.relay.system-login:guest}")
+    private String systemLogin;
+    @Value("${catan.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
     public SocketConfiguration(@Autowired UserHandshakeHandler handshakeHandler,
                                @Autowired GameChannelInterceptor gameChannelInterceptor,
-                               @Autowired AuthHandshakeInterceptor authHandshakeInterseptor){
+                               @Autowired AuthHandshakeInterceptor authHandshakeInterseptor,
+                               @Autowired ObjectMapper objectMapper){
         this.handshakeHandler = handshakeHandler;
         this.gameChannelInterceptor = gameChannelInterceptor;
         this.authHandshakeInterceptor = authHandshakeInterseptor;
+        this.objectMapper = objectMapper;
     }
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint(Constants.SOCKET_ENDPOINT).setAllowedOrigins("*")
                 .setHandshakeHandler(handshakeHandler)
                 .addInterceptors(authHandshakeInterceptor);
+        //anonymous endpoint for browsing lobbies before joining, GameChannelInterceptor limits what it can do
+        registry.addEndpoint(Constants.LOBBY_SOCKET_ENDPOINT).setAllowedOrigins("*");
     }
 
     @Override
@@ -35,12 +62,32 @@ public class SocketConfiguration implements WebSocketMessageBrokerConfigurer {
         registration.interceptors(gameChannelInterceptor);
     }
 
+    //first in line for outgoing messages, so their serialization shows up in flight recordings
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(0, new RecordingJsonMessageConverter(objectMapper));
+        return true;
+    }
+
     //TODO: Possibility to detect disconnections and disconnect from server.
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue");
+        if(relayEnabled){
+            //topics live in the external broker, so subscribers can sit on any node and fan-out leaves the game nodes.
+            //Users are resolved through the broadcasts, a player's queue may be bound on another node.
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode)
+                    .setUserDestinationBroadcast(Constants.TOPIC_UNRESOLVED_USER_DESTINATION)
+                    .setUserRegistryBroadcast(Constants.TOPIC_USER_REGISTRY);
+        } else
+            registry.enableSimpleBroker("/topic", "/queue");
         registry.setUserDestinationPrefix(Constants.USER_DESTINATION_PREFIX);
-        registry.setApplicationDestinationPrefixes("/app");
+        registry.setApplicationDestinationPrefixes(Constants.APP_DESTINATION_PREFIX);
 
     }
 }
@@ -1,10 +1,9 @@
 package com.group2.catanbackend.config;
 
-import com.group2.catanbackend.service.TokenService;
+import com.group2.catanbackend.service.GameSession;
 import com.sun.security.auth.UserPrincipal;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
@@ -12,23 +11,16 @@ import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 import java.security.Principal;
 import java.util.Map;
 
-import static com.group2.catanbackend.config.Util.extractToken;
-
 
 @Slf4j
 @Component
 public class UserHandshakeHandler extends DefaultHandshakeHandler {
 
-    private final TokenService tokenService;
-    public UserHandshakeHandler(@Autowired TokenService tokenService){
-        this.tokenService = tokenService;
-    }
+    //The token was already validated by AuthHandshakeInterceptor, which stored the session.
     @Override
     protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler, Map<String, Object> attributes) {
-        String token = extractToken(request);
-
-        if(tokenService.tokenExists(token))
-            return new UserPrincipal(token);
+        if(attributes.get(Constants.SESSION_ATTRIBUTE_GAME_SESSION) instanceof GameSession session)
+            return new UserPrincipal(session.getPlayer().getToken());
         return null;
     }
 
@@ -0,0 +1,37 @@
+package com.group2.catanbackend.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.ErrorResponse;
+import com.group2.catanbackend.exception.ErrorCode;
+import com.group2.catanbackend.service.RateLimits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+    private final RateLimits rateLimits;
+    private final byte[] rateLimitedBody;
+
+    public WebConfiguration(@Autowired RateLimits rateLimits, @Autowired ObjectMapper objectMapper) throws JsonProcessingException {
+        this.rateLimits = rateLimits;
+        this.rateLimitedBody = objectMapper.writeValueAsBytes(
+                new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ErrorCode.ERROR_RATE_LIMITED));
+    }
+
+    //moves share their bucket with the STOMP moves of the same token, see GameChannelInterceptor
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(request -> rateLimits.allowMove(request.getHeader(HttpHeaders.AUTHORIZATION)),
+                        rateLimits.getMoves(), rateLimitedBody))
+                .addPathPatterns(Constants.GAME_PATH + "/gamemove");
+        //behind a proxy the remote address is only the client's with server.forward-headers-strategy set
+        registry.addInterceptor(new RateLimitInterceptor(request -> rateLimits.allowLobby(request.getRemoteAddr()),
+                        rateLimits.getLobbies(), rateLimitedBody))
+                .addPathPatterns(Constants.GAME_PATH + "/create", Constants.GAME_PATH + "/connect");
+    }
+}
@@ -0,0 +1,62 @@
+package com.group2.catanbackend.controller;
+
+import com.group2.catanbackend.cluster.GameMigrator;
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.dto.DrainResponseDto;
+import com.group2.catanbackend.exception.ErrorCode;
+import com.group2.catanbackend.exception.GameException;
+import com.group2.catanbackend.persistence.GameHandover;
+import com.group2.catanbackend.persistence.JournaledGame;
+import com.group2.catanbackend.service.GameService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Requests between the nodes of a cluster, all of them need the cluster secret.
+ */
+@RestController
+@RequestMapping(Constants.CLUSTER_PATH)
+@AllArgsConstructor
+public class ClusterController {
+    private final GameMigrator gameMigrator;
+    private final GameService gameService;
+
+    @PostMapping(value = Constants.CLUSTER_GAMES_PATH, consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Object> adoptGame(@RequestBody byte[] handover,
+                                            @RequestHeader(Constants.CLUSTER_HANDOVER_HEADER) String handoverId,
+                                            @RequestHeader(value = Constants.CLUSTER_SECRET_HEADER, required = false) String secret) {
+        gameMigrator.checkSecret(secret);
+        JournaledGame game;
+        try {
+            game = GameHandover.decode(handover);
+        } catch (IllegalArgumentException e) {
+            throw new GameException(ErrorCode.ERROR_MALFORMED_HANDOVER);
+        }
+        gameService.adoptRunningGame(game, handoverId);
+        return ResponseEntity.ok(null);
+    }
+
+    /**
+     * Answers 200 if the handover was adopted and 404 if not, in which case it is refused should it still arrive.
+     */
+    @PostMapping(Constants.CLUSTER_GAMES_PATH + "/{gameId}" + Constants.CLUSTER_CONFIRM_PATH)
+    public ResponseEntity<Object> confirmAdoption(@PathVariable String gameId,
+                                                  @RequestHeader(Constants.CLUSTER_HANDOVER_HEADER) String handoverId,
+                                                  @RequestHeader(value = Constants.CLUSTER_SECRET_HEADER, required = false) String secret) {
+        gameMigrator.checkSecret(secret);
+        gameService.confirmAdoption(gameId, handoverId);
+        return ResponseEntity.ok(null);
+    }
+
+    /**
+     * Hands every running game over to the given node, e.g. before this node is shut down.
+     */
+    @PostMapping("/drain")
+    public ResponseEntity<DrainResponseDto> drain(@RequestParam String node,
+                                                  @RequestHeader(value = Constants.CLUSTER_SECRET_HEADER, required = false) String secret) throws InterruptedException {
+        gameMigrator.checkSecret(secret);
+        return ResponseEntity.ok(new DrainResponseDto(node, gameMigrator.drain(node)));
+    }
+}
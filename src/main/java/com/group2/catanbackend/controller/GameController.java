@@ -1,31 +1,44 @@
 package com.group2.catanbackend.controller;
 
 import com.group2.catanbackend.dto.*;
+import com.group2.catanbackend.config.Constants;
 import com.group2.catanbackend.dto.game.GameMoveDto;
+import com.group2.catanbackend.dto.game.InvalidMoveResponse;
+import com.group2.catanbackend.dto.game.LobbyDirectorySnapshotDto;
 import com.group2.catanbackend.exception.GameException;
+import com.group2.catanbackend.monitoring.GameMetrics.Transport;
+import com.group2.catanbackend.monitoring.GameTracing;
 import com.group2.catanbackend.service.GameService;
+import com.group2.catanbackend.service.GameSession;
+import com.group2.catanbackend.service.LobbyDirectory;
 import com.group2.catanbackend.service.TokenService;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
-@RequestMapping("/catan/game")
+@RequestMapping(Constants.GAME_PATH)
 @AllArgsConstructor
 @Slf4j
 public class GameController {
     private final GameService gameService;
     private final TokenService tokenService;
     private final SimpMessagingTemplate simpMessagingTemplate;
+    private final GameTracing gameTracing;
 
 
     @PostMapping("/create")
@@ -51,16 +64,63 @@ public class GameController {
     }
 
     @PostMapping("/gamemove")
-    public ResponseEntity<Object> makeMove(@Valid @RequestBody GameMoveDto gameMoveDto, @RequestHeader(HttpHeaders.AUTHORIZATION) String token) throws GameException{
-        return ResponseEntity.ok(gameService.makeMove(token, gameMoveDto));
+    public ResponseEntity<Object> makeMove(@Valid @RequestBody GameMoveDto gameMoveDto, @RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                                           @RequestHeader(value = GameTracing.TRACEPARENT, required = false) String traceparent) throws GameException{
+        Span span = gameTracing.moveReceived(Transport.REST, gameMoveDto, traceparent);
+        try (Scope scope = GameTracing.makeCurrent(span)) {
+            return ResponseEntity.ok(gameService.makeMove(token, gameMoveDto));
+        } catch (RuntimeException e) {
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @MessageMapping(Constants.APP_GAME_MOVE)
+    public void makeMove(@Payload GameMoveDto gameMoveDto, SimpMessageHeaderAccessor headerAccessor) throws GameException {
+        GameSession session = (GameSession) headerAccessor.getSessionAttributes().get(Constants.SESSION_ATTRIBUTE_GAME_SESSION);
+        Span span = gameTracing.moveReceived(Transport.SOCKET, gameMoveDto, headerAccessor.getFirstNativeHeader(GameTracing.TRACEPARENT));
+        try (Scope scope = GameTracing.makeCurrent(span)) {
+            gameService.makeMove(session, gameMoveDto);
+        } catch (RuntimeException e) {
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    @MessageExceptionHandler(GameException.class)
+    @SendToUser(destinations = Constants.QUEUE_USER_MESSAGE, broadcast = false)
+    public InvalidMoveResponse handleInvalidSocketMove(GameException ex) {
+        return new InvalidMoveResponse(ex.getMessage());
+    }
+
+    //Answered directly to the subscriber, deltas follow on Constants.TOPIC_LOBBY_DIRECTORY
+    @SubscribeMapping(Constants.APP_LOBBY_DIRECTORY)
+    public LobbyDirectorySnapshotDto getLobbyDirectorySnapshot(){
+        return gameService.getLobbyDirectory().getSnapshot();
     }
 
     @GetMapping("/list")
-    public ResponseEntity<ListGameResponse> getGames(){
-        List<LobbyDto> lobbies = gameService.getLobbies();
+    public ResponseEntity<ListGameResponse> getGames(@RequestParam(defaultValue = "false") boolean openSeatsOnly,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "" + LobbyDirectory.DEFAULT_PAGE_SIZE) int limit,
+                                                     WebRequest request){
+        LobbyDirectory lobbyDirectory = gameService.getLobbyDirectory();
+        //read the version before the page, so a concurrent change can only make the ETag older than the content
+        long version = lobbyDirectory.getVersion();
+        String eTag = "\"" + version + "\"";
+        if(request.checkNotModified(eTag))
+            return null;
+
+        LobbyDirectory.Page page = lobbyDirectory.list(openSeatsOnly, cursor, limit);
         ListGameResponse response = new ListGameResponse();
-        response.setGameList(lobbies);
-        response.setCount(lobbies.size());
-        return ResponseEntity.ok(response);
+        response.setGameList(page.getLobbies());
+        response.setCount(page.getLobbies().size());
+        response.setNextCursor(page.getNextCursor());
+        response.setVersion(version);
+        return ResponseEntity.ok().eTag(eTag).body(response);
     }
 }
@@ -2,6 +2,7 @@ package com.group2.catanbackend.controller;
 
 import com.group2.catanbackend.dto.ErrorResponse;
 import com.group2.catanbackend.exception.*;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -66,4 +67,31 @@ public class GameControllerAdvice extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
                 .body(new ErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY.value(), ex.getMessage()));
     }
+
+    //307 keeps method and body, so the client repeats the same request on the owning node
+    @ExceptionHandler(NotOwnerException.class)
+    @ResponseStatus(HttpStatus.TEMPORARY_REDIRECT)
+    public @ResponseBody ResponseEntity<ErrorResponse> handleNotOwnerException(NotOwnerException ex, HttpServletRequest request) {
+        String query = request.getQueryString();
+        String location = ex.getOwner() + request.getRequestURI() + (query == null ? "" : "?" + query);
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .header(HttpHeaders.LOCATION, location)
+                .body(new ErrorResponse(HttpStatus.TEMPORARY_REDIRECT.value(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(TokenCapacityExceededException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody ResponseEntity<ErrorResponse> handleTokenCapacityExceededException(TokenCapacityExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
+
+    //Retry-After tells clients and the load balancer when to ask again, another node may take the game right away
+    @ExceptionHandler(NodeOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public @ResponseBody ResponseEntity<ErrorResponse> handleNodeOverloadedException(NodeOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
 }
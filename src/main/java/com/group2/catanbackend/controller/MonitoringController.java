@@ -0,0 +1,50 @@
+package com.group2.catanbackend.controller;
+
+import com.group2.catanbackend.cluster.GameMigrator;
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.dto.GameCostDto;
+import com.group2.catanbackend.dto.LatencyReportDto;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.MoveLatencies;
+import com.group2.catanbackend.service.GameService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Constants.MONITORING_PATH)
+@AllArgsConstructor
+public class MonitoringController {
+    private final MoveLatencies moveLatencies;
+    private final GameCostAccounting costAccounting;
+    private final GameService gameService;
+    private final GameMigrator gameMigrator;
+
+    /**
+     * p50, p99, p99.9 and max of the end-to-end move latency in microseconds over the rolling window.
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<LatencyReportDto> latency() {
+        return ResponseEntity.ok(new LatencyReportDto(moveLatencies.getWindowMillis(),
+                moveLatencies.getMoveLatencies(), moveLatencies.getMessageLatencies()));
+    }
+
+    /**
+     * The running games of this node that cost the most, e.g. {@code /games?by=FRAMES&limit=5}.
+     * Empty while cost accounting is disabled. Needs the cluster secret, the costs and ids of the games are internal
+     * operational data.
+     */
+    @GetMapping("/games")
+    public ResponseEntity<List<GameCostDto>> games(@RequestParam(defaultValue = "CPU") GameCostAccounting.Cost by,
+                                                   @RequestParam(defaultValue = "10") int limit,
+                                                   @RequestHeader(value = Constants.CLUSTER_SECRET_HEADER, required = false) String secret) {
+        gameMigrator.checkSecret(secret);
+        return ResponseEntity.ok(costAccounting.top(gameService.getRunningGames().values(), by, limit));
+    }
+}
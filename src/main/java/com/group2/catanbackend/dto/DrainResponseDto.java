@@ -0,0 +1,11 @@
+package com.group2.catanbackend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class DrainResponseDto {
+    private String node;
+    private int migratedGames;
+}
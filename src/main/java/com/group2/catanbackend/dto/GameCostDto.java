@@ -0,0 +1,20 @@
+package com.group2.catanbackend.dto;
+
+import lombok.*;
+
+/**
+ * Costs of a game since it started on this node. CPU time is 0 where the JVM cannot measure it, retained bytes are
+ * an estimate of the heap the game holds right now.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class GameCostDto {
+    private String gameId;
+    private long cpuNanos;
+    private long bytesSerialized;
+    private long framesSent;
+    private long movesAccepted;
+    private long movesRejected;
+    private long retainedBytes;
+}
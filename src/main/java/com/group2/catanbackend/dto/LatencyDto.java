@@ -0,0 +1,17 @@
+package com.group2.catanbackend.dto;
+
+import lombok.*;
+
+/**
+ * Latency percentiles over a rolling window, in microseconds.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class LatencyDto {
+    private long count;
+    private long p50;
+    private long p99;
+    private long p999;
+    private long max;
+}
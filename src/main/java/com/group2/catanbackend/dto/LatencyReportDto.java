@@ -0,0 +1,16 @@
+package com.group2.catanbackend.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class LatencyReportDto {
+    private long windowMillis;
+    //by move type, from receipt of the move until its last message was handed to the broker
+    private Map<String, LatencyDto> moves;
+    //by message type, from receipt of the move that caused the message until it was handed to the broker
+    private Map<String, LatencyDto> messages;
+}
@@ -10,4 +10,6 @@ import java.util.List;
 public class ListGameResponse {
     private int count;
     List<LobbyDto> gameList;
+    private String nextCursor;
+    private long version;
 }
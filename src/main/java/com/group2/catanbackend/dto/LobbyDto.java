@@ -2,12 +2,14 @@ package com.group2.catanbackend.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
 @Getter
 @Setter
 @AllArgsConstructor
+@NoArgsConstructor
 public class LobbyDto {
     private String gameID;
     private int playerCount;
@@ -0,0 +1,22 @@
+package com.group2.catanbackend.dto.game;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The game was handed over to another node, players reconnect there with their tokens.
+ */
+@Getter
+@Setter
+public class GameMovedDto extends MessageDto{
+    private String node;
+
+    public GameMovedDto(){
+        setEventType(MessageType.GAME_MOVED);
+    }
+
+    public GameMovedDto(String node){
+        this();
+        this.node = node;
+    }
+}
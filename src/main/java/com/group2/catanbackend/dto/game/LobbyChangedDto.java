@@ -0,0 +1,24 @@
+package com.group2.catanbackend.dto.game;
+
+import com.group2.catanbackend.dto.LobbyDto;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Delta of the lobby directory. The eventType tells whether the lobby was created, updated, started or removed.
+ * Deltas carry absolute seat counts, so applying one twice or on top of a newer snapshot is harmless.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class LobbyChangedDto extends MessageDto {
+    private LobbyDto lobby;
+    private long version;
+
+    public LobbyChangedDto(String eventType, LobbyDto lobby, long version) {
+        this.setEventType(eventType);
+        this.lobby = lobby;
+        this.version = version;
+    }
+}
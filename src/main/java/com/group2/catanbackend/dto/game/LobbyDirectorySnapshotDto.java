@@ -0,0 +1,28 @@
+package com.group2.catanbackend.dto.game;
+
+import com.group2.catanbackend.dto.LobbyDto;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Sent once to a client subscribing to the lobby directory.
+ * Clients should subscribe to the delta topic first and drop deltas with a version below the snapshot's.
+ */
+@Getter
+@Setter
+public class LobbyDirectorySnapshotDto extends MessageDto {
+    private List<LobbyDto> lobbies;
+    private long version;
+
+    public LobbyDirectorySnapshotDto() {
+        this.setEventType(MessageType.LOBBY_DIRECTORY_SNAPSHOT);
+    }
+
+    public LobbyDirectorySnapshotDto(List<LobbyDto> lobbies, long version) {
+        this();
+        this.lobbies = lobbies;
+        this.version = version;
+    }
+}
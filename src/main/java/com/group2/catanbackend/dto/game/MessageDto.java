@@ -11,13 +11,19 @@ import lombok.*;
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
         include = JsonTypeInfo.As.EXISTING_PROPERTY,
-        property = "eventType"
+        property = "eventType",
+        //LobbyChangedDto stands for several event types, so the type id is also set on the property
+        visible = true
 )
 @JsonSubTypes({
         @JsonSubTypes.Type(value = PlayersInLobbyDto.class, name = MessageType.PLAYERS_CHANGED),
         @JsonSubTypes.Type(value = GameStartedDto.class, name = MessageType.GAME_STARTED),
         @JsonSubTypes.Type(value = CurrentGameStateDto.class, name = MessageType.GAME_OBJECT),
-        @JsonSubTypes.Type(value = GameProgressDto.class, name = MessageType.GAME_MOVE_NOTIFIER)
+        @JsonSubTypes.Type(value = GameProgressDto.class, name = MessageType.GAME_MOVE_NOTIFIER),
+        @JsonSubTypes.Type(value = GameMovedDto.class, name = MessageType.GAME_MOVED),
+        @JsonSubTypes.Type(value = LobbyDirectorySnapshotDto.class, name = MessageType.LOBBY_DIRECTORY_SNAPSHOT),
+        @JsonSubTypes.Type(value = LobbyChangedDto.class, names = {MessageType.LOBBY_CREATED, MessageType.LOBBY_UPDATED,
+                MessageType.LOBBY_STARTED, MessageType.LOBBY_REMOVED})
 })
 @Getter
 @Setter
@@ -12,4 +12,10 @@ public interface MessageType {
   String GAME_MOVE_NOTIFIER="GAME_MOVE_NOTIFIER";
   String GAME_OBJECT="GAME_OBJECT";
   String INVALID_GAME_MOVE="INVALID_GAME_MOVE";
+  String LOBBY_DIRECTORY_SNAPSHOT="LOBBY_DIRECTORY_SNAPSHOT";
+  String LOBBY_CREATED="LOBBY_CREATED";
+  String LOBBY_UPDATED="LOBBY_UPDATED";
+  String LOBBY_STARTED="LOBBY_STARTED";
+  String LOBBY_REMOVED="LOBBY_REMOVED";
+  String GAME_MOVED="GAME_MOVED";
 }
@@ -15,5 +15,16 @@ public class ErrorCode {
     public static final String ERROR_NOT_ENOUGH_RESOURCES = "Not enough Resources to make %s";
     public static final String ERROR_INVALID_DICE_ROLL="Cant roll more than 12 or less than 2";
     public static final String ERROR_DTO_WAS_NULL = "Dto that was transported is null";
+    public static final String ERROR_UNSUPPORTED_MOVE = "Move %s is not supported";
+    public static final String ERROR_TOKEN_CAPACITY_EXCEEDED = "No more players can join on this server right now";
+    public static final String ERROR_GAME_NOT_OWNED = "Game %s is hosted on %s";
+    public static final String ERROR_GAME_ALREADY_HERE = "Game %s already exists on this node";
+    public static final String ERROR_MALFORMED_HANDOVER = "Handed over game could not be read";
+    public static final String ERROR_HANDOVER_NOT_ADOPTED = "Handover %s of game %s was not adopted";
+    public static final String ERROR_HANDOVER_GIVEN_UP = "Handover %s of game %s arrived after it was given up";
+    public static final String ERROR_CLUSTER_SECRET = "Cluster requests need the cluster secret";
+    public static final String ERROR_TOKEN_NOT_OWNED = "The game of this token is hosted on %s";
+    public static final String ERROR_RATE_LIMITED = "Too many requests, slow down";
+    public static final String ERROR_NODE_OVERLOADED = "This server is too busy for new games right now (%s)";
 
 }
@@ -0,0 +1,16 @@
+package com.group2.catanbackend.exception;
+
+import lombok.Getter;
+
+/**
+ * The node is too busy to take on another game, games already running are not affected.
+ */
+public class NodeOverloadedException extends GameException{
+    @Getter
+    private final long retryAfterSeconds;
+
+    public NodeOverloadedException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.group2.catanbackend.exception;
+
+import lombok.Getter;
+
+/**
+ * The game belongs to another node of the cluster, the request has to be sent there.
+ */
+public class NotOwnerException extends GameException{
+    @Getter
+    private final String owner;
+
+    public NotOwnerException(String message, String owner){
+        super(message);
+        this.owner = owner;
+    }
+}
@@ -0,0 +1,8 @@
+package com.group2.catanbackend.exception;
+
+public class TokenCapacityExceededException extends GameException{
+    public TokenCapacityExceededException(){}
+    public TokenCapacityExceededException(String message){
+        super(message);
+    }
+}
@@ -9,6 +9,8 @@ import lombok.Setter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 // fixme this class is very low-level
 //  many magic constants in arrays and operations on primitive datatypes
@@ -26,9 +28,27 @@ public class Board {
     private static final int NON_EXISTING_HEXAGON = 19;
     @Setter
     private boolean isSetupPhase = true;
+    //the layout is derived from the seed only, so a game can be rebuilt from its seed and moves
+    @Getter
+    private final long seed;
 
     public Board(){
-        generateHexagons();
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    public Board(long seed){
+        this.seed = seed;
+        generateHexagons(new Random(seed));
+        generateAdjacencyMatrix();
+        generateIntersectionsStartingArray();
+        generateSurroundingHexagonArray();
+        generateConnectedIntersections();
+    }
+
+    //used when a game is restored from a snapshot, buildings and roads are placed afterward
+    Board(long seed, List<Hexagon> hexagonList){
+        this.seed = seed;
+        this.hexagonList = hexagonList;
         generateAdjacencyMatrix();
         generateIntersectionsStartingArray();
         generateSurroundingHexagonArray();
@@ -115,6 +135,23 @@ public class Board {
         return false;
     }
 
+    //places a building without checking the rules and without adding it to the hexagons
+    void placeBuilding(Building building){
+        int[] coordinates = translateIntersectionToMatrixCoordinates(building.getId());
+        intersections[coordinates[0]][coordinates[1]] = building;
+    }
+
+    void placeRoad(Player player, int connectionID){
+        Road road = new Road(player, connectionID);
+        adjacencyMatrix[connectedIntersections[0][connectionID]][connectedIntersections[1][connectionID]] = road;
+        adjacencyMatrix[connectedIntersections[1][connectionID]][connectedIntersections[0][connectionID]] = road;
+    }
+
+    Building getBuilding(int intersectionID){
+        int[] coordinates = translateIntersectionToMatrixCoordinates(intersectionID);
+        return intersections[coordinates[0]][coordinates[1]] instanceof Building building ? building : null;
+    }
+
     private void addBuildingToSurroundingHexagons(int intersection, Building building){
         int firstHexagon = surroundingHexagons[1][intersection];
         int secondHexagon = surroundingHexagons[2][intersection];
@@ -227,7 +264,7 @@ public class Board {
         connectedIntersections[1] = new int[] {1,2,3,4,5,6,8,10,12,14,8,9,10,11,12,13,14,15,17,19,21,23,25,17,18,19,20,21,22,23,24,25,26,29,28,31,30,33,32,35,34,37,36,27,29,31,33,35,37,40,39,42,41,44,43,46,45,38,40,42,44,46,49,48,51,50,53,52,47,49,51,53};
     }
 
-    private void generateHexagons() {
+    private void generateHexagons(Random random) {
         List<HexagonType> hexagonTypes = new ArrayList<>();
         List<Integer> values = new ArrayList<>();
 
@@ -240,8 +277,8 @@ public class Board {
 
         hexagonList = new ArrayList<>();
 
-        Collections.shuffle(hexagonTypes);
-        Collections.shuffle(values);
+        Collections.shuffle(hexagonTypes, random);
+        Collections.shuffle(values, random);
 
         for (int i = 0; i< hexagonTypes.size(); i++) {
             HexagonType hexagonType = hexagonTypes.get(i);
@@ -254,18 +291,21 @@ public class Board {
                 value = values.remove(0);
             }
 
-            ResourceDistribution resourceDistribution = switch (hexagonType) {
-                case FIELDS -> ResourceDistribution.FIELDS;
-                case PASTURE -> ResourceDistribution.PASTURE;
-                case FOREST -> ResourceDistribution.FOREST;
-                case HILLS -> ResourceDistribution.HILLS;
-                case MOUNTAINS -> ResourceDistribution.MOUNTAINS;
-                default -> ResourceDistribution.DESERT;
-            };
-            hexagonList.add(new Hexagon(hexagonType, resourceDistribution, value, i, hasRobber));
+            hexagonList.add(new Hexagon(hexagonType, distributionOf(hexagonType), value, i, hasRobber));
         }
     }
 
+    static ResourceDistribution distributionOf(HexagonType hexagonType) {
+        return switch (hexagonType) {
+            case FIELDS -> ResourceDistribution.FIELDS;
+            case PASTURE -> ResourceDistribution.PASTURE;
+            case FOREST -> ResourceDistribution.FOREST;
+            case HILLS -> ResourceDistribution.HILLS;
+            case MOUNTAINS -> ResourceDistribution.MOUNTAINS;
+            default -> ResourceDistribution.DESERT;
+        };
+    }
+
     private void generateAdjacencyMatrix() {
         Connection emptyConnection = new Connection();
         adjacencyMatrix = new Connection[54][54];
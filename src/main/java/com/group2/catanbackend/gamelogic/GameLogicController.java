@@ -7,11 +7,16 @@ import com.group2.catanbackend.gamelogic.objects.Connection;
 import com.group2.catanbackend.gamelogic.objects.Hexagon;
 import com.group2.catanbackend.gamelogic.objects.Intersection;
 import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.*;
 import com.group2.catanbackend.service.MessagingService;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 // fixme be careful to avoid a god class here
 public class GameLogicController {
@@ -29,14 +34,35 @@ public class GameLogicController {
     private static final int VICTORYPOINTSFORVICTORY = 10;
     @Getter
     private boolean gameover = false;
+    //while silent, moves are applied without notifying anyone, e.g. when a game is rebuilt from its moves
+    @Getter
+    @Setter
+    private boolean silent;
+    //set by the owning game once the controller is built, the initial state and replayed moves are not timed
+    @Setter
+    private GameMetrics metrics = GameMetrics.NOOP;
+    @Setter
+    private GameTracing tracing = GameTracing.NOOP;
+    //type of the move being applied, for the flight recorder events
+    private String currentMoveType;
 
     public GameLogicController(@NotNull List<Player> players, @NotNull MessagingService messagingService, @NotNull String gameId) {
+        this(players, messagingService, gameId, ThreadLocalRandom.current().nextLong(), false);
+    }
+
+    /**
+     * @param seed determines the board layout and player colors
+     * @param silent if true, the starting gamestate is not sent
+     */
+    public GameLogicController(@NotNull List<Player> players, @NotNull MessagingService messagingService, @NotNull String gameId, long seed, boolean silent) {
         this.players = players;
         this.messagingService = messagingService;
         this.gameId = gameId;
-        board = new Board();
+        this.silent = silent;
+        board = new Board(seed);
+        Random colors = new Random(seed);
         for (Player player : players) {
-            player.setColor((int) (Math.random() * (-16777216)));
+            player.setColor((int) (colors.nextDouble() * (-16777216)));
         }
         generateSetupPhaseTurnOrder(players.size());
         //Send the starting gamestate to all playérs
@@ -44,7 +70,53 @@ public class GameLogicController {
     }
 
 
+    //used when a game is restored from a snapshot, nothing is sent
+    GameLogicController(List<Player> players, MessagingService messagingService, String gameId, Board board,
+                        ArrayList<Player> setupPhaseTurnOrder, ArrayList<Player> turnOrder, boolean isSetupPhase, boolean gameover) {
+        this.players = players;
+        this.messagingService = messagingService;
+        this.gameId = gameId;
+        this.board = board;
+        this.setupPhaseTurnOrder = setupPhaseTurnOrder;
+        this.turnOrder = turnOrder;
+        this.isSetupPhase = isSetupPhase;
+        this.gameover = gameover;
+        board.setSetupPhase(isSetupPhase);
+    }
+
     public void makeMove(GameMoveDto gameMove, Player player) throws GameException {
+        long start = metrics.start();
+        currentMoveType = gameMove == null ? null : gameMove.getEventType();
+        GameEventContext events = GameEventContext.moveStarted(gameId, currentMoveType);
+        Span span = tracing.moveApplying(gameId, currentMoveType);
+        try (Scope scope = GameTracing.makeCurrent(span)) {
+            validateMove(gameMove, player);
+            applyMove(gameMove, player);
+        } catch (RuntimeException e) {
+            metrics.moveApplied(gameMove, GameMetrics.Outcome.of(e), start);
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+            currentMoveType = null;
+            if (events != null)
+                events.moveEnded();
+        }
+        metrics.moveApplied(gameMove, GameMetrics.Outcome.OK, start);
+    }
+
+    //rule checks that need no change to the board, whether a place is free is checked by the board itself
+    private void validateMove(GameMoveDto gameMove, Player player) {
+        MoveValidationEvent event = new MoveValidationEvent();
+        event.begin();
+        try {
+            checkMove(gameMove, player);
+        } finally {
+            event.end(gameId, currentMoveType, 0);
+        }
+    }
+
+    private void checkMove(GameMoveDto gameMove, Player player) {
         if (gameover) {
             throw new InvalidGameMoveException(ErrorCode.ERROR_GAME_ALREADY_OVER.formatted(players.get(0).getDisplayName()));
         }
@@ -53,113 +125,153 @@ public class GameLogicController {
                 if (isSetupPhase) throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_ROLL_IN_SETUP);
                 if (turnOrder.get(0) != player)
                     throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
-                RollDiceDto rollDiceMove = (RollDiceDto) gameMove;
-                makeRollDiceMove(rollDiceMove);
-            }
-            case "BuildRoadMoveDto" -> {
-                BuildRoadMoveDto buildRoadMove = (BuildRoadMoveDto) gameMove;
-                makeBuildRoadMove(buildRoadMove, player);
-            }
-            case "BuildVillageMoveDto" -> {
-                BuildVillageMoveDto buildVillageMove = (BuildVillageMoveDto) gameMove;
-                makeBuildVillageMove(buildVillageMove, player);
+                int diceRoll = ((RollDiceDto) gameMove).getDiceRoll();
+                if (diceRoll < 2 || diceRoll > 12)
+                    throw new InvalidGameMoveException(ErrorCode.ERROR_INVALID_DICE_ROLL);
             }
+            case "BuildRoadMoveDto" -> checkBuildMove(gameMove, player, ResourceCost.ROAD);
+            case "BuildVillageMoveDto" -> checkBuildMove(gameMove, player, ResourceCost.VILLAGE);
             case "EndTurnMoveDto" -> {
                 if (isSetupPhase)
                     throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
                 if (turnOrder.get(0) != player)
                     throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
-                turnOrder.remove(0);
-                turnOrder.add(player);
-                sendCurrentGameStateToPlayers();
-                messagingService.notifyGameProgress(gameId, new GameProgressDto(new EndTurnMoveDto((isSetupPhase) ? setupPhaseTurnOrder.get(0).toInGamePlayerDto() : turnOrder.get(0).toInGamePlayerDto())));
             }
             //TODO To implement other moves create MoveDto and include it here
             default -> throw new UnsupportedGameMoveException("Unknown DTO Format");
         }
     }
 
-    // fixme extract methods
-    private void makeBuildRoadMove(BuildRoadMoveDto buildRoadMove, Player player) {
+    //buildings are free during the setup phase
+    private void checkBuildMove(GameMoveDto buildMove, Player player, ResourceCost cost) {
         if (isSetupPhase) {
             if (!(setupPhaseTurnOrder.get(0) == player))
                 throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
-
-            if (!board.addNewRoad(player, buildRoadMove.getConnectionID()))
-                throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildRoadMove.getClass().getSimpleName()));
-            setupPhaseTurnOrder.remove(0); //after you set down your road your turn ends during the setup phase
-            if (setupPhaseTurnOrder.isEmpty()) {
-                isSetupPhase = false;
-                board.setSetupPhase(false);
-                messagingService.notifyGameProgress(gameId, new GameProgressDto(new EndTurnMoveDto(turnOrder.get(0).toInGamePlayerDto())));
-            } else
-                messagingService.notifyGameProgress(gameId, new GameProgressDto(new EndTurnMoveDto(setupPhaseTurnOrder.get(0).toInGamePlayerDto())));
-            sendCurrentGameStateToPlayers();
             return;
         }
-
         if (turnOrder.get(0) != player)
             throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
+        if (!player.resourcesSufficient(cost.getCost()))
+            throw new InvalidGameMoveException(ErrorCode.ERROR_NOT_ENOUGH_RESOURCES.formatted(buildMove.getClass().getSimpleName()));
+    }
 
-        if (!player.resourcesSufficient(ResourceCost.ROAD.getCost()))
-            throw new InvalidGameMoveException(ErrorCode.ERROR_NOT_ENOUGH_RESOURCES.formatted(buildRoadMove.getClass().getSimpleName()));
-        if (board.addNewRoad(player, buildRoadMove.getConnectionID())) {
-            player.adjustResources(ResourceCost.ROAD.getCost());
-            sendCurrentGameStateToPlayers();
-        } else
-            throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildRoadMove.getClass().getSimpleName()));
-
-
+    //only called for validated moves
+    private void applyMove(GameMoveDto gameMove, Player player) {
+        switch (gameMove.getClass().getSimpleName()) {
+            case "RollDiceDto" -> makeRollDiceMove((RollDiceDto) gameMove);
+            case "BuildRoadMoveDto" -> makeBuildRoadMove((BuildRoadMoveDto) gameMove, player);
+            case "BuildVillageMoveDto" -> makeBuildVillageMove((BuildVillageMoveDto) gameMove, player);
+            case "EndTurnMoveDto" -> makeEndTurnMove(player);
+            default -> throw new UnsupportedGameMoveException("Unknown DTO Format");
+        }
     }
 
-    // fixme extract methods
-    private void makeBuildVillageMove(BuildVillageMoveDto buildVillageMove, Player player) {
+    private void makeBuildRoadMove(BuildRoadMoveDto buildRoadMove, Player player) {
         if (isSetupPhase) {
-            if (!(setupPhaseTurnOrder.get(0) == player))
-                throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
-
-            if (board.addNewVillage(player, buildVillageMove.getIntersectionID())) {
-                player.increaseVictoryPoints(1);
-                sendCurrentGameStateToPlayers();
-            } else
-                throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildVillageMove.getClass().getSimpleName()));
+            BoardMutationEvent mutation = beginMutation();
+            boolean built = board.addNewRoad(player, buildRoadMove.getConnectionID());
+            if (built) {
+                setupPhaseTurnOrder.remove(0); //after you set down your road your turn ends during the setup phase
+                if (setupPhaseTurnOrder.isEmpty()) {
+                    isSetupPhase = false;
+                    board.setSetupPhase(false);
+                }
+            }
+            endMutation(mutation);
+            if (!built)
+                throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildRoadMove.getClass().getSimpleName()));
+            Player next = isSetupPhase ? setupPhaseTurnOrder.get(0) : turnOrder.get(0);
+            notifyGameProgress(new GameProgressDto(new EndTurnMoveDto(next.toInGamePlayerDto())));
+            sendCurrentGameStateToPlayers();
             return;
         }
 
-        if (turnOrder.get(0) != player)
-            throw new NotActivePlayerException(ErrorCode.ERROR_NOT_ACTIVE_PLAYER.formatted(players.get(0).getDisplayName()));
+        BoardMutationEvent mutation = beginMutation();
+        boolean built = board.addNewRoad(player, buildRoadMove.getConnectionID());
+        if (built)
+            player.adjustResources(ResourceCost.ROAD.getCost());
+        endMutation(mutation);
+        if (!built)
+            throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildRoadMove.getClass().getSimpleName()));
+        sendCurrentGameStateToPlayers();
+    }
 
-        if (player.resourcesSufficient(ResourceCost.VILLAGE.getCost())) {
-            if (board.addNewVillage(player, buildVillageMove.getIntersectionID())) {
+    private void makeBuildVillageMove(BuildVillageMoveDto buildVillageMove, Player player) {
+        BoardMutationEvent mutation = beginMutation();
+        boolean built = board.addNewVillage(player, buildVillageMove.getIntersectionID());
+        if (built) {
+            if (!isSetupPhase)
                 player.adjustResources(ResourceCost.VILLAGE.getCost());
-                player.increaseVictoryPoints(1);
-                sendCurrentGameStateToPlayers();
+            player.increaseVictoryPoints(1);
+            if (!isSetupPhase && player.getVictoryPoints() >= VICTORYPOINTSFORVICTORY)
+                gameover = true;
+        }
+        endMutation(mutation);
+        if (!built)
+            throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildVillageMove.getClass().getSimpleName()));
+        sendCurrentGameStateToPlayers();
+        if (gameover)
+            notifyGameProgress(new GameoverDto(player.toInGamePlayerDto()));
+    }
 
-                if (player.getVictoryPoints() >= VICTORYPOINTSFORVICTORY) {
-                    gameover = true;
-                    messagingService.notifyGameProgress(gameId, new GameoverDto(player.toInGamePlayerDto()));
-                }
-            } else {
-                throw new InvalidGameMoveException(ErrorCode.ERROR_CANT_BUILD_HERE.formatted(buildVillageMove.getClass().getSimpleName()));
-            }
-        } else
-            throw new InvalidGameMoveException(ErrorCode.ERROR_NOT_ENOUGH_RESOURCES.formatted(buildVillageMove.getClass().getSimpleName()));
+    private void makeEndTurnMove(Player player) {
+        BoardMutationEvent mutation = beginMutation();
+        turnOrder.remove(0);
+        turnOrder.add(player);
+        endMutation(mutation);
+        sendCurrentGameStateToPlayers();
+        notifyGameProgress(new GameProgressDto(new EndTurnMoveDto(turnOrder.get(0).toInGamePlayerDto())));
     }
 
     private void makeRollDiceMove(RollDiceDto rollDiceDto) {
-        if (rollDiceDto.getDiceRoll() < 2 || rollDiceDto.getDiceRoll() > 12)
-            throw new InvalidGameMoveException(ErrorCode.ERROR_INVALID_DICE_ROLL);
+        BoardMutationEvent mutation = beginMutation();
         board.distributeResourcesByDiceRoll(rollDiceDto.getDiceRoll());
-        messagingService.notifyGameProgress(gameId, new GameProgressDto(rollDiceDto));
+        endMutation(mutation);
+        notifyGameProgress(new GameProgressDto(rollDiceDto));
         sendCurrentGameStateToPlayers();
     }
 
+    private static BoardMutationEvent beginMutation() {
+        BoardMutationEvent mutation = new BoardMutationEvent();
+        mutation.begin();
+        return mutation;
+    }
+
+    private void endMutation(BoardMutationEvent mutation) {
+        mutation.end(gameId, currentMoveType, 0);
+    }
+
     private void sendCurrentGameStateToPlayers() {
+        if (silent) return;
+        long start = metrics.start();
+        notifyGameProgress(getCurrentGameState());
+        metrics.stateSent(start);
+    }
+
+    private void notifyGameProgress(MessageDto dto) {
+        if (silent) return;
+        messagingService.notifyGameProgress(gameId, dto);
+    }
+
+    List<Player> getPlayers() {
+        return players;
+    }
+
+    boolean isSetupPhase() {
+        return isSetupPhase;
+    }
+
+    public CurrentGameStateDto getCurrentGameState() {
+        GameStateBuildEvent event = new GameStateBuildEvent();
+        event.begin();
+        Span span = tracing.stateBuilding();
         List<HexagonDto> hexagonDtos = getHexagonDtoList();
         List<IntersectionDto> intersectionDtos = getIntersectionDtoList();
         List<ConnectionDto> connectionDtos = getConnectionDtoList();
         List<IngamePlayerDto> playerDtos = getIngamePlayerDtoList();
-        messagingService.notifyGameProgress(gameId, new CurrentGameStateDto(hexagonDtos, intersectionDtos, connectionDtos, playerDtos, isSetupPhase));
+        span.end();
+        event.end(gameId, currentMoveType, hexagonDtos.size() + intersectionDtos.size() + connectionDtos.size() + playerDtos.size());
+        return new CurrentGameStateDto(hexagonDtos, intersectionDtos, connectionDtos, playerDtos, isSetupPhase);
     }
 
     private List<IngamePlayerDto> getIngamePlayerDtoList() {
@@ -0,0 +1,201 @@
+package com.group2.catanbackend.gamelogic;
+
+import com.group2.catanbackend.gamelogic.enums.BuildingType;
+import com.group2.catanbackend.gamelogic.enums.HexagonType;
+import com.group2.catanbackend.gamelogic.objects.Building;
+import com.group2.catanbackend.gamelogic.objects.Connection;
+import com.group2.catanbackend.gamelogic.objects.Hexagon;
+import com.group2.catanbackend.gamelogic.objects.Intersection;
+import com.group2.catanbackend.gamelogic.objects.Road;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.MessagingService;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary snapshot of the state of a {@link GameLogicController}: board layout, robber, buildings, roads,
+ * player resources, victory points, colors, turn orders and the phase. Players are written as their index in the
+ * player list, so the same list has to be passed when decoding.
+ * <p>
+ * Encoding writes straight into the given buffer and does not allocate. Enum values are written as ordinals,
+ * any change to them or to the layout below needs a new {@link #VERSION}.
+ */
+public final class GameStateCodec {
+    public static final byte VERSION = 1;
+    //enough for four players, the actual size is about 400 bytes
+    public static final int MAX_ENCODED_BYTES = 1024;
+
+    private static final int HEXAGONS = 19;
+    private static final int INTERSECTIONS = 54;
+    private static final int CONNECTIONS = 72;
+    private static final int BUILDINGS_PER_HEXAGON = 3;
+    private static final int RESOURCES = 5;
+    private static final byte NONE = 0;
+    private static final int FLAG_SETUP_PHASE = 1;
+    private static final int FLAG_GAMEOVER = 2;
+    private static final HexagonType[] HEXAGON_TYPES = HexagonType.values();
+    private static final BuildingType[] BUILDING_TYPES = BuildingType.values();
+
+    private GameStateCodec() {
+    }
+
+    /**
+     * Upper bound of the encoded size, reached when every hexagon pays out to three buildings.
+     */
+    public static int maxEncodedBytes(int playerCount) {
+        int header = 1 + Long.BYTES + 1;
+        int hexagons = HEXAGONS * (3 + BUILDINGS_PER_HEXAGON * 2);
+        int players = 1 + playerCount * (RESOURCES + 2) * Integer.BYTES;
+        int turnOrders = 1 + 2 * playerCount + 1 + playerCount;
+        return header + hexagons + INTERSECTIONS + CONNECTIONS + players + turnOrders;
+    }
+
+    public static void encode(GameLogicController game, ByteBuffer buffer) {
+        List<Player> players = game.getPlayers();
+        Board board = game.getBoard();
+        buffer.put(VERSION);
+        buffer.putLong(board.getSeed());
+        buffer.put((byte) ((game.isSetupPhase() ? FLAG_SETUP_PHASE : 0) | (game.isGameover() ? FLAG_GAMEOVER : 0)));
+
+        //hexagon: type, roll value, robber and the buildings it pays out to in insertion order
+        for (Hexagon hexagon : board.getHexagonList()) {
+            buffer.put((byte) hexagon.getHexagonType().ordinal());
+            buffer.put((byte) hexagon.getRollValue());
+            buffer.put((byte) (hexagon.isHasRobber() ? 1 : 0));
+            for (Building building : hexagon.getBuildings()) {
+                if (building == null) {
+                    buffer.put(NONE);
+                } else {
+                    buffer.put((byte) (building.getId() + 1));
+                    buffer.put(ownerAndType(players, building.getPlayer(), building.getType()));
+                }
+            }
+        }
+
+        //one byte per intersection and connection id, zero if nothing is built there
+        int base = buffer.position();
+        for (int i = 0; i < INTERSECTIONS; i++) {
+            buffer.put(NONE);
+        }
+        for (Intersection[] row : board.getIntersections()) {
+            for (Intersection intersection : row) {
+                if (intersection instanceof Building building)
+                    buffer.put(base + building.getId(), ownerAndType(players, building.getPlayer(), building.getType()));
+            }
+        }
+        base = buffer.position();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            buffer.put(NONE);
+        }
+        Connection[][] adjacencyMatrix = board.getAdjacencyMatrix();
+        for (int i = 0; i < adjacencyMatrix.length; i++) {
+            for (int j = i + 1; j < adjacencyMatrix[i].length; j++) {
+                if (adjacencyMatrix[i][j] instanceof Road road)
+                    buffer.put(base + road.getId(), (byte) (players.indexOf(road.getPlayer()) + 1));
+            }
+        }
+
+        buffer.put((byte) players.size());
+        for (Player player : players) {
+            for (int resource : player.getResources()) {
+                buffer.putInt(resource);
+            }
+            buffer.putInt(player.getVictoryPoints());
+            buffer.putInt(player.getColor());
+        }
+        writeOrder(players, game.getSetupPhaseTurnOrder(), buffer);
+        writeOrder(players, game.getTurnOrder(), buffer);
+    }
+
+    /**
+     * @param players the players of the game in the order they had when the snapshot was encoded
+     * @throws IllegalArgumentException if the snapshot has an unknown version or does not fit the players
+     */
+    public static GameLogicController decode(ByteBuffer buffer, List<Player> players, MessagingService messagingService, String gameId) {
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        long seed = buffer.getLong();
+        int flags = buffer.get();
+
+        List<Hexagon> hexagons = new ArrayList<>(HEXAGONS);
+        int[][] hexagonBuildings = new int[HEXAGONS][BUILDINGS_PER_HEXAGON];
+        for (int i = 0; i < HEXAGONS; i++) {
+            HexagonType type = HEXAGON_TYPES[buffer.get()];
+            int rollValue = buffer.get();
+            boolean hasRobber = buffer.get() != 0;
+            hexagons.add(new Hexagon(type, Board.distributionOf(type), rollValue, i, hasRobber));
+            for (int slot = 0; slot < BUILDINGS_PER_HEXAGON; slot++) {
+                int intersection = buffer.get();
+                hexagonBuildings[i][slot] = intersection == NONE ? NONE : (intersection - 1) << 8 | buffer.get() & 0xFF;
+            }
+        }
+        Board board = new Board(seed, hexagons);
+
+        for (int id = 0; id < INTERSECTIONS; id++) {
+            int ownerAndType = buffer.get() & 0xFF;
+            if (ownerAndType != NONE)
+                board.placeBuilding(building(players, id, ownerAndType));
+        }
+        for (int id = 0; id < CONNECTIONS; id++) {
+            int owner = buffer.get();
+            if (owner != NONE)
+                board.placeRoad(players.get(owner - 1), id);
+        }
+        //a hexagon may still hold a village that was upgraded since, so only reuse the board's building if it matches
+        for (int i = 0; i < HEXAGONS; i++) {
+            for (int slot = 0; slot < BUILDINGS_PER_HEXAGON; slot++) {
+                int encoded = hexagonBuildings[i][slot];
+                if (encoded == NONE)
+                    continue;
+                Building expected = building(players, encoded >>> 8, encoded & 0xFF);
+                Building placed = board.getBuilding(expected.getId());
+                boolean same = placed != null && placed.getPlayer() == expected.getPlayer() && placed.getType() == expected.getType();
+                hexagons.get(i).addBuilding(same ? placed : expected);
+            }
+        }
+
+        int playerCount = buffer.get();
+        if (playerCount != players.size())
+            throw new IllegalArgumentException("Snapshot has " + playerCount + " players, given were " + players.size());
+        for (Player player : players) {
+            int[] resources = player.getResources();
+            for (int i = 0; i < RESOURCES; i++) {
+                resources[i] = buffer.getInt();
+            }
+            player.increaseVictoryPoints(buffer.getInt() - player.getVictoryPoints());
+            player.setColor(buffer.getInt());
+        }
+        ArrayList<Player> setupPhaseTurnOrder = readOrder(players, buffer);
+        ArrayList<Player> turnOrder = readOrder(players, buffer);
+        return new GameLogicController(players, messagingService, gameId, board, setupPhaseTurnOrder, turnOrder,
+                (flags & FLAG_SETUP_PHASE) != 0, (flags & FLAG_GAMEOVER) != 0);
+    }
+
+    //owner index + 1 in the low nibble, building type in the high nibble
+    private static byte ownerAndType(List<Player> players, Player owner, BuildingType type) {
+        return (byte) (players.indexOf(owner) + 1 | type.ordinal() << 4);
+    }
+
+    private static Building building(List<Player> players, int intersectionID, int ownerAndType) {
+        return new Building(players.get((ownerAndType & 0x0F) - 1), BUILDING_TYPES[ownerAndType >>> 4], intersectionID);
+    }
+
+    private static void writeOrder(List<Player> players, List<Player> order, ByteBuffer buffer) {
+        buffer.put((byte) order.size());
+        for (Player player : order) {
+            buffer.put((byte) players.indexOf(player));
+        }
+    }
+
+    private static ArrayList<Player> readOrder(List<Player> players, ByteBuffer buffer) {
+        int size = buffer.get();
+        ArrayList<Player> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            order.add(players.get(buffer.get()));
+        }
+        return order;
+    }
+}
@@ -21,8 +21,12 @@ public class GameDescriptor {
     private final boolean[] availableIDs = new boolean[Constants.MAX_PLAYER_COUNT];
 
     public GameDescriptor(){
+        this(UUID.randomUUID().toString().substring(0,7));
+    }
+
+    public GameDescriptor(String id){
         this.players = new LinkedList<>();
-        this.id = UUID.randomUUID().toString().substring(0,7);
+        this.id = id;
         this.createdAt = new Date();
         availableIDs[0] = false;
         Arrays.fill(availableIDs, true);
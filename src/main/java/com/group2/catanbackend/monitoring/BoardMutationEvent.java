@@ -0,0 +1,11 @@
+package com.group2.catanbackend.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("catan.BoardMutation")
+@Label("Board Mutation")
+@Description("Changes to the board and the players, including the placement checks of the board")
+public class BoardMutationEvent extends GameEngineEvent {
+}
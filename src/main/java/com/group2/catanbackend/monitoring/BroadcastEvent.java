@@ -0,0 +1,11 @@
+package com.group2.catanbackend.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("catan.Broadcast")
+@Label("Broadcast")
+@Description("Handing a message to the broker, including its serialization")
+public class BroadcastEvent extends GameEngineEvent {
+}
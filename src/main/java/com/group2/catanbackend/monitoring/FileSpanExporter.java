@@ -0,0 +1,89 @@
+package com.group2.catanbackend.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Appends finished spans to a file, one JSON object per line, so traces can be looked at without a collector.
+ * Called by the batch span processor from its own thread.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                writer.write(objectMapper.writeValueAsString(toJson(span)));
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not write " + spans.size() + " spans: " + e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private static Map<String, Object> toJson(SpanData span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid())
+            json.put("parentSpanId", span.getParentSpanId());
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startEpochNanos", span.getStartEpochNanos());
+        json.put("durationNanos", span.getEndEpochNanos() - span.getStartEpochNanos());
+        if (span.getStatus().getStatusCode() != StatusCode.UNSET)
+            json.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new TreeMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        json.put("attributes", attributes);
+        return json;
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+}
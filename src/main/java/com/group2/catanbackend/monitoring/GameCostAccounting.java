@@ -0,0 +1,74 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.GameCostDto;
+import com.group2.catanbackend.service.RunningInstanceService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hands out the cost counters of new games and ranks the running games by one of their costs, to find the few games
+ * that take up most of the node.
+ */
+public class GameCostAccounting {
+    public static final GameCostAccounting DISABLED = new GameCostAccounting(false, false);
+    public static final int MAX_LIMIT = 100;
+
+    public enum Cost {
+        CPU(GameCostDto::getCpuNanos),
+        BYTES(GameCostDto::getBytesSerialized),
+        FRAMES(GameCostDto::getFramesSent),
+        ACCEPTED(GameCostDto::getMovesAccepted),
+        REJECTED(GameCostDto::getMovesRejected),
+        MEMORY(GameCostDto::getRetainedBytes);
+
+        private final ToLongFunction<GameCostDto> value;
+
+        Cost(ToLongFunction<GameCostDto> value) {
+            this.value = value;
+        }
+    }
+
+    private final boolean enabled;
+    private final boolean cpuTime;
+
+    /**
+     * @param cpuTime whether to read the thread CPU time around every move, ignored where the JVM cannot measure it
+     */
+    public GameCostAccounting(boolean enabled, boolean cpuTime) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        this.enabled = enabled;
+        this.cpuTime = enabled && cpuTime && threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public GameCosts newGame() {
+        return enabled ? new GameCosts(true, cpuTime) : GameCosts.NONE;
+    }
+
+    /**
+     * @param limit number of games to return, at most {@link #MAX_LIMIT}
+     * @return the games with the highest cost, highest first
+     */
+    public List<GameCostDto> top(Collection<RunningInstanceService> games, Cost by, int limit) {
+        limit = Math.max(0, Math.min(limit, MAX_LIMIT));
+        if (!enabled || limit == 0)
+            return List.of();
+        Comparator<GameCostDto> order = Comparator.comparingLong(by.value);
+        //min-heap of the highest costs seen so far, the cheapest of them is dropped first
+        PriorityQueue<GameCostDto> top = new PriorityQueue<>(limit + 1, order);
+        for (RunningInstanceService game : games) {
+            top.add(game.getCosts());
+            if (top.size() > limit)
+                top.poll();
+        }
+        List<GameCostDto> ranking = new ArrayList<>(top);
+        ranking.sort(order.reversed());
+        return ranking;
+    }
+}
@@ -0,0 +1,97 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.monitoring.GameMetrics.Channel;
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * What a single game costs this node: CPU time of its moves, JSON it had serialized, frames sent to its players and
+ * the moves it made.
+ * <p>
+ * The game marks the current thread between {@link #begin} and {@link #end}, so the message converter and the
+ * messaging service can charge their work to it without knowing the game. Counters are only written under the lock
+ * of the game and may be read at any time.
+ */
+public class GameCosts {
+    //never accounts anything, handed out while cost accounting is disabled
+    static final GameCosts NONE = new GameCosts(false, false);
+    private static final ThreadLocal<GameCosts> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean enabled;
+    private final boolean cpuTime;
+    //players with an open session while the current work was done, every message to the game goes to each of them
+    private int recipients;
+    @Getter
+    private volatile long cpuNanos;
+    @Getter
+    private volatile long bytesSerialized;
+    @Getter
+    private volatile long framesSent;
+    @Getter
+    private volatile long movesAccepted;
+    @Getter
+    private volatile long movesRejected;
+
+    GameCosts(boolean enabled, boolean cpuTime) {
+        this.enabled = enabled;
+        this.cpuTime = cpuTime;
+    }
+
+    /**
+     * @return the game the current thread works for, null outside of {@link #begin} and {@link #end}
+     */
+    public static GameCosts current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Charges the work of this thread to the game until {@link #end}.
+     * @param recipients sessions that receive the messages sent to the game
+     * @return the CPU time to hand to {@link #end}
+     */
+    public long begin(int recipients) {
+        if (!enabled)
+            return 0;
+        this.recipients = recipients;
+        CURRENT.set(this);
+        return cpuTime ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    public void end(long cpuStart) {
+        if (!enabled)
+            return;
+        //set instead of removed, removing and setting again allocates a new entry every time
+        CURRENT.set(null);
+        if (cpuTime)
+            cpuNanos += THREADS.getCurrentThreadCpuTime() - cpuStart;
+    }
+
+    public void moveAccepted() {
+        if (enabled)
+            movesAccepted++;
+    }
+
+    public void moveRejected() {
+        if (enabled)
+            movesRejected++;
+    }
+
+    public void serialized(long bytes) {
+        bytesSerialized += bytes;
+    }
+
+    /**
+     * Messages to the lobby directory go to every lobby browser and are not charged to the game.
+     */
+    public void messageSent(Channel channel) {
+        switch (channel) {
+            case LOBBY, GAME -> framesSent += recipients;
+            case USER -> framesSent++;
+            default -> {
+            }
+        }
+    }
+}
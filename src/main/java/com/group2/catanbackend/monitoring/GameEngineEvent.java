@@ -0,0 +1,39 @@
+package com.group2.catanbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of the game engine. While no recording wants the event, {@link #isEnabled()} is a single
+ * field read and the JIT removes unused event objects, so callers only pay for a branch.
+ * <p>
+ * The fields are only filled when the event is committed.
+ */
+@Category({"Catan", "Game Engine"})
+@StackTrace(false)
+public abstract class GameEngineEvent extends Event {
+    @Label("Game Id")
+    protected String gameId;
+
+    @Label("Move Type")
+    protected String moveType;
+
+    //bytes for serialization and broadcasts, elements for the game state, 0 for moves
+    @Label("Payload Size")
+    protected long payloadSize;
+
+    /**
+     * Ends the event and commits it if a recording wants it, e.g. it ran longer than the threshold.
+     */
+    public void end(String gameId, String moveType, long payloadSize) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId;
+            this.moveType = moveType;
+            this.payloadSize = payloadSize;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.group2.catanbackend.monitoring;
+
+/**
+ * The game and move the current thread is working on, for flight recorder events raised where neither is known,
+ * e.g. in the message converter. Only filled while a recording wants broadcast or serialization events, otherwise
+ * the static methods return null after checking the event types.
+ */
+public final class GameEventContext {
+    private static final ThreadLocal<GameEventContext> CURRENT = ThreadLocal.withInitial(GameEventContext::new);
+    //never committed, only asked whether their event type is enabled
+    private static final BroadcastEvent BROADCAST = new BroadcastEvent();
+    private static final SerializationEvent SERIALIZATION = new SerializationEvent();
+
+    private String gameId;
+    private String moveType;
+    private boolean inMove;
+    private long payloadSize;
+    private BroadcastEvent broadcast;
+
+    private GameEventContext() {
+    }
+
+    private static boolean isRecording() {
+        return BROADCAST.isEnabled() || SERIALIZATION.isEnabled();
+    }
+
+    /**
+     * @return the context of this thread, null if no recording wants the events
+     */
+    public static GameEventContext current() {
+        return isRecording() ? CURRENT.get() : null;
+    }
+
+    /**
+     * @return the context to end the move on, null if no recording wants the events
+     */
+    public static GameEventContext moveStarted(String gameId, String moveType) {
+        GameEventContext context = current();
+        if (context != null) {
+            context.gameId = gameId;
+            context.moveType = moveType;
+            context.inMove = true;
+        }
+        return context;
+    }
+
+    public void moveEnded() {
+        inMove = false;
+        gameId = null;
+        moveType = null;
+    }
+
+    /**
+     * @param gameId the game the message goes to, null for messages to a user or to all lobby browsers
+     * @return the context to end the broadcast on, null if no recording wants the events
+     */
+    public static GameEventContext broadcastStarted(String gameId) {
+        GameEventContext context = current();
+        if (context != null) {
+            if (!context.inMove)
+                context.gameId = gameId;
+            context.payloadSize = 0;
+            context.broadcast = new BroadcastEvent();
+            context.broadcast.begin();
+        }
+        return context;
+    }
+
+    public void broadcastEnded() {
+        if (broadcast != null)
+            broadcast.end(gameId, moveType, payloadSize);
+        broadcast = null;
+        if (!inMove)
+            gameId = null;
+    }
+
+    /**
+     * Ends a serialization event and remembers the size for the broadcast it belongs to.
+     */
+    public void serialized(SerializationEvent event, long bytes) {
+        payloadSize = bytes;
+        event.end(gameId, moveType, bytes);
+    }
+}
@@ -0,0 +1,74 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.LatencyDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports {@link #DEGRADED} once the node is too busy to take new lobbies: the p99 of the recent moves, the outbound
+ * message queue or the number of games crossed its threshold.
+ * <p>
+ * DEGRADED ranks below UP in the overall health and the readiness probe, so running games keep their node. Only the
+ * {@code lobbies} health group maps it to 503, that is the group the load balancer checks before it routes
+ * {@code /catan/game/create} to a node.
+ */
+@Component
+public class GameLoadHealthIndicator implements HealthIndicator {
+    public static final Status DEGRADED = new Status("DEGRADED", "Too busy for new lobbies");
+
+    private final NodeLoad nodeLoad;
+    private final long maxMoveP99Micros;
+    private final long minMoves;
+    private final int maxOutboundQueue;
+    private final int maxGames;
+
+    /**
+     * @param minMoves moves the window needs before its p99 counts, so a few slow moves on a quiet node do not matter
+     */
+    @Autowired
+    public GameLoadHealthIndicator(NodeLoad nodeLoad,
+                                   @Value("${catan.health.move-p99-ms:250}") long maxMoveP99Millis,
+                                   @Value("${catan.health.min-moves:100}") long minMoves,
+                                   @Value("${catan.health.outbound-queue:1000}") int maxOutboundQueue,
+                                   @Value("${catan.health.max-games:10000}") int maxGames) {
+        this.nodeLoad = nodeLoad;
+        this.maxMoveP99Micros = TimeUnit.MILLISECONDS.toMicros(maxMoveP99Millis);
+        this.minMoves = minMoves;
+        this.maxOutboundQueue = maxOutboundQueue;
+        this.maxGames = maxGames;
+    }
+
+    @Override
+    public Health health() {
+        List<String> saturated = new ArrayList<>(3);
+        Health.Builder health = new Health.Builder();
+
+        Optional<LatencyDto> moves = nodeLoad.getMoveLatency();
+        if (moves.isPresent()) {
+            health.withDetail("moveP99Micros", moves.get().getP99());
+            if (moves.get().getCount() >= minMoves && moves.get().getP99() > maxMoveP99Micros)
+                saturated.add("moveP99Micros");
+        }
+        int outboundQueue = nodeLoad.getOutboundQueueDepth();
+        health.withDetail("outboundQueue", outboundQueue);
+        if (outboundQueue > maxOutboundQueue)
+            saturated.add("outboundQueue");
+        int games = nodeLoad.getGameCount();
+        health.withDetail("games", games);
+        if (games >= maxGames)
+            saturated.add("games");
+
+        if (saturated.isEmpty())
+            return health.up().build();
+        return health.status(DEGRADED).withDetail("saturated", saturated).build();
+    }
+}
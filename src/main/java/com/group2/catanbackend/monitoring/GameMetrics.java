@@ -0,0 +1,195 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.game.GameMoveDto;
+import com.group2.catanbackend.dto.game.GameMoveType;
+import com.group2.catanbackend.dto.game.MessageDto;
+import com.group2.catanbackend.dto.game.MessageType;
+import com.group2.catanbackend.exception.GameException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers around move processing and the messages sent to the clients.
+ * <p>
+ * Tags only take values from fixed sets, unknown move or message types are recorded as {@code other}. Timers are
+ * looked up in arrays and maps filled at startup, so recording reads the clock and adds to a timer without allocating.
+ * {@link #NOOP} records nothing and does not read the clock.
+ */
+public class GameMetrics {
+    public static final GameMetrics NOOP = new GameMetrics(null);
+    static final String OTHER = "other";
+    static final List<String> MOVE_TYPES = List.of(GameMoveType.BUILDROADMOVE, GameMoveType.BUILDVILLAGEMOVE,
+            GameMoveType.ENTTURNMOVE, GameMoveType.ROLLDICEMOVE);
+    static final List<String> MESSAGE_TYPES = List.of(MessageType.PLAYERS_CHANGED, MessageType.GAME_STARTED,
+            MessageType.GAME_MOVE_NOTIFIER, MessageType.GAME_OBJECT, MessageType.INVALID_GAME_MOVE,
+            MessageType.LOBBY_DIRECTORY_SNAPSHOT, MessageType.LOBBY_CREATED, MessageType.LOBBY_UPDATED,
+            MessageType.LOBBY_STARTED, MessageType.LOBBY_REMOVED, MessageType.GAME_MOVED);
+
+    public enum Outcome {
+        OK, REJECTED, ERROR;
+
+        //game exceptions are moves the rules or the lookups turned down, anything else is a bug
+        public static Outcome of(RuntimeException e) {
+            return e instanceof GameException ? REJECTED : ERROR;
+        }
+    }
+
+    public enum Transport {REST, SOCKET}
+
+    public enum Channel {LOBBY, GAME, LOBBY_DIRECTORY, USER}
+
+    private final MeterRegistry registry;
+    private final MoveLatencies latencies;
+    private final Timer[][] requestTimers;
+    private final Map<String, Timer[]> moveTimers = new HashMap<>();
+    private final Timer[] otherMoveTimers;
+    private final Timer stateTimer;
+    private final Map<String, Timer[]> messageTimers = new HashMap<>();
+    private final Timer[] otherMessageTimers;
+    private final Counter[] failedMessages;
+
+    public GameMetrics(MeterRegistry registry) {
+        this(registry, null);
+    }
+
+    /**
+     * @param registry where the meters are registered, null records nothing
+     * @param latencies end-to-end latency histograms, null if only the timers are wanted
+     */
+    public GameMetrics(MeterRegistry registry, MoveLatencies latencies) {
+        this.registry = registry;
+        this.latencies = registry == null ? null : latencies;
+        if (registry == null) {
+            requestTimers = null;
+            otherMoveTimers = null;
+            stateTimer = null;
+            otherMessageTimers = null;
+            failedMessages = null;
+            return;
+        }
+        requestTimers = new Timer[Transport.values().length][];
+        for (Transport transport : Transport.values()) {
+            requestTimers[transport.ordinal()] = outcomeTimers(Timer.builder("catan.moves.requests")
+                    .description("Moves handled by the game service, from the lookup of the player to the reply")
+                    .tag("transport", tagValue(transport)));
+        }
+        for (String type : MOVE_TYPES) {
+            moveTimers.put(type, moveTimers(type));
+        }
+        otherMoveTimers = moveTimers(OTHER);
+        stateTimer = Timer.builder("catan.game.state.sends")
+                .description("Building and sending the full game state to the players of a game")
+                .register(registry);
+        for (String type : MESSAGE_TYPES) {
+            messageTimers.put(type, messageTimers(type));
+        }
+        otherMessageTimers = messageTimers(OTHER);
+        failedMessages = new Counter[Channel.values().length];
+        for (Channel channel : Channel.values()) {
+            failedMessages[channel.ordinal()] = Counter.builder("catan.messages.failed")
+                    .description("Messages the broker did not accept")
+                    .tag("channel", tagValue(channel))
+                    .register(registry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * @return the start time to hand to one of the record methods
+     */
+    public long start() {
+        return registry == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Starts handling a move on this thread, messages sent until {@link #moveRequested} count towards its latency.
+     * @param receivedAt {@link System#nanoTime()} when the move reached the server, 0 if it was not taken
+     * @return the start time to hand to {@link #moveRequested}
+     */
+    public long moveStarted(long receivedAt) {
+        if (registry == null)
+            return 0;
+        long start = System.nanoTime();
+        if (latencies != null)
+            latencies.moveStarted(receivedAt != 0 ? receivedAt : start);
+        return start;
+    }
+
+    public void moveRequested(Transport transport, GameMoveDto move, Outcome outcome, long start) {
+        if (registry == null)
+            return;
+        record(requestTimers[transport.ordinal()][outcome.ordinal()], start);
+        if (latencies != null)
+            latencies.moveFinished(move, outcome == Outcome.OK);
+    }
+
+    public void moveApplied(GameMoveDto move, Outcome outcome, long start) {
+        if (registry == null)
+            return;
+        Timer[] timers = move == null || move.getEventType() == null ? null : moveTimers.get(move.getEventType());
+        record((timers == null ? otherMoveTimers : timers)[outcome.ordinal()], start);
+    }
+
+    public void stateSent(long start) {
+        if (registry != null)
+            record(stateTimer, start);
+    }
+
+    public void messageSent(Channel channel, MessageDto message, long start) {
+        if (registry == null)
+            return;
+        Timer[] timers = message == null || message.getEventType() == null ? null : messageTimers.get(message.getEventType());
+        record((timers == null ? otherMessageTimers : timers)[channel.ordinal()], start);
+        if (latencies != null)
+            latencies.messageSent(message);
+    }
+
+    public void messageFailed(Channel channel) {
+        if (registry != null)
+            failedMessages[channel.ordinal()].increment();
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] moveTimers(String type) {
+        return outcomeTimers(Timer.builder("catan.moves.applied")
+                .description("Moves validated and applied to the board, including the messages they trigger")
+                .tag("type", type));
+    }
+
+    private Timer[] outcomeTimers(Timer.Builder builder) {
+        Timer[] timers = new Timer[Outcome.values().length];
+        for (Outcome outcome : Outcome.values()) {
+            timers[outcome.ordinal()] = builder.tag("outcome", tagValue(outcome)).register(registry);
+        }
+        return timers;
+    }
+
+    private Timer[] messageTimers(String type) {
+        Timer[] timers = new Timer[Channel.values().length];
+        for (Channel channel : Channel.values()) {
+            timers[channel.ordinal()] = Timer.builder("catan.messages.sent")
+                    .description("Messages handed to the broker, including their conversion")
+                    .tag("channel", tagValue(channel))
+                    .tag("type", type)
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,34 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.service.GameService;
+import com.group2.catanbackend.service.StompEventListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GameRegistryMetrics implements MeterBinder {
+    private final GameService gameService;
+    private final StompEventListener stompEventListener;
+
+    @Autowired
+    public GameRegistryMetrics(GameService gameService, StompEventListener stompEventListener){
+        this.gameService = gameService;
+        this.stompEventListener = stompEventListener;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catan.games.running", gameService, service -> service.getRunningGames().size())
+                .description("Games running on this node")
+                .register(registry);
+        Gauge.builder("catan.games.lobbies", gameService, service -> service.getRegisteredGames().size())
+                .description("Lobbies waiting for players on this node")
+                .register(registry);
+        Gauge.builder("catan.sessions.connected", stompEventListener, StompEventListener::getConnectedSessionCount)
+                .description("Open STOMP sessions")
+                .register(registry);
+    }
+}
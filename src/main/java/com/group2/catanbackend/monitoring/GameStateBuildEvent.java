@@ -0,0 +1,11 @@
+package com.group2.catanbackend.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("catan.GameStateBuild")
+@Label("Game State Build")
+@Description("Building the full game state sent to the players")
+public class GameStateBuildEvent extends GameEngineEvent {
+}
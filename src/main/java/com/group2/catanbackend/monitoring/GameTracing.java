@@ -0,0 +1,138 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.game.GameMoveDto;
+import com.group2.catanbackend.dto.game.MessageDto;
+import com.group2.catanbackend.monitoring.GameMetrics.Transport;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OpenTelemetry spans around the stages of a move: its receipt, the token lookup, validating and applying it,
+ * building the game state and every message sent because of it.
+ * <p>
+ * Spans of a move are children of the current span, so they only need to be made current, not passed along. Moves
+ * carrying a W3C {@code traceparent} continue the client's trace, and the trace context is sent along with every
+ * message of a sampled trace. {@link #NOOP} starts no spans and only returns the invalid span.
+ */
+public class GameTracing {
+    public static final GameTracing NOOP = new GameTracing(null);
+    public static final String TRACEPARENT = "traceparent";
+    private static final String INSTRUMENTATION_NAME = "com.group2.catanbackend";
+
+    //the carrier is the traceparent value itself, the only field the W3C propagator needs
+    private static final TextMapGetter<String> TRACEPARENT_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(String traceparent) {
+            return List.of(TRACEPARENT);
+        }
+
+        @Override
+        public String get(String traceparent, String key) {
+            return TRACEPARENT.equals(key) ? traceparent : null;
+        }
+    };
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    /**
+     * @param openTelemetry sampling and export of the spans, null starts no spans
+     */
+    public GameTracing(@Nullable OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry == null ? null : openTelemetry.getTracer(INSTRUMENTATION_NAME);
+        this.propagator = openTelemetry == null ? null : openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    public boolean isEnabled() {
+        return tracer != null;
+    }
+
+    /**
+     * @param traceparent trace context the client sent with the move, null to start a new trace
+     */
+    public Span moveReceived(Transport transport, GameMoveDto move, @Nullable String traceparent) {
+        if (tracer == null)
+            return Span.getInvalid();
+        Context parent = traceparent == null ? Context.root() : propagator.extract(Context.root(), traceparent, TRACEPARENT_GETTER);
+        return tracer.spanBuilder("catan.move.receive")
+                .setParent(parent)
+                .setSpanKind(SpanKind.SERVER)
+                .setAttribute("catan.transport", transport.name().toLowerCase(Locale.ROOT))
+                .setAttribute("catan.move.type", move == null ? GameMetrics.OTHER : String.valueOf(move.getEventType()))
+                .startSpan();
+    }
+
+    public Span tokenResolving() {
+        return start("catan.token.resolve");
+    }
+
+    public Span moveApplying(String gameId, String moveType) {
+        if (tracer == null)
+            return Span.getInvalid();
+        return tracer.spanBuilder("catan.move.apply")
+                .setAttribute("catan.game.id", gameId)
+                .setAttribute("catan.move.type", moveType == null ? GameMetrics.OTHER : moveType)
+                .startSpan();
+    }
+
+    public Span stateBuilding() {
+        return start("catan.state.build");
+    }
+
+    public Span messageSending(String destination, MessageDto payload) {
+        if (tracer == null)
+            return Span.getInvalid();
+        return tracer.spanBuilder("catan.message.send")
+                .setSpanKind(SpanKind.PRODUCER)
+                .setAttribute("messaging.destination.name", destination)
+                .setAttribute("catan.message.type", payload == null ? GameMetrics.OTHER : String.valueOf(payload.getEventType()))
+                .startSpan();
+    }
+
+    /**
+     * @return STOMP headers carrying the trace context of the span, null if the span is not sampled
+     */
+    @Nullable
+    public Map<String, Object> headers(Span span) {
+        if (tracer == null || !span.getSpanContext().isSampled())
+            return null;
+        Map<String, Object> headers = new HashMap<>(2);
+        propagator.inject(Context.current().with(span), headers, Map::put);
+        return headers;
+    }
+
+    /**
+     * @return the scope to close once the span is no longer current, a no-op for the invalid span
+     */
+    public static Scope makeCurrent(Span span) {
+        return span == Span.getInvalid() ? Scope.noop() : span.makeCurrent();
+    }
+
+    /**
+     * Marks the span as failed. Game exceptions are moves the rules turned down, only other exceptions are recorded.
+     */
+    public static void failed(Span span, RuntimeException e) {
+        if (!span.isRecording())
+            return;
+        span.setStatus(StatusCode.ERROR, e.getMessage());
+        if (GameMetrics.Outcome.of(e) == GameMetrics.Outcome.ERROR)
+            span.recordException(e);
+    }
+
+    private Span start(String name) {
+        return tracer == null ? Span.getInvalid() : tracer.spanBuilder(name).startSpan();
+    }
+}
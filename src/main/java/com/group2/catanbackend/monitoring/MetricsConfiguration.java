@@ -0,0 +1,28 @@
+package com.group2.catanbackend.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * @param enabled false leaves moves and messages untimed and the latency histograms empty, the gauges are registered either way
+     */
+    @Bean
+    public GameMetrics gameMetrics(MeterRegistry registry, MoveLatencies latencies,
+                                   @Value("${catan.metrics.enabled:true}") boolean enabled) {
+        return enabled ? new GameMetrics(registry, latencies) : GameMetrics.NOOP;
+    }
+
+    /**
+     * @param cpuTime reads the thread CPU time around every move, which costs a system call each time
+     */
+    @Bean
+    public GameCostAccounting gameCostAccounting(@Value("${catan.costs.enabled:true}") boolean enabled,
+                                                 @Value("${catan.costs.cpu-time:true}") boolean cpuTime) {
+        return new GameCostAccounting(enabled, cpuTime);
+    }
+}
@@ -0,0 +1,170 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.LatencyDto;
+import com.group2.catanbackend.dto.game.GameMoveDto;
+import com.group2.catanbackend.dto.game.MessageDto;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of moves, from the moment a move reached the server until the messages it caused were handed to
+ * the broker, per move type and per message type.
+ * <p>
+ * Each type records into an HdrHistogram {@link Recorder}, which is wait-free and does not allocate for values within
+ * its range. The recorders are swapped out every interval and the last intervals form a rolling window, so the
+ * percentiles reflect the recent past rather than the whole uptime.
+ * <p>
+ * The move being handled is kept per thread between {@link #moveStarted} and {@link #moveFinished}; messages sent on
+ * other threads or outside of a move are not recorded.
+ */
+@Component
+public class MoveLatencies {
+    static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final ThreadLocal<long[]> currentMove = ThreadLocal.withInitial(() -> new long[1]);
+    private final Map<String, Window> moveWindows = new HashMap<>();
+    private final Window otherMoves;
+    private final Map<String, Window> messageWindows = new HashMap<>();
+    private final Window otherMessages;
+    @Getter
+    private final long windowMillis;
+
+    /**
+     * @param intervalMillis how often the recorders are swapped out, must match the schedule of {@link #roll()}
+     * @param intervals number of intervals in the rolling window
+     */
+    @Autowired
+    public MoveLatencies(@Value("${catan.latency.interval-ms:10000}") long intervalMillis,
+                         @Value("${catan.latency.intervals:6}") int intervals) {
+        if (intervals < 1)
+            throw new IllegalArgumentException("intervals must be at least 1");
+        this.windowMillis = intervalMillis * intervals;
+        for (String type : GameMetrics.MOVE_TYPES) {
+            moveWindows.put(type, new Window(intervals));
+        }
+        otherMoves = new Window(intervals);
+        for (String type : GameMetrics.MESSAGE_TYPES) {
+            messageWindows.put(type, new Window(intervals));
+        }
+        otherMessages = new Window(intervals);
+    }
+
+    /**
+     * @param receivedAt {@link System#nanoTime()} when the move reached the server
+     */
+    public void moveStarted(long receivedAt) {
+        currentMove.get()[0] = receivedAt;
+    }
+
+    /**
+     * @param accepted false for moves that were turned down, only accepted moves are recorded
+     */
+    public void moveFinished(GameMoveDto move, boolean accepted) {
+        long[] current = currentMove.get();
+        if (current[0] != 0 && accepted)
+            windowOf(moveWindows, otherMoves, move == null ? null : move.getEventType()).record(current[0]);
+        current[0] = 0;
+    }
+
+    public void messageSent(MessageDto message) {
+        long receivedAt = currentMove.get()[0];
+        if (receivedAt != 0)
+            windowOf(messageWindows, otherMessages, message == null ? null : message.getEventType()).record(receivedAt);
+    }
+
+    @Scheduled(fixedRateString = "${catan.latency.interval-ms:10000}", initialDelayString = "${catan.latency.interval-ms:10000}")
+    public void roll() {
+        moveWindows.values().forEach(Window::roll);
+        otherMoves.roll();
+        messageWindows.values().forEach(Window::roll);
+        otherMessages.roll();
+    }
+
+    /**
+     * @return percentiles of the rolling window per move type, types without moves in the window are left out
+     */
+    public Map<String, LatencyDto> getMoveLatencies() {
+        return report(moveWindows, otherMoves);
+    }
+
+    /**
+     * @return percentiles of the rolling window over the moves of all types, empty if there were none
+     */
+    public Optional<LatencyDto> getMoveLatency() {
+        Histogram merged = new Histogram(MAX_MICROS, SIGNIFICANT_DIGITS);
+        moveWindows.values().forEach(window -> window.addTo(merged));
+        otherMoves.addTo(merged);
+        return latencyOf(merged);
+    }
+
+    public Map<String, LatencyDto> getMessageLatencies() {
+        return report(messageWindows, otherMessages);
+    }
+
+    private static Map<String, LatencyDto> report(Map<String, Window> windows, Window other) {
+        Map<String, LatencyDto> report = new TreeMap<>();
+        windows.forEach((type, window) -> window.report().ifPresent(latency -> report.put(type, latency)));
+        other.report().ifPresent(latency -> report.put(GameMetrics.OTHER, latency));
+        return report;
+    }
+
+    private static Window windowOf(Map<String, Window> windows, Window other, String type) {
+        Window window = type == null ? null : windows.get(type);
+        return window == null ? other : window;
+    }
+
+    private static class Window {
+        private final Recorder recorder = new Recorder(MAX_MICROS, SIGNIFICANT_DIGITS);
+        //ring of completed intervals with next at the oldest, only touched under the window's lock
+        private final Histogram[] intervals;
+        private int next = 0;
+
+        Window(int intervals) {
+            this.intervals = new Histogram[intervals];
+        }
+
+        void record(long startNanos) {
+            long micros = (System.nanoTime() - startNanos) / 1000;
+            //the recorder has a fixed range, anything longer counts as the maximum
+            recorder.recordValue(Math.max(0, Math.min(micros, MAX_MICROS)));
+        }
+
+        synchronized void roll() {
+            //the interval leaving the window came from this recorder and is handed back to be reused
+            intervals[next] = recorder.getIntervalHistogram(intervals[next]);
+            next = (next + 1) % intervals.length;
+        }
+
+        Optional<LatencyDto> report() {
+            Histogram merged = new Histogram(MAX_MICROS, SIGNIFICANT_DIGITS);
+            addTo(merged);
+            return latencyOf(merged);
+        }
+
+        synchronized void addTo(Histogram merged) {
+            for (Histogram interval : intervals) {
+                if (interval != null)
+                    merged.add(interval);
+            }
+        }
+    }
+
+    private static Optional<LatencyDto> latencyOf(Histogram histogram) {
+        if (histogram.getTotalCount() == 0)
+            return Optional.empty();
+        return Optional.of(new LatencyDto(histogram.getTotalCount(), histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMaxValue()));
+    }
+}
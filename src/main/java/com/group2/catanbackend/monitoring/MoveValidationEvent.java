@@ -0,0 +1,11 @@
+package com.group2.catanbackend.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("catan.MoveValidation")
+@Label("Move Validation")
+@Description("Rule checks of a move before the board is touched")
+public class MoveValidationEvent extends GameEngineEvent {
+}
@@ -0,0 +1,92 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.LatencyDto;
+import com.group2.catanbackend.service.GameRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * How busy this node is, read from what is collected anyway: the rolling move latencies, the queues of the executors
+ * that handle STOMP frames, the heap left after the last collection and the games held in the registry. Nothing is
+ * probed, so reading is cheap.
+ */
+@Component
+public class NodeLoad {
+    private final MoveLatencies moveLatencies;
+    private final GameRegistry gameRegistry;
+    private final TaskExecutor inboundExecutor;
+    private final TaskExecutor outboundExecutor;
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+            .toList();
+
+    @Autowired
+    public NodeLoad(MoveLatencies moveLatencies, GameRegistry gameRegistry,
+                    @Qualifier("clientInboundChannelExecutor") TaskExecutor inboundExecutor,
+                    @Qualifier("clientOutboundChannelExecutor") TaskExecutor outboundExecutor) {
+        this.moveLatencies = moveLatencies;
+        this.gameRegistry = gameRegistry;
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+    }
+
+    /**
+     * @return latency of the moves of all types over the rolling window, empty if there were none
+     */
+    public Optional<LatencyDto> getMoveLatency() {
+        return moveLatencies.getMoveLatency();
+    }
+
+    /**
+     * @return frames from the clients waiting for a thread to handle them, 0 if the executor has no queue
+     */
+    public int getInboundQueueDepth() {
+        return queueDepth(inboundExecutor);
+    }
+
+    /**
+     * @return messages waiting for a thread to write them to their sessions, 0 if the executor has no queue
+     */
+    public int getOutboundQueueDepth() {
+        return queueDepth(outboundExecutor);
+    }
+
+    /**
+     * Share of the maximum heap that was still in use right after the last collection of each pool, which is what
+     * the live objects need. The JVM updates it with every collection, 0 until the first one.
+     */
+    public double getHeapUsedAfterGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null)
+                used += usage.getUsed();
+        }
+        return (double) used / Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * @return lobbies and running games held by this node
+     */
+    public int getGameCount() {
+        return gameRegistry.getLobbies().size() + gameRegistry.getRunningGames().size();
+    }
+
+    public int getRunningGameCount() {
+        return gameRegistry.getRunningGames().size();
+    }
+
+    private static int queueDepth(TaskExecutor executor) {
+        return executor instanceof ThreadPoolTaskExecutor threadPool ? threadPool.getQueueSize() : 0;
+    }
+}
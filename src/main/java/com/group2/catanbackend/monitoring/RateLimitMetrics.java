@@ -0,0 +1,30 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.service.RateLimits;
+import com.group2.catanbackend.service.TokenBucketLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RateLimitMetrics implements MeterBinder {
+    private final RateLimits rateLimits;
+
+    public RateLimitMetrics(@Autowired RateLimits rateLimits){
+        this.rateLimits = rateLimits;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("catan.ratelimit.rejected", rateLimits.getMoves(), TokenBucketLimiter::getRejected)
+                .description("Requests turned down for exceeding their rate limit")
+                .tag("limit", "moves")
+                .register(registry);
+        FunctionCounter.builder("catan.ratelimit.rejected", rateLimits.getLobbies(), TokenBucketLimiter::getRejected)
+                .description("Requests turned down for exceeding their rate limit")
+                .tag("limit", "lobbies")
+                .register(registry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.group2.catanbackend.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.MessageDto;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.DefaultContentTypeResolver;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON converter for outgoing messages that raises a {@link SerializationEvent} per message and charges the size to
+ * the {@link GameCosts} of the game the message is sent for.
+ * Configured like the converter Spring Boot registers, and only used for {@link MessageDto} payloads, so other
+ * payloads and incoming messages are left to the default converters.
+ */
+public class RecordingJsonMessageConverter extends MappingJackson2MessageConverter {
+
+    public RecordingJsonMessageConverter(ObjectMapper objectMapper) {
+        setObjectMapper(objectMapper);
+        DefaultContentTypeResolver resolver = new DefaultContentTypeResolver();
+        resolver.setDefaultMimeType(MimeTypeUtils.APPLICATION_JSON);
+        setContentTypeResolver(resolver);
+    }
+
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        return false;
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        return payload instanceof MessageDto && super.canConvertTo(payload, headers);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        GameEventContext events = GameEventContext.current();
+        GameCosts costs = GameCosts.current();
+        if (events == null && costs == null)
+            return super.convertToInternal(payload, headers, conversionHint);
+        SerializationEvent event = null;
+        if (events != null) {
+            event = new SerializationEvent();
+            event.begin();
+        }
+        Object json = super.convertToInternal(payload, headers, conversionHint);
+        long size = json instanceof byte[] bytes ? bytes.length : json.toString().getBytes(StandardCharsets.UTF_8).length;
+        if (costs != null)
+            costs.serialized(size);
+        if (events != null)
+            events.serialized(event, size);
+        return json;
+    }
+}
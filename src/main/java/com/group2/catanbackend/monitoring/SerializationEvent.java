@@ -0,0 +1,11 @@
+package com.group2.catanbackend.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("catan.Serialization")
+@Label("Serialization")
+@Description("Converting a message to JSON")
+public class SerializationEvent extends GameEngineEvent {
+}
@@ -0,0 +1,36 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.service.TokenService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenMetrics implements MeterBinder {
+    private final TokenService tokenService;
+
+    public TokenMetrics(@Autowired TokenService tokenService){
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catan.tokens.active", tokenService, TokenService::getTokenCount)
+                .description("Registered player tokens")
+                .register(registry);
+        Gauge.builder("catan.tokens.capacity", tokenService, TokenService::getTokenCapacity)
+                .description("Maximum number of registered player tokens")
+                .register(registry);
+        FunctionCounter.builder("catan.tokens.evictions", tokenService, TokenService::getEvictionCount)
+                .description("Tokens removed because they expired")
+                .register(registry);
+        Gauge.builder("catan.tokens.memory", tokenService, TokenService::getTableBytes)
+                .description("Memory held by the token table")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+}
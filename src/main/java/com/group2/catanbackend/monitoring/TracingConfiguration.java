@@ -0,0 +1,50 @@
+package com.group2.catanbackend.monitoring;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * @param sampleRatio share of the traces started here that are recorded, traces continued from a client follow
+     *                    the client's sampling decision
+     * @param file where finished spans are appended as JSON lines
+     */
+    @Bean
+    public OpenTelemetry openTelemetry(@Value("${catan.tracing.enabled:false}") boolean enabled,
+                                       @Value("${catan.tracing.sample-ratio:0.01}") double sampleRatio,
+                                       @Value("${catan.tracing.file:traces.jsonl}") String file,
+                                       @Value("${spring.application.name:catan-backend}") String serviceName) throws IOException {
+        if (!enabled)
+            return OpenTelemetry.noop();
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(sampleRatio)))
+                .setResource(Resource.getDefault().merge(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                .addSpanProcessor(BatchSpanProcessor.builder(new FileSpanExporter(Path.of(file))).build())
+                .build();
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+    }
+
+    @Bean
+    public GameTracing gameTracing(OpenTelemetry openTelemetry, @Value("${catan.tracing.enabled:false}") boolean enabled) {
+        return enabled ? new GameTracing(openTelemetry) : GameTracing.NOOP;
+    }
+}
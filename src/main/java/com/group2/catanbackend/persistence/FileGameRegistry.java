@@ -0,0 +1,249 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.model.GameDescriptor;
+import com.group2.catanbackend.service.GameRegistry;
+import com.group2.catanbackend.service.RunningInstanceService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Registry that records which node owns a lobby or game in a directory shared by the nodes of a host,
+ * one small file per game holding the node id and whether the game is running.
+ * <p>
+ * The lobbies and games of this node are kept in concurrent maps in front of the files, so lookups never touch the
+ * disk. Only adding or removing an entry writes its file. Records of this node left over from an earlier run are
+ * removed at startup; recovered games register again.
+ * <p>
+ * Each token of a running game gets an alias file naming the game, so a node can find the game of a token it does
+ * not know. Aliases are named by a hash of the token, the directory does not hand out tokens.
+ */
+@Slf4j
+public class FileGameRegistry implements GameRegistry {
+    private static final String SUFFIX = ".owner";
+    private static final String TOKEN_SUFFIX = ".token";
+    private static final String LOBBY = "LOBBY";
+    private static final String RUNNING = "RUNNING";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path directory;
+    @Getter
+    private final String nodeId;
+    @Getter
+    private final Map<String, GameDescriptor> lobbies = new RecordingMap<>();
+    @Getter
+    private final Map<String, RunningInstanceService> runningGames = new RunningGamesMap();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public FileGameRegistry(Path directory, String nodeId) throws IOException {
+        this.directory = directory;
+        this.nodeId = nodeId;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        Files.createDirectories(directory);
+        int removed = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                List<String> record = readRecord(file);
+                if (record != null && record.get(0).equals(nodeId) && Files.deleteIfExists(file))
+                    removed++;
+            }
+        }
+        if (removed > 0)
+            log.info("Removed " + removed + " stale ownership records of node " + nodeId);
+        //aliases are written after the record of their game, so one without a record is left over
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(TOKEN_SUFFIX)).toList()) {
+                List<String> alias = readRecord(file);
+                if (alias != null && !Files.exists(fileOf(alias.get(0))))
+                    Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public String ownerOf(String gameId) {
+        RunningInstanceService game = runningGames.get(gameId);
+        if (game != null)
+            return game.getMovedTo() != null ? game.getMovedTo() : nodeId;
+        if (lobbies.containsKey(gameId))
+            return nodeId;
+        List<String> record = readRecord(fileOf(gameId));
+        return record == null ? null : record.get(0);
+    }
+
+    @Override
+    public String ownerOfToken(String token) {
+        if (token == null)
+            return null;
+        List<String> alias = readRecord(tokenFile(token));
+        return alias == null ? null : ownerOf(alias.get(0));
+    }
+
+    //writes the record that matches the maps right now, so concurrent changes of a game end up in the right state
+    private void sync(String gameId) {
+        synchronized (locks[Math.floorMod(gameId.hashCode(), LOCK_STRIPES)]) {
+            Path file = fileOf(gameId);
+            try {
+                if (runningGames.containsKey(gameId) || lobbies.containsKey(gameId)) {
+                    String state = runningGames.containsKey(gameId) ? RUNNING : LOBBY;
+                    Path temporary = directory.resolve(gameId + SUFFIX + ".tmp");
+                    Files.writeString(temporary, nodeId + "\n" + state + "\n", StandardCharsets.UTF_8);
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    List<String> record = readRecord(file);
+                    //another node may have taken the game over in the meantime
+                    if (record != null && record.get(0).equals(nodeId))
+                        Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not record the owner of game " + gameId, e);
+            }
+        }
+    }
+
+    //every node that runs the game writes the same aliases, the record of the game tells which of them has it
+    private void syncTokens(String gameId, RunningInstanceService game) {
+        synchronized (locks[Math.floorMod(gameId.hashCode(), LOCK_STRIPES)]) {
+            boolean recorded = Files.exists(fileOf(gameId));
+            try {
+                for (String token : game.getTokens()) {
+                    Path file = tokenFile(token);
+                    if (recorded) {
+                        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+                        Files.writeString(temporary, gameId + "\n", StandardCharsets.UTF_8);
+                        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } else {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not record the tokens of game " + gameId, e);
+            }
+        }
+    }
+
+    private static List<String> readRecord(Path file) {
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            return lines.isEmpty() ? null : lines;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the owner record " + file, e);
+        }
+    }
+
+    private Path fileOf(String gameId) {
+        return directory.resolve(gameId + SUFFIX);
+    }
+
+    private Path tokenFile(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash) + TOKEN_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //concurrent map that writes the record of a game whenever an entry is added or removed
+    private class RecordingMap<V> extends AbstractMap<String, V> {
+        private final Map<String, V> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public V get(Object key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public V put(String key, V value) {
+            V previous = entries.put(key, value);
+            if (previous == null)
+                sync(key);
+            return previous;
+        }
+
+        @Override
+        public V putIfAbsent(String key, V value) {
+            V previous = entries.putIfAbsent(key, value);
+            if (previous == null)
+                sync(key);
+            return previous;
+        }
+
+        @Override
+        public V remove(Object key) {
+            V previous = entries.remove(key);
+            if (previous != null)
+                sync((String) key);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            for (String key : Set.copyOf(entries.keySet())) {
+                remove(key);
+            }
+        }
+
+        //read only, changes have to go through put and remove to be recorded
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return Collections.unmodifiableMap(entries).entrySet();
+        }
+    }
+
+    //also records the tokens of a game, which has its players by the time it is put
+    private class RunningGamesMap extends RecordingMap<RunningInstanceService> {
+
+        @Override
+        public RunningInstanceService put(String key, RunningInstanceService value) {
+            RunningInstanceService previous = super.put(key, value);
+            if (previous == null)
+                syncTokens(key, value);
+            return previous;
+        }
+
+        @Override
+        public RunningInstanceService putIfAbsent(String key, RunningInstanceService value) {
+            RunningInstanceService previous = super.putIfAbsent(key, value);
+            if (previous == null)
+                syncTokens(key, value);
+            return previous;
+        }
+
+        @Override
+        public RunningInstanceService remove(Object key) {
+            RunningInstanceService previous = super.remove(key);
+            if (previous != null)
+                syncTokens((String) key, previous);
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.group2.catanbackend.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * One file per hibernated game. Hibernated state is only meaningful while the server runs,
+ * so files left over from an earlier run are removed at startup.
+ */
+@Slf4j
+public class FileHibernationStore implements HibernationStore {
+    private static final String SUFFIX = ".game";
+
+    private final Path directory;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public FileHibernationStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Override
+    public void save(String gameId, ByteBuffer state) {
+        Path file = fileOf(gameId);
+        try {
+            boolean existed = Files.exists(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (state.hasRemaining()) {
+                    channel.write(state);
+                }
+            }
+            if (!existed)
+                size.incrementAndGet();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not hibernate game " + gameId, e);
+        }
+    }
+
+    @Override
+    public ByteBuffer load(String gameId) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(fileOf(gameId)));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read hibernated game " + gameId, e);
+        }
+    }
+
+    @Override
+    public void delete(String gameId) {
+        try {
+            if (Files.deleteIfExists(fileOf(gameId)))
+                size.decrementAndGet();
+        } catch (IOException e) {
+            log.warn("Could not delete hibernated game " + gameId, e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    private Path fileOf(String gameId) {
+        return directory.resolve(gameId + SUFFIX);
+    }
+}
@@ -0,0 +1,41 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.model.Player;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wire format of a running game handed over to another node: the game id followed by the body of a journal
+ * snapshot, so the receiving node restores it like a game recovered from its journal.
+ */
+public final class GameHandover {
+
+    private GameHandover() {
+    }
+
+    public static byte[] encode(String gameId, int moveCount, long seed, List<Player> players, GameLogicController game) {
+        byte[] id = gameId.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(MoveJournal.MAX_RECORD_BYTES);
+        buffer.put((byte) id.length).put(id);
+        MoveJournal.writeSnapshot(buffer, moveCount, seed, players, game);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are no handed over game
+     */
+    public static JournaledGame decode(byte[] handover) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(handover);
+            byte[] id = new byte[buffer.get()];
+            buffer.get(id);
+            return MoveJournal.readSnapshot(new String(id, StandardCharsets.US_ASCII), buffer, 0);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed game handover", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.service.GameService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds the games that were still running when the server stopped. Games are restored in parallel and registered
+ * in the {@link GameService}; restored games send nothing until their players reconnect.
+ * <p>
+ * Recovery runs while the application is started but not yet ready, so readiness reports REFUSING_TRAFFIC until
+ * every game is back. Spring Boot switches to ACCEPTING_TRAFFIC once this listener returns.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "catan.journal.enabled", havingValue = "true")
+public class GameRecoveryService {
+    private final MoveJournal journal;
+    private final GameService gameService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int threads;
+    private final long progressIntervalMillis;
+
+    /**
+     * @param threads number of recovery threads, 0 uses one per core
+     */
+    @Autowired
+    public GameRecoveryService(MoveJournal journal, GameService gameService, ApplicationEventPublisher eventPublisher,
+                               @Value("${catan.recovery.threads:0}") int threads,
+                               @Value("${catan.recovery.progress-interval-ms:1000}") long progressIntervalMillis) {
+        this.journal = journal;
+        this.gameService = gameService;
+        this.eventPublisher = eventPublisher;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void recoverGames() throws InterruptedException {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        recover(journal.takeRecoveredGames());
+    }
+
+    /**
+     * @return the number of games that were restored
+     */
+    int recover(List<JournaledGame> games) throws InterruptedException {
+        if (games.isEmpty())
+            return 0;
+        AtomicInteger recovered = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, games.size()));
+        try {
+            for (JournaledGame game : games) {
+                executor.execute(() -> {
+                    try {
+                        gameService.restoreRunningGame(game);
+                        recovered.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.error("Could not recover game " + game.getGameId(), e);
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(progressIntervalMillis, TimeUnit.MILLISECONDS)) {
+                log.info("Recovered " + recovered.get() + " of " + games.size() + " games, "
+                        + gamesPerSecond(recovered.get(), start) + " games/s");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Recovered " + recovered.get() + " of " + games.size() + " games in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms with " + threads + " threads, "
+                + gamesPerSecond(recovered.get(), start) + " games/s, " + failed.get() + " failed");
+        return recovered.get();
+    }
+
+    private static long gamesPerSecond(int games, long start) {
+        long elapsed = System.nanoTime() - start;
+        return elapsed == 0 ? 0 : games * TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+}
@@ -0,0 +1,28 @@
+package com.group2.catanbackend.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "catan.hibernation.enabled", havingValue = "true")
+public class HibernationConfiguration {
+
+    /**
+     * @param store "file" for one file per game, "off-heap" for slots in direct memory
+     */
+    @Bean
+    public HibernationStore hibernationStore(@Value("${catan.hibernation.store:file}") String store,
+                                             @Value("${catan.hibernation.directory:hibernated}") String directory,
+                                             @Value("${catan.hibernation.off-heap-max-mb:256}") long offHeapMaxMegabytes) throws IOException {
+        return switch (store) {
+            case "file" -> new FileHibernationStore(Path.of(directory));
+            case "off-heap" -> new OffHeapHibernationStore(offHeapMaxMegabytes * 1024 * 1024);
+            default -> throw new IllegalArgumentException("Unknown hibernation store " + store);
+        };
+    }
+}
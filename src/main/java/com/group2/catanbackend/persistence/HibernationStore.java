@@ -0,0 +1,23 @@
+package com.group2.catanbackend.persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the encoded state of games that were taken off the heap while idle.
+ */
+public interface HibernationStore {
+
+    /**
+     * Stores the remaining bytes of the buffer, replacing any state stored for the game before.
+     */
+    void save(String gameId, ByteBuffer state);
+
+    /**
+     * @return the stored state, or null if nothing is stored for the game
+     */
+    ByteBuffer load(String gameId);
+
+    void delete(String gameId);
+
+    int size();
+}
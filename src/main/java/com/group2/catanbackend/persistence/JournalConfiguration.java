@@ -0,0 +1,24 @@
+package com.group2.catanbackend.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "catan.journal.enabled", havingValue = "true")
+public class JournalConfiguration {
+
+    @Bean
+    public MoveJournal moveJournal(@Value("${catan.journal.directory:journal}") String directory,
+                                   @Value("${catan.journal.shards:4}") int shards,
+                                   @Value("${catan.journal.segment-bytes:67108864}") int segmentBytes,
+                                   @Value("${catan.journal.flush-interval-ms:5}") long flushIntervalMillis,
+                                   @Value("${catan.journal.sync-commit:false}") boolean syncCommit,
+                                   @Value("${catan.journal.snapshot-interval-moves:64}") int snapshotInterval) throws IOException {
+        return new MoveJournal(Path.of(directory), shards, segmentBytes, flushIntervalMillis, syncCommit, snapshotInterval);
+    }
+}
@@ -0,0 +1,59 @@
+package com.group2.catanbackend.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A running game as read back from the journal: its start parameters and every accepted move in order.
+ */
+@Getter
+public class JournaledGame {
+    private final String gameId;
+    private final long seed;
+    private final List<JournaledPlayer> players;
+    private final List<JournaledMove> moves = new ArrayList<>();
+    //segment of the shard that holds the GAME_STARTED or latest SNAPSHOT record, everything from there on must be kept
+    private final long firstSegment;
+    //encoded by GameStateCodec, null if the game has to be replayed from its start
+    private final byte[] snapshot;
+    //number of moves covered by the snapshot, the moves list holds only those after it
+    private final int snapshotSequence;
+
+    JournaledGame(String gameId, long seed, List<JournaledPlayer> players, long firstSegment) {
+        this(gameId, seed, players, firstSegment, null, 0);
+    }
+
+    JournaledGame(String gameId, long seed, List<JournaledPlayer> players, long firstSegment, byte[] snapshot, int snapshotSequence) {
+        this.gameId = gameId;
+        this.seed = seed;
+        this.players = players;
+        this.firstSegment = firstSegment;
+        this.snapshot = snapshot;
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class JournaledPlayer {
+        private final String token;
+        private final String displayName;
+        private final Integer inGameID;
+        private boolean left;
+
+        void leave() {
+            left = true;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class JournaledMove {
+        private final int sequence;
+        private final int playerIndex;
+        private final byte type;
+        private final int argument;
+    }
+}
@@ -0,0 +1,43 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.exception.ErrorCode;
+import com.group2.catanbackend.exception.UnsupportedGameMoveException;
+
+/**
+ * Maps game moves to a type byte and a single int argument and back.
+ */
+public final class MoveCodec {
+    public static final byte ROLL_DICE = 1;
+    public static final byte BUILD_ROAD = 2;
+    public static final byte BUILD_VILLAGE = 3;
+    public static final byte END_TURN = 4;
+
+    private MoveCodec() {
+    }
+
+    public static byte typeOf(GameMoveDto move) {
+        if (move instanceof RollDiceDto) return ROLL_DICE;
+        if (move instanceof BuildRoadMoveDto) return BUILD_ROAD;
+        if (move instanceof BuildVillageMoveDto) return BUILD_VILLAGE;
+        if (move instanceof EndTurnMoveDto) return END_TURN;
+        throw new UnsupportedGameMoveException(ErrorCode.ERROR_UNSUPPORTED_MOVE.formatted(move.getClass().getSimpleName()));
+    }
+
+    public static int argumentOf(GameMoveDto move) {
+        if (move instanceof RollDiceDto rollDice) return rollDice.getDiceRoll();
+        if (move instanceof BuildRoadMoveDto buildRoad) return buildRoad.getConnectionID();
+        if (move instanceof BuildVillageMoveDto buildVillage) return buildVillage.getIntersectionID();
+        return 0;
+    }
+
+    public static GameMoveDto decode(byte type, int argument) {
+        return switch (type) {
+            case ROLL_DICE -> new RollDiceDto(argument);
+            case BUILD_ROAD -> new BuildRoadMoveDto(argument);
+            case BUILD_VILLAGE -> new BuildVillageMoveDto(argument);
+            case END_TURN -> new EndTurnMoveDto();
+            default -> throw new UnsupportedGameMoveException(ErrorCode.ERROR_UNSUPPORTED_MOVE.formatted("type " + type));
+        };
+    }
+}
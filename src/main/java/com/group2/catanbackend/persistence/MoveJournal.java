@@ -0,0 +1,513 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.dto.game.GameMoveDto;
+import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.gamelogic.GameStateCodec;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.model.PlayerState;
+import com.group2.catanbackend.service.TokenStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of everything needed to rebuild the running games: the start parameters of a game,
+ * its accepted moves, players leaving and the end of the game.
+ * <p>
+ * Games are spread over shards by their id, every shard appends to its own memory-mapped segment files
+ * ({@code journal-<shard>-<segment>.log}). A record is {@code [int length][int crc32c][type][gameId][body]}.
+ * Appending only copies into the mapping, a background thread forces the written ranges to disk every flush interval,
+ * so one fsync covers all moves of that interval. With sync commit an append returns only once it was forced.
+ * <p>
+ * Every few moves a game also gets a SNAPSHOT record holding its players and its state encoded by {@link GameStateCodec}.
+ * Recovery then only replays the moves after the latest snapshot, and older segments can be deleted.
+ */
+@Slf4j
+public class MoveJournal implements Closeable {
+    static final byte GAME_STARTED = 1;
+    static final byte MOVE = 2;
+    static final byte PLAYER_LEFT = 3;
+    static final byte GAME_ENDED = 4;
+    static final byte SNAPSHOT = 5;
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 64;
+
+    private static final int HEADER_BYTES = 8;
+    static final int MAX_RECORD_BYTES = 16 * 1024;
+    private static final int MAX_NAME_BYTES = 1024;
+    private static final String META_FILE = "journal.meta";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalNanos;
+    private final boolean syncCommit;
+    private final int snapshotInterval;
+    private final Shard[] shards;
+    private final Thread flusher;
+    private volatile boolean closed = false;
+    private List<JournaledGame> recoveredGames;
+
+    public MoveJournal(Path directory, int shardCount, int segmentBytes, long flushIntervalMillis, boolean syncCommit) throws IOException {
+        this(directory, shardCount, segmentBytes, flushIntervalMillis, syncCommit, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens the journal and reads back all games that have not ended. New records go to fresh segments.
+     * @param snapshotInterval number of moves after which a game is snapshotted, 0 disables snapshots
+     */
+    public MoveJournal(Path directory, int shardCount, int segmentBytes, long flushIntervalMillis, boolean syncCommit,
+                       int snapshotInterval) throws IOException {
+        if (shardCount <= 0)
+            throw new IllegalArgumentException("shardCount must be positive");
+        if (segmentBytes < MAX_RECORD_BYTES + HEADER_BYTES)
+            throw new IllegalArgumentException("segmentBytes must be at least " + (MAX_RECORD_BYTES + HEADER_BYTES));
+        if (flushIntervalMillis <= 0)
+            throw new IllegalArgumentException("flushIntervalMillis must be positive");
+        if (snapshotInterval < 0)
+            throw new IllegalArgumentException("snapshotInterval must not be negative");
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.syncCommit = syncCommit;
+        this.snapshotInterval = snapshotInterval;
+
+        Files.createDirectories(directory);
+        checkShardCount(shardCount);
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        //shards hold disjoint games, so they are read in parallel
+        long start = System.nanoTime();
+        List<Map<String, JournaledGame>> gamesPerShard = Arrays.stream(shards).parallel()
+                .map(Shard::recover)
+                .toList();
+        recoveredGames = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            for (JournaledGame game : gamesPerShard.get(i).values()) {
+                shards[i].liveGames.put(game.getGameId(), game.getFirstSegment());
+                recoveredGames.add(game);
+            }
+        }
+        log.info("Opened journal in " + directory + " with " + recoveredGames.size() + " unfinished games in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        flusher = new Thread(this::runFlusher, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Hands out the games read at startup once, so they can be dropped afterward.
+     */
+    public synchronized List<JournaledGame> takeRecoveredGames() {
+        List<JournaledGame> games = recoveredGames;
+        recoveredGames = List.of();
+        return games;
+    }
+
+    public void gameStarted(String gameId, long seed, List<Player> players) {
+        Shard shard = shardOf(gameId);
+        shard.lock.lock();
+        try {
+            writePlayers(shard.begin(GAME_STARTED, gameId), seed, players);
+            long lsn = shard.commit();
+            shard.liveGames.putIfAbsent(gameId, shard.segment);
+            shard.awaitDurable(lsn);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @param sequence number of the move within its game, starting at 0
+     * @param playerIndex index of the moving player in the player list given at game start
+     */
+    public void moveAccepted(String gameId, int sequence, int playerIndex, GameMoveDto move) {
+        byte type = MoveCodec.typeOf(move);
+        int argument = MoveCodec.argumentOf(move);
+        Shard shard = shardOf(gameId);
+        shard.lock.lock();
+        try {
+            shard.begin(MOVE, gameId).putInt(sequence).put((byte) playerIndex).put(type).putInt(argument);
+            shard.awaitDurable(shard.commit());
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public void playerLeft(String gameId, int playerIndex) {
+        Shard shard = shardOf(gameId);
+        shard.lock.lock();
+        try {
+            shard.begin(PLAYER_LEFT, gameId).put((byte) playerIndex);
+            shard.awaitDurable(shard.commit());
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if a snapshot should be taken after the given number of moves
+     */
+    public boolean isSnapshotDue(int moveCount) {
+        return snapshotInterval > 0 && moveCount % snapshotInterval == 0;
+    }
+
+    /**
+     * Records the current state of a game. Players that are no longer part of the game are marked as left.
+     * @param moveCount number of moves the state includes
+     */
+    public void snapshot(String gameId, int moveCount, long seed, List<Player> players, GameLogicController game) {
+        Shard shard = shardOf(gameId);
+        shard.lock.lock();
+        try {
+            writeSnapshot(shard.begin(SNAPSHOT, gameId), moveCount, seed, players, game);
+            long lsn = shard.commit();
+            shard.liveGames.put(gameId, shard.segment);
+            shard.awaitDurable(lsn);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public void gameEnded(String gameId) {
+        Shard shard = shardOf(gameId);
+        shard.lock.lock();
+        try {
+            shard.begin(GAME_ENDED, gameId);
+            long lsn = shard.commit();
+            shard.liveGames.remove(gameId);
+            shard.awaitDurable(lsn);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                if (shard.segmentBuffer != null) {
+                    shard.segmentBuffer.force();
+                    shard.flushedLsn = lsnOf(shard.segment, shard.segmentBuffer.position());
+                }
+                shard.flushed.signalAll();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    //body of a SNAPSHOT record, also used to hand a running game over to another node
+    static void writeSnapshot(ByteBuffer record, int moveCount, long seed, List<Player> players, GameLogicController game) {
+        record.putInt(moveCount);
+        writePlayers(record, seed, players);
+        int left = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getPlayerState() == PlayerState.DISCONNECTED)
+                left |= 1 << i;
+        }
+        record.put((byte) left);
+        GameStateCodec.encode(game, record);
+    }
+
+    static JournaledGame readSnapshot(String gameId, ByteBuffer payload, long segmentIndex) {
+        int moveCount = payload.getInt();
+        long seed = payload.getLong();
+        List<JournaledGame.JournaledPlayer> players = readPlayers(payload);
+        int left = payload.get();
+        for (int i = 0; i < players.size(); i++) {
+            if ((left & 1 << i) != 0)
+                players.get(i).leave();
+        }
+        byte[] state = new byte[payload.remaining()];
+        payload.get(state);
+        return new JournaledGame(gameId, seed, players, segmentIndex, state, moveCount);
+    }
+
+    private static void writePlayers(ByteBuffer record, long seed, List<Player> players) {
+        record.putLong(seed).put((byte) players.size());
+        for (Player player : players) {
+            byte[] name = player.getDisplayName().getBytes(StandardCharsets.UTF_8);
+            if (name.length > MAX_NAME_BYTES)
+                throw new IllegalArgumentException("Display name too long for the journal: " + player.getDisplayName());
+            record.putLong(TokenStore.parseHigh(player.getToken()))
+                    .putLong(TokenStore.parseLow(player.getToken()))
+                    .putInt(player.getInGameID() == null ? -1 : player.getInGameID())
+                    .putShort((short) name.length)
+                    .put(name);
+        }
+    }
+
+    private static List<JournaledGame.JournaledPlayer> readPlayers(ByteBuffer payload) {
+        int playerCount = payload.get();
+        List<JournaledGame.JournaledPlayer> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            String token = new UUID(payload.getLong(), payload.getLong()).toString();
+            int inGameID = payload.getInt();
+            byte[] name = new byte[payload.getShort()];
+            payload.get(name);
+            players.add(new JournaledGame.JournaledPlayer(token, new String(name, StandardCharsets.UTF_8),
+                    inGameID < 0 ? null : inGameID, false));
+        }
+        return players;
+    }
+
+    private Shard shardOf(String gameId) {
+        return shards[Math.floorMod(gameId.hashCode(), shards.length)];
+    }
+
+    //games are assigned to shards by hash, so a different shard count would scatter the records of a game
+    private void checkShardCount(int shardCount) throws IOException {
+        Path meta = directory.resolve(META_FILE);
+        if (Files.exists(meta)) {
+            int written = Integer.parseInt(Files.readString(meta).trim());
+            if (written != shardCount)
+                throw new IllegalStateException("Journal in " + directory + " was written with " + written + " shards, configured are " + shardCount);
+        } else {
+            Files.writeString(meta, Integer.toString(shardCount));
+        }
+    }
+
+    private void runFlusher() {
+        while (!closed) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            for (Shard shard : shards) {
+                try {
+                    shard.flush();
+                } catch (RuntimeException e) {
+                    log.error("Flushing journal shard " + shard.id + " failed", e);
+                }
+            }
+        }
+    }
+
+    private static long lsnOf(long segment, int position) {
+        return segment << 32 | position;
+    }
+
+    private class Shard {
+        private final int id;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition flushed = lock.newCondition();
+        private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+        private final CRC32C crc = new CRC32C();
+        private final Deque<Long> segments = new ArrayDeque<>();
+        //game id -> segment of its GAME_STARTED record
+        private final Map<String, Long> liveGames = new HashMap<>();
+        private MappedByteBuffer segmentBuffer;
+        private long segment = 0;
+        private long flushedLsn = 0;
+
+        Shard(int id) {
+            this.id = id;
+        }
+
+        ByteBuffer begin(byte type, String gameId) {
+            if (closed)
+                throw new IllegalStateException("Journal is closed");
+            int length = gameId.length();
+            if (length > Byte.MAX_VALUE)
+                throw new IllegalArgumentException("Game id too long for the journal: " + gameId);
+            scratch.clear();
+            scratch.put(type).put((byte) length);
+            for (int i = 0; i < length; i++) {
+                scratch.put((byte) gameId.charAt(i));
+            }
+            return scratch;
+        }
+
+        //copies the record assembled in scratch into the segment and returns the position right after it
+        long commit() {
+            int length = scratch.position();
+            crc.reset();
+            crc.update(scratch.array(), 0, length);
+            if (segmentBuffer == null || segmentBuffer.remaining() < length + HEADER_BYTES)
+                rollOver();
+            segmentBuffer.putInt(length).putInt((int) crc.getValue()).put(scratch.array(), 0, length);
+            return lsnOf(segment, segmentBuffer.position());
+        }
+
+        void awaitDurable(long lsn) {
+            if (!syncCommit)
+                return;
+            boolean interrupted = false;
+            while (flushedLsn < lsn && !closed) {
+                try {
+                    flushed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+
+        void flush() {
+            MappedByteBuffer buffer;
+            long flushSegment;
+            int from;
+            int to;
+            lock.lock();
+            try {
+                buffer = segmentBuffer;
+                if (buffer == null)
+                    return;
+                flushSegment = segment;
+                from = (flushedLsn >>> 32) == flushSegment ? (int) flushedLsn : 0;
+                to = buffer.position();
+            } finally {
+                lock.unlock();
+            }
+            if (to > from)
+                buffer.force(from, to - from);
+
+            lock.lock();
+            try {
+                long lsn = lsnOf(flushSegment, to);
+                if (lsn > flushedLsn)
+                    flushedLsn = lsn;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void rollOver() {
+            try {
+                if (segmentBuffer != null) {
+                    segmentBuffer.force();
+                    flushedLsn = lsnOf(segment, segmentBuffer.position());
+                    flushed.signalAll();
+                    segment++;
+                }
+                try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    //the mapping stays valid after the channel is closed
+                    segmentBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+                }
+                segments.addLast(segment);
+                deleteObsoleteSegments();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start journal segment " + segment + " of shard " + id, e);
+            }
+        }
+
+        //segments older than the start of every unfinished game hold nothing that is needed anymore
+        private void deleteObsoleteSegments() throws IOException {
+            long oldestNeeded = segment;
+            for (long first : liveGames.values()) {
+                oldestNeeded = Math.min(oldestNeeded, first);
+            }
+            while (!segments.isEmpty() && segments.peekFirst() < oldestNeeded) {
+                Files.deleteIfExists(segmentPath(segments.pollFirst()));
+            }
+        }
+
+        //reads the unfinished games of this shard, runs before the shard is used
+        Map<String, JournaledGame> recover() {
+            Map<String, JournaledGame> games = new LinkedHashMap<>();
+            String prefix = "journal-" + id + "-";
+            List<Long> existing = new ArrayList<>();
+            try {
+                try (Stream<Path> files = Files.list(directory)) {
+                    files.map(file -> file.getFileName().toString())
+                            .filter(name -> name.startsWith(prefix) && name.endsWith(".log"))
+                            .forEach(name -> existing.add(Long.parseLong(name.substring(prefix.length(), name.length() - 4))));
+                }
+                Collections.sort(existing);
+                for (long existingSegment : existing) {
+                    try (FileChannel channel = FileChannel.open(segmentPath(existingSegment), StandardOpenOption.READ)) {
+                        readSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), existingSegment, games);
+                    }
+                    segments.addLast(existingSegment);
+                    segment = existingSegment + 1;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read journal shard " + id, e);
+            }
+            return games;
+        }
+
+        private void readSegment(ByteBuffer buffer, long segmentIndex, Map<String, JournaledGame> games) {
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                //zero marks the unwritten rest of the segment
+                if (length <= 0 || length > buffer.remaining() - Integer.BYTES)
+                    return;
+                int checksum = buffer.getInt();
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Torn record in journal segment " + segmentIndex + " of shard " + id + ", ignoring the rest of the segment");
+                    return;
+                }
+                buffer.position(buffer.position() + length);
+                readRecord(payload, segmentIndex, games);
+            }
+        }
+
+        private void readRecord(ByteBuffer payload, long segmentIndex, Map<String, JournaledGame> games) {
+            byte type = payload.get();
+            byte[] id = new byte[payload.get()];
+            payload.get(id);
+            String gameId = new String(id, StandardCharsets.US_ASCII);
+            switch (type) {
+                case GAME_STARTED -> {
+                    long seed = payload.getLong();
+                    games.put(gameId, new JournaledGame(gameId, seed, readPlayers(payload), segmentIndex));
+                }
+                //replaces everything read so far for the game, its start may already be deleted
+                case SNAPSHOT -> games.put(gameId, readSnapshot(gameId, payload, segmentIndex));
+                case MOVE -> {
+                    JournaledGame game = games.get(gameId);
+                    if (game != null)
+                        game.getMoves().add(new JournaledGame.JournaledMove(payload.getInt(), payload.get(), payload.get(), payload.getInt()));
+                }
+                case PLAYER_LEFT -> {
+                    JournaledGame game = games.get(gameId);
+                    int playerIndex = payload.get();
+                    if (game != null && playerIndex >= 0 && playerIndex < game.getPlayers().size())
+                        game.getPlayers().get(playerIndex).leave();
+                }
+                case GAME_ENDED -> games.remove(gameId);
+                default -> log.warn("Skipping journal record of unknown type " + type);
+            }
+        }
+
+        private Path segmentPath(long segmentIndex) {
+            return directory.resolve("journal-" + id + "-" + segmentIndex + ".log");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.gamelogic.GameStateCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps hibernated games in fixed-size slots of direct buffers, outside the heap and invisible to the GC.
+ * A slot holds {@code [short length][state]}, the heap only holds the slot index of each game.
+ * <p>
+ * Buffers are allocated in chunks as slots are needed, up to the configured maximum. Slots of woken up games are reused.
+ */
+public class OffHeapHibernationStore implements HibernationStore {
+    public static final int SLOT_BYTES = Short.BYTES + GameStateCodec.maxEncodedBytes(Constants.MAX_PLAYER_COUNT);
+    private static final int SLOTS_PER_CHUNK = 8192;
+
+    private final int maxSlots;
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    //only ever appended to, replaced as a whole so readers need no lock
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private int[] freeSlots = new int[64];
+    private int freeCount = 0;
+    private int allocatedSlots = 0;
+
+    /**
+     * @param maxBytes upper bound of the off-heap memory used
+     */
+    public OffHeapHibernationStore(long maxBytes) {
+        long slotCount = maxBytes / SLOT_BYTES;
+        if (slotCount <= 0)
+            throw new IllegalArgumentException("maxBytes must hold at least one slot of " + SLOT_BYTES + " bytes");
+        this.maxSlots = (int) Math.min(slotCount, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * @throws IllegalStateException if all slots are taken
+     */
+    @Override
+    public void save(String gameId, ByteBuffer state) {
+        int length = state.remaining();
+        if (length > SLOT_BYTES - Short.BYTES)
+            throw new IllegalArgumentException("State of game " + gameId + " does not fit a slot: " + length + " bytes");
+        Integer slot = slots.get(gameId);
+        if (slot == null) {
+            slot = allocateSlot();
+            slots.put(gameId, slot);
+        }
+        //games are saved and loaded under their own lock and own their slot, so absolute writes need no further locking
+        ByteBuffer chunk = chunkOf(slot);
+        int offset = offsetOf(slot);
+        chunk.putShort(offset, (short) length);
+        chunk.put(offset + Short.BYTES, state, state.position(), length);
+        state.position(state.limit());
+    }
+
+    @Override
+    public ByteBuffer load(String gameId) {
+        Integer slot = slots.get(gameId);
+        if (slot == null)
+            return null;
+        ByteBuffer chunk = chunkOf(slot);
+        int offset = offsetOf(slot);
+        byte[] state = new byte[chunk.getShort(offset)];
+        chunk.get(offset + Short.BYTES, state);
+        return ByteBuffer.wrap(state);
+    }
+
+    @Override
+    public void delete(String gameId) {
+        Integer slot = slots.remove(gameId);
+        if (slot != null)
+            freeSlot(slot);
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    public long getOffHeapBytes() {
+        return (long) chunks.length * SLOTS_PER_CHUNK * SLOT_BYTES;
+    }
+
+    public int getMaxSlots() {
+        return maxSlots;
+    }
+
+    private synchronized int allocateSlot() {
+        if (freeCount > 0)
+            return freeSlots[--freeCount];
+        if (allocatedSlots == maxSlots)
+            throw new IllegalStateException("Off-heap hibernation store is full, " + maxSlots + " games");
+        if (allocatedSlots == chunks.length * SLOTS_PER_CHUNK) {
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = ByteBuffer.allocateDirect(SLOTS_PER_CHUNK * SLOT_BYTES);
+            chunks = grown;
+        }
+        return allocatedSlots++;
+    }
+
+    private synchronized void freeSlot(int slot) {
+        if (freeCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private ByteBuffer chunkOf(int slot) {
+        return chunks[slot / SLOTS_PER_CHUNK];
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot % SLOTS_PER_CHUNK) * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,30 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.service.GameRegistry;
+import com.group2.catanbackend.service.InMemoryGameRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class RegistryConfiguration {
+
+    /**
+     * @param store "memory" to keep the registry in this node only, "file" to share ownership through a directory
+     * @param nodeId identifies this node in the shared records and is where other nodes send its players,
+     *               defaults to the base URL of this node in the shard ring
+     */
+    @Bean
+    public GameRegistry gameRegistry(@Value("${catan.registry.store:memory}") String store,
+                                     @Value("${catan.registry.directory:registry}") String directory,
+                                     @Value("${catan.registry.node-id:${catan.cluster.self:http://${server.address:localhost}:${server.port:8080}}}") String nodeId) throws IOException {
+        return switch (store) {
+            case "memory" -> new InMemoryGameRegistry(nodeId);
+            case "file" -> new FileGameRegistry(Path.of(directory), nodeId);
+            default -> throw new IllegalArgumentException("Unknown game registry store " + store);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.exception.ErrorCode;
+import com.group2.catanbackend.exception.NodeOverloadedException;
+import com.group2.catanbackend.monitoring.NodeLoad;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns down new games while the node is short of heap, behind on incoming frames or at its game limit, since every
+ * further game would slow down the ones already running. Only creating and starting games is checked, moves and
+ * joins of existing lobbies always go through.
+ */
+@Component
+@Slf4j
+public class AdmissionControl {
+    private final NodeLoad nodeLoad;
+    private final boolean enabled;
+    private final double maxHeapAfterGc;
+    private final int maxInboundQueue;
+    private final int maxRunningGames;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param maxHeapAfterGc share of the maximum heap the live objects may take before new games are turned down
+     */
+    @Autowired
+    public AdmissionControl(NodeLoad nodeLoad,
+                            @Value("${catan.admission.enabled:true}") boolean enabled,
+                            @Value("${catan.admission.heap-after-gc:0.85}") double maxHeapAfterGc,
+                            @Value("${catan.admission.inbound-queue:1000}") int maxInboundQueue,
+                            @Value("${catan.admission.max-running-games:5000}") int maxRunningGames,
+                            @Value("${catan.admission.retry-after-s:10}") long retryAfterSeconds) {
+        this.nodeLoad = nodeLoad;
+        this.enabled = enabled;
+        this.maxHeapAfterGc = maxHeapAfterGc;
+        this.maxInboundQueue = maxInboundQueue;
+        this.maxRunningGames = maxRunningGames;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @throws NodeOverloadedException if the node should not take on another game
+     */
+    public void admitGame() throws NodeOverloadedException {
+        if (!enabled)
+            return;
+        String reason = overloadReason();
+        if (reason != null) {
+            log.warn("Turned down a new game: " + reason);
+            throw new NodeOverloadedException(ErrorCode.ERROR_NODE_OVERLOADED.formatted(reason), retryAfterSeconds);
+        }
+    }
+
+    //cheapest checks first, the heap pools are only read when the others pass
+    @Nullable
+    private String overloadReason() {
+        if (nodeLoad.getRunningGameCount() >= maxRunningGames)
+            return "game limit";
+        if (nodeLoad.getInboundQueueDepth() > maxInboundQueue)
+            return "message backlog";
+        if (nodeLoad.getHeapUsedAfterGc() > maxHeapAfterGc)
+            return "memory";
+        return null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.gamelogic.GameStateCodec;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.persistence.HibernationStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes the state of idle games off the heap. A hibernated game keeps its {@link RunningInstanceService} and players,
+ * only the board and turn state are encoded into the {@link HibernationStore}. The game is woken up by its next move
+ * or reconnect.
+ * <p>
+ * Resident games are kept in least recently used order. Games idle longer than the threshold are hibernated
+ * periodically, and the least recently used ones as soon as there are more resident games than allowed.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "catan.hibernation.enabled", havingValue = "true")
+public class GameHibernator {
+    //moves within this time of the last one don't reorder the LRU list, saves the lock on busy games
+    private static final long TOUCH_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final HibernationStore store;
+    private final long idleNanos;
+    private final int maxResidentGames;
+    private final Map<String, RunningInstanceService> residentGames = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final AtomicLong hibernations = new AtomicLong();
+    private final AtomicLong rehydrations = new AtomicLong();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-hibernator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public GameHibernator(HibernationStore store,
+                          @Value("${catan.hibernation.idle-seconds:600}") long idleSeconds,
+                          @Value("${catan.hibernation.max-resident-games:10000}") int maxResidentGames,
+                          @Value("${catan.hibernation.scan-interval-ms:10000}") long scanIntervalMillis) {
+        this.store = store;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        this.maxResidentGames = maxResidentGames;
+        executor.scheduleWithFixedDelay(this::hibernateIdleGames, scanIntervalMillis, scanIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Called when a game got its state in memory: started, restored or woken up.
+     */
+    void activated(RunningInstanceService game) {
+        boolean overCapacity;
+        synchronized (residentGames) {
+            residentGames.put(game.getGameId(), game);
+            overCapacity = residentGames.size() > maxResidentGames;
+        }
+        if (overCapacity && evictionScheduled.compareAndSet(false, true))
+            executor.execute(this::evictOverCapacity);
+    }
+
+    /**
+     * Called on every move of a resident game.
+     * @param previousActivity the activity time of the game before this move
+     */
+    void touched(RunningInstanceService game, long previousActivity) {
+        if (game.getLastActivity() - previousActivity < TOUCH_GRANULARITY_NANOS)
+            return;
+        synchronized (residentGames) {
+            //get moves the game to the end of the access order
+            if (residentGames.get(game.getGameId()) == null)
+                residentGames.put(game.getGameId(), game);
+        }
+    }
+
+    void save(String gameId, GameLogicController game) {
+        ByteBuffer buffer = ByteBuffer.allocate(GameStateCodec.MAX_ENCODED_BYTES);
+        GameStateCodec.encode(game, buffer);
+        store.save(gameId, buffer.flip());
+        hibernations.incrementAndGet();
+    }
+
+    GameLogicController load(String gameId, List<Player> players, MessagingService messagingService) {
+        ByteBuffer state = store.load(gameId);
+        if (state == null)
+            throw new IllegalStateException("No hibernated state for game " + gameId);
+        GameLogicController game = GameStateCodec.decode(state, players, messagingService, gameId);
+        store.delete(gameId);
+        rehydrations.incrementAndGet();
+        return game;
+    }
+
+    /**
+     * @return the number of games that were hibernated
+     */
+    int hibernateIdleGames() {
+        long now = System.nanoTime();
+        List<RunningInstanceService> idle = new ArrayList<>();
+        synchronized (residentGames) {
+            Iterator<RunningInstanceService> iterator = residentGames.values().iterator();
+            while (iterator.hasNext()) {
+                RunningInstanceService game = iterator.next();
+                //access order, so the first game that is not idle ends the scan
+                if (now - game.getLastActivity() < idleNanos)
+                    break;
+                iterator.remove();
+                idle.add(game);
+            }
+        }
+        return hibernate(idle);
+    }
+
+    int evictOverCapacity() {
+        evictionScheduled.set(false);
+        List<RunningInstanceService> evicted = new ArrayList<>();
+        synchronized (residentGames) {
+            Iterator<RunningInstanceService> iterator = residentGames.values().iterator();
+            while (residentGames.size() > maxResidentGames && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        return hibernate(evicted);
+    }
+
+    //runs without holding the LRU lock, hibernating takes the lock of the game
+    private int hibernate(List<RunningInstanceService> games) {
+        int hibernated = 0;
+        for (RunningInstanceService game : games) {
+            try {
+                //a game that moved in the meantime is hibernated anyway, its next move wakes it up again
+                if (game.hibernate())
+                    hibernated++;
+            } catch (RuntimeException e) {
+                log.error("Could not hibernate game " + game.getGameId(), e);
+                synchronized (residentGames) {
+                    residentGames.putIfAbsent(game.getGameId(), game);
+                }
+            }
+        }
+        if (hibernated > 0)
+            log.info("Hibernated " + hibernated + " games, " + getResidentCount() + " resident, " + store.size() + " hibernated");
+        return hibernated;
+    }
+
+    public int getResidentCount() {
+        synchronized (residentGames) {
+            return residentGames.size();
+        }
+    }
+
+    public int getHibernatedCount() {
+        return store.size();
+    }
+
+    public long getHibernationCount() {
+        return hibernations.get();
+    }
+
+    public long getRehydrationCount() {
+        return rehydrations.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
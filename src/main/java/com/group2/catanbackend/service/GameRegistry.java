@@ -0,0 +1,31 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.GameDescriptor;
+
+import java.util.Map;
+
+/**
+ * Holds the lobbies and running games of this node and knows which node owns a game. Node ids are the base URLs
+ * the nodes are reached at, like those of the {@link com.group2.catanbackend.cluster.ShardRing}.
+ * <p>
+ * The maps are live: {@link GameService} reads and changes them directly and lookups on them must stay cheap,
+ * as every move goes through them.
+ */
+public interface GameRegistry {
+
+    Map<String, GameDescriptor> getLobbies();
+
+    Map<String, RunningInstanceService> getRunningGames();
+
+    /**
+     * @return the id of the node holding the lobby or game, null if no node knows it
+     */
+    String ownerOf(String gameId);
+
+    /**
+     * @return the id of the node holding the running game of the token, null if no node knows it
+     */
+    String ownerOfToken(String token);
+
+    String getNodeId();
+}
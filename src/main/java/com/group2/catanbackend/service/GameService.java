@@ -1,63 +1,116 @@
 package com.group2.catanbackend.service;
 
+import com.group2.catanbackend.cluster.GameIdAllocator;
+import com.group2.catanbackend.cluster.GameLocator;
+import com.group2.catanbackend.cluster.ShardRing;
 import com.group2.catanbackend.dto.*;
 import com.group2.catanbackend.dto.game.*;
 import com.group2.catanbackend.exception.*;
 import com.group2.catanbackend.model.GameDescriptor;
 import com.group2.catanbackend.model.Player;
 import com.group2.catanbackend.model.PlayerState;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameMetrics.Outcome;
+import com.group2.catanbackend.monitoring.GameMetrics.Transport;
+import com.group2.catanbackend.monitoring.GameTracing;
+import io.opentelemetry.api.trace.Span;
+import com.group2.catanbackend.persistence.JournaledGame;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
 @Scope("singleton")
 public class GameService {
     private final ApplicationContext applicationContext;
-    private final MessagingService messagingService;
-    @Getter
-    private final Map<String, GameDescriptor> registeredGames = new HashMap<>();
-    @Getter
-    private final Map<String, RunningInstanceService> runningGames = new HashMap<>();
+    private final LobbyNotifier lobbyNotifier;
+    private final Map<String, GameDescriptor> registeredGames;
+    private final Map<String, RunningInstanceService> runningGames;
     private final TokenService tokenService;
+    @Getter
+    private final LobbyDirectory lobbyDirectory;
+    private final GameLocator gameLocator;
+    private final GameIdAllocator gameIdAllocator;
+    private final GameMetrics gameMetrics;
+    private final GameTracing gameTracing;
+    private final AdmissionControl admissionControl;
+    //handovers whose sender asked for them before they arrived, they are refused should they still arrive
+    private final Set<String> givenUpHandovers = new HashSet<>();
 
     @Autowired
     public GameService(ApplicationContext applicationContext,
-                       MessagingService messagingService, TokenService tokenService){
+                       LobbyNotifier lobbyNotifier, TokenService tokenService,
+                       LobbyDirectory lobbyDirectory, GameRegistry gameRegistry,
+                       GameLocator gameLocator, GameIdAllocator gameIdAllocator, GameMetrics gameMetrics,
+                       GameTracing gameTracing, AdmissionControl admissionControl){
         this.applicationContext = applicationContext;
-        this.messagingService = messagingService;
+        this.lobbyNotifier = lobbyNotifier;
         this.tokenService = tokenService;
+        this.lobbyDirectory = lobbyDirectory;
+        this.registeredGames = gameRegistry.getLobbies();
+        this.runningGames = gameRegistry.getRunningGames();
+        this.gameLocator = gameLocator;
+        this.gameIdAllocator = gameIdAllocator;
+        this.gameMetrics = gameMetrics;
+        this.gameTracing = gameTracing;
+        this.admissionControl = admissionControl;
+        tokenService.setExpiryCondition(this::mayTokenExpire);
+        tokenService.setExpiryListener(this::handleTokenExpired);
     }
 
     public JoinResponseDto createAndJoin(CreateRequestDto requestDto) throws GameException{
-        GameDescriptor game = new GameDescriptor();
+        admissionControl.admitGame();
+        GameDescriptor game = newLobby();
         String id = game.getId();
-        registeredGames.put(id, game);
         log.info("Created game: " + id);
         JoinRequestDto joinRequest = new JoinRequestDto(requestDto.getPlayerName(), id);
         return joinGame(joinRequest);
     }
 
+    //an id may clash with a game recovered from an earlier run, a lobby is never overwritten
+    private GameDescriptor newLobby(){
+        while(true){
+            GameDescriptor game = new GameDescriptor(gameIdAllocator.nextId());
+            if(!runningGames.containsKey(game.getId()) && registeredGames.putIfAbsent(game.getId(), game) == null)
+                return game;
+            log.warn("Game id " + game.getId() + " is taken, allocating another one");
+        }
+    }
+
     public JoinResponseDto joinGame(JoinRequestDto request) throws GameException {
         GameDescriptor game = registeredGames.get(request.getGameID());
-        if(game == null)
+        if(game == null){
+            requireLocalGame(request.getGameID());
             throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND + request.getGameID());
+        }
 
-        String token = tokenService.generateToken();
+        //the token carries the shard of the game, so requests with it can be routed to this node
+        String token = ShardRing.withShardOf(tokenService.generateToken(), game.getId());
 
         Player p = new Player(token, request.getPlayerName(), game.getId());
         p.setPlayerState(PlayerState.SOFT_JOINED);
-        game.join(p);
-
         tokenService.pushToken(token, p);
-        notifyPlayersChanged(game);
+        try {
+            synchronized (game) {
+                if(!isOpen(game))
+                    throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND + game.getId());
+                game.join(p);
+                notifyPlayersChanged(game);
+            }
+        } catch (GameException e) {
+            tokenService.revokeToken(token);
+            throw e;
+        }
+
         log.info("user " + request.getPlayerName() + " joined game " + game.getId());
 
         return new JoinResponseDto(p.getDisplayName(), p.getGameID(), p.getToken(), p.getInGameID());
@@ -65,56 +118,78 @@ public class GameService {
 
     public void startGame(String token){
         Player player = tokenService.getPlayerByToken(token);
-        if(player == null)
+        if(player == null){
+            requireLocalToken(token);
             throw new NoSuchTokenException(ErrorCode.ERROR_NO_SUCH_TOKEN);
+        }
 
         GameDescriptor game = registeredGames.get(player.getGameID());
         if(game == null)
             throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
-        if(!game.getAdmin().getToken().equals(token))
-            throw new NotAuthorizedException(ErrorCode.ERROR_NOT_AUTHORIZED.formatted("Start Game: Not Admin}"));
+        synchronized (game) {
+            if(!isOpen(game))
+                throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
+            if(!game.getAdmin().getToken().equals(token))
+                throw new NotAuthorizedException(ErrorCode.ERROR_NOT_AUTHORIZED.formatted("Start Game: Not Admin}"));
+            //the lobby stays, so the admin can start it once the node has caught up
+            admissionControl.admitGame();
 
-        RunningInstanceService service = (RunningInstanceService) applicationContext.getBean("runningInstanceService");
-        runningGames.put(game.getId(), service);
-        registeredGames.remove(game.getId());
-        service.addPlayers(game.getPlayers());
-        service.setGameId(game.getId());
-        service.start();
+            RunningInstanceService service = (RunningInstanceService) applicationContext.getBean("runningInstanceService");
+            //the registry records the tokens of the game as it is put
+            service.addPlayers(game.getPlayers());
+            service.setGameId(game.getId());
+            runningGames.put(game.getId(), service);
+            registeredGames.remove(game.getId());
+            lobbyDirectory.started(game.getId());
+            lobbyNotifier.flush(game); //the last player list must arrive before the game start
+            service.start();
+        }
     }
 
     public void leaveGame(String token){
         Player player = tokenService.getPlayerByToken(token);
-        if(player == null)
+        if(player == null){
+            requireLocalToken(token);
             throw new NoSuchTokenException(ErrorCode.ERROR_NO_SUCH_TOKEN);
+        }
         GameDescriptor gameDescriptor = registeredGames.get(player.getGameID());
-        RunningInstanceService game = runningGames.get(player.getGameID());
-
-        if(gameDescriptor == null && game == null)
-            throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
-
         if(gameDescriptor != null){
-            gameDescriptor.leave(player);
-            tokenService.revokeToken(token);
-            notifyPlayersChanged(gameDescriptor);
-            if(gameDescriptor.getPlayerCount() == 0){
-                registeredGames.remove(gameDescriptor.getId());
+            synchronized (gameDescriptor) {
+                if(isOpen(gameDescriptor)){
+                    gameDescriptor.leave(player);
+                    tokenService.revokeToken(token);
+                    notifyPlayersChanged(gameDescriptor);
+                    if(gameDescriptor.getPlayerCount() == 0){
+                        registeredGames.remove(gameDescriptor.getId());
+                        lobbyDirectory.remove(gameDescriptor.getId());
+                    }
+                    return;
+                }
             }
         }
         //As a running Game is a service, the notification is handled by it.
-        if(game != null){
-            tokenService.revokeToken(token);
-            game.removePlayer(player);
-        }
+        RunningInstanceService game = runningGames.get(player.getGameID());
+        if(game == null)
+            throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
+        tokenService.revokeToken(token);
+        game.removePlayer(player);
     }
 
     public void handleConnectionEstablished(String token){
         Player p = tokenService.getPlayerByToken(token);
         GameDescriptor gameDescriptor = registeredGames.get(p.getGameID());
         if(gameDescriptor != null){
-            p.setPlayerState(PlayerState.CONNECTED);
-            notifyPlayersChanged(gameDescriptor);
+            synchronized (gameDescriptor) {
+                if(isOpen(gameDescriptor)){
+                    p.setPlayerState(PlayerState.CONNECTED);
+                    notifyPlayersChanged(gameDescriptor);
+                    return;
+                }
+            }
         }
-        //TODO: for running game;
+        RunningInstanceService game = runningGames.get(p.getGameID());
+        if(game != null)
+            game.handlePlayerReconnected(p);
     }
 
     public void handleConnectionLost(String token){
@@ -126,26 +201,203 @@ public class GameService {
 
     }
 
+    //Only the token of a player who holds a lobby seat without ever connecting expires. A connected player or one
+    //of a running game keeps it, also when playing over a socket session that never touches the token again.
+    private boolean mayTokenExpire(Player p){
+        return p.getPlayerState() == PlayerState.SOFT_JOINED && registeredGames.containsKey(p.getGameID());
+    }
+
+    //A soft-joined player whose token expired never connected, so the seat is freed again.
+    //Runs on the thread of the token sweep, so the lobby is changed under its lock like for a leave.
+    private void handleTokenExpired(Player p){
+        GameDescriptor gameDescriptor = registeredGames.get(p.getGameID());
+        if(gameDescriptor == null)
+            return;
+        synchronized (gameDescriptor) {
+            if(!isOpen(gameDescriptor) || p.getPlayerState() != PlayerState.SOFT_JOINED || !gameDescriptor.leave(p))
+                return;
+            log.info("token of user " + p.getDisplayName() + " expired, removed from game " + gameDescriptor.getId());
+            if(gameDescriptor.getPlayerCount() == 0) {
+                registeredGames.remove(gameDescriptor.getId());
+                lobbyDirectory.remove(gameDescriptor.getId());
+            } else
+                notifyPlayersChanged(gameDescriptor);
+        }
+    }
+
     public GameMoveValidResponseDto makeMove(String token, GameMoveDto gameMove){
-        Player player = tokenService.getPlayerByToken(token);
-        if(player == null)
-            throw new NoSuchTokenException(ErrorCode.ERROR_NO_SUCH_TOKEN);
+        long start = gameMetrics.moveStarted(0);
+        try {
+            makeTokenMove(token, gameMove);
+        } catch (RuntimeException e) {
+            gameMetrics.moveRequested(Transport.REST, gameMove, Outcome.of(e), start);
+            throw e;
+        }
+        gameMetrics.moveRequested(Transport.REST, gameMove, Outcome.OK, start);
+        return new GameMoveValidResponseDto("Move Ok!");
+    }
 
-        RunningInstanceService game = runningGames.get(player.getGameID());
-        if(game == null)
-            throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
+    private void makeTokenMove(String token, GameMoveDto gameMove){
+        Player player;
+        RunningInstanceService game;
+        Span span = gameTracing.tokenResolving();
+        try {
+            player = tokenService.getPlayerByToken(token);
+            if(player == null){
+                requireLocalToken(token);
+                throw new NoSuchTokenException(ErrorCode.ERROR_NO_SUCH_TOKEN);
+            }
+
+            game = runningGames.get(player.getGameID());
+            if(game == null)
+                throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
+        } catch (RuntimeException e) {
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
         game.makeMove(gameMove, player);
-        return new GameMoveValidResponseDto("Move Ok!");
+    }
+
+    /**
+     * Move sent over the socket. The player was resolved at handshake and the game is looked up only once per session.
+     */
+    public void makeMove(GameSession session, GameMoveDto gameMove){
+        long start = gameMetrics.moveStarted(session.getMoveReceivedAt());
+        try {
+            makeSessionMove(session, gameMove);
+        } catch (RuntimeException e) {
+            gameMetrics.moveRequested(Transport.SOCKET, gameMove, Outcome.of(e), start);
+            throw e;
+        }
+        gameMetrics.moveRequested(Transport.SOCKET, gameMove, Outcome.OK, start);
+    }
+
+    private void makeSessionMove(GameSession session, GameMoveDto gameMove){
+        Player player = session.getPlayer();
+        RunningInstanceService game;
+        Span span = gameTracing.tokenResolving();
+        try {
+            if(player.getPlayerState() == PlayerState.DISCONNECTED)
+                throw new NoSuchTokenException(ErrorCode.ERROR_NO_SUCH_TOKEN);
+
+            game = session.getGame();
+            if(game == null){
+                //checked once per session, afterwards only a leave takes the token and it marks the player
+                if(tokenService.getPlayerByToken(player.getToken()) != player)
+                    throw new NoSuchTokenException(ErrorCode.ERROR_NO_SUCH_TOKEN);
+                game = runningGames.get(player.getGameID());
+                if(game == null)
+                    throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(player.getGameID()));
+                session.bind(game);
+            }
+        } catch (RuntimeException e) {
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+        }
+        game.makeMove(gameMove, player);
+    }
+
+    /**
+     * Puts a game read back from the journal into the running games. Its players get their old tokens again,
+     * except those who had left.
+     */
+    public void restoreRunningGame(JournaledGame journaledGame){
+        register(journaledGame, null);
+    }
+
+    /**
+     * Takes over a running game handed over by another node. Its players keep their tokens and reconnect here.
+     * A handover that was already adopted is accepted again, so the other node may resend it.
+     */
+    public void adoptRunningGame(JournaledGame handover, String handoverId){
+        String gameID = handover.getGameId();
+        synchronized (givenUpHandovers) {
+            if(givenUpHandovers.remove(handoverId))
+                throw new GameException(ErrorCode.ERROR_HANDOVER_GIVEN_UP.formatted(handoverId, gameID));
+            RunningInstanceService running = runningGames.get(gameID);
+            if(running != null && handoverId.equals(running.getHandoverId()))
+                return;
+            if(running != null || registeredGames.containsKey(gameID))
+                throw new GameException(ErrorCode.ERROR_GAME_ALREADY_HERE.formatted(gameID));
+            register(handover, handoverId);
+        }
+        log.info("Adopted game " + gameID);
+    }
+
+    /**
+     * Tells the node that handed a game over whether it arrived, once the answer to the handover got lost.
+     * A handover that did not arrive yet is given up, so the game is never owned by both nodes.
+     * @throws NoSuchGameException if the handover was not adopted
+     */
+    public void confirmAdoption(String gameID, String handoverId){
+        synchronized (givenUpHandovers) {
+            RunningInstanceService running = runningGames.get(gameID);
+            if(running != null && handoverId.equals(running.getHandoverId()))
+                return;
+            givenUpHandovers.add(handoverId);
+        }
+        throw new NoSuchGameException(ErrorCode.ERROR_HANDOVER_NOT_ADOPTED.formatted(handoverId, gameID));
+    }
+
+    //the handover id is null for a game recovered from the journal
+    private void register(JournaledGame journaledGame, String handoverId){
+        List<Player> players = new ArrayList<>();
+        for (JournaledGame.JournaledPlayer journaledPlayer : journaledGame.getPlayers()) {
+            Player p = new Player(journaledPlayer.getToken(), journaledPlayer.getDisplayName(), journaledGame.getGameId());
+            p.setInGameID(journaledPlayer.getInGameID());
+            p.setPlayerState(journaledPlayer.isLeft() ? PlayerState.DISCONNECTED : PlayerState.SOFT_JOINED);
+            players.add(p);
+        }
+        RunningInstanceService service = (RunningInstanceService) applicationContext.getBean("runningInstanceService");
+        if(handoverId != null)
+            service.adopt(journaledGame, players, handoverId);
+        else
+            service.restore(journaledGame, players);
+        for (Player p : players) {
+            if(p.getPlayerState() != PlayerState.DISCONNECTED)
+                tokenService.pushToken(p.getToken(), p);
+        }
+        runningGames.put(journaledGame.getGameId(), service);
+    }
+
+    public Map<String, GameDescriptor> getRegisteredGames(){
+        return registeredGames;
+    }
+
+    public Map<String, RunningInstanceService> getRunningGames(){
+        return runningGames;
+    }
+
+    //only checked when a lookup failed, so local requests pay nothing for the routing
+    private void requireLocalGame(String gameID){
+        String owner = gameLocator.ownerOfGame(gameID);
+        if(!gameLocator.isSelf(owner))
+            throw new NotOwnerException(ErrorCode.ERROR_GAME_NOT_OWNED.formatted(gameID, owner), owner);
+    }
+
+    private void requireLocalToken(String token){
+        String owner = gameLocator.ownerOfToken(token);
+        if(!gameLocator.isSelf(owner))
+            throw new NotOwnerException(ErrorCode.ERROR_TOKEN_NOT_OWNED.formatted(owner), owner);
     }
 
     public List<LobbyDto> getLobbies(){
-        return registeredGames.values()
-                .stream()
-                .map(gameDescriptor -> new LobbyDto(gameDescriptor.getId(), gameDescriptor.getPlayerCount()))
-                .toList();
+        return lobbyDirectory.getAll();
     }
 
+    //every change of a lobby's players goes through here, so the directory stays in sync
     private void notifyPlayersChanged(GameDescriptor gameDescriptor){
-        messagingService.notifyLobby(gameDescriptor.getId(), gameDescriptor.getPlayersInLobbyDto());
+        if(registeredGames.containsKey(gameDescriptor.getId()))
+            lobbyDirectory.update(gameDescriptor);
+        lobbyNotifier.notifyPlayersChanged(gameDescriptor);
+    }
+
+    //lobbies are changed while holding their monitor, a lobby that was started or emptied meanwhile is closed
+    private boolean isOpen(GameDescriptor gameDescriptor){
+        return registeredGames.get(gameDescriptor.getId()) == gameDescriptor;
     }
 }
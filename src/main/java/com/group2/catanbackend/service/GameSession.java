@@ -0,0 +1,33 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.Player;
+import lombok.Getter;
+
+/**
+ * State of one WebSocket session, resolved once during the handshake and kept in the session attributes.
+ * The game handle is bound on the first move once the game is running.
+ */
+public class GameSession {
+    @Getter
+    private final Player player;
+    @Getter
+    private volatile RunningInstanceService game;
+    //System.nanoTime() when the latest move frame of the session arrived, 0 before the first
+    @Getter
+    private volatile long moveReceivedAt;
+
+    public GameSession(Player player){
+        this.player = player;
+    }
+
+    void bind(RunningInstanceService game){
+        this.game = game;
+    }
+
+    /**
+     * Called on the receiving thread before the frame waits for a worker, so the latency includes the queueing.
+     */
+    public void moveReceived(long receivedAt){
+        this.moveReceivedAt = receivedAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.GameDescriptor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of a single node, nothing survives a restart and other nodes see none of its games. Tokens are not
+ * recorded, the token service of this node knows those of its games.
+ */
+public class InMemoryGameRegistry implements GameRegistry {
+    @Getter
+    private final String nodeId;
+    @Getter
+    private final Map<String, GameDescriptor> lobbies = new ConcurrentHashMap<>();
+    @Getter
+    private final Map<String, RunningInstanceService> runningGames = new ConcurrentHashMap<>();
+
+    public InMemoryGameRegistry() {
+        this("local");
+    }
+
+    public InMemoryGameRegistry(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String ownerOf(String gameId) {
+        RunningInstanceService game = runningGames.get(gameId);
+        if (game != null)
+            return game.getMovedTo() != null ? game.getMovedTo() : nodeId;
+        return lobbies.containsKey(gameId) ? nodeId : null;
+    }
+
+    @Override
+    public String ownerOfToken(String token) {
+        return null;
+    }
+}
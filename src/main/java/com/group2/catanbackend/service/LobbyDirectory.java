@@ -0,0 +1,119 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.dto.LobbyDto;
+import com.group2.catanbackend.dto.game.LobbyChangedDto;
+import com.group2.catanbackend.dto.game.LobbyDirectorySnapshotDto;
+import com.group2.catanbackend.dto.game.MessageType;
+import com.group2.catanbackend.model.GameDescriptor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the open lobbies that is updated on every join, leave and start instead of being rebuilt per request.
+ * Lobbies are ordered by id so a page is read from the position after the cursor.
+ * The version changes with every update and serves as the ETag of the listing.
+ * Every change is also pushed as a delta to the lobby directory topic.
+ */
+@Service
+@Scope("singleton")
+public class LobbyDirectory {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final ConcurrentSkipListMap<String, LobbyDto> lobbies = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, LobbyDto> lobbiesWithOpenSeats = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final MessagingService messagingService;
+
+    public LobbyDirectory(@Autowired MessagingService messagingService){
+        this.messagingService = messagingService;
+    }
+
+    public void update(GameDescriptor game){
+        LobbyDto previous = lobbies.get(game.getId());
+        if(previous != null && previous.getPlayerCount() == game.getPlayerCount())
+            return; //e.g. a player connected, nothing visible in the listing changed
+        LobbyDto lobby = new LobbyDto(game.getId(), game.getPlayerCount());
+        lobbies.put(lobby.getGameID(), lobby);
+        if(lobby.getPlayerCount() < Constants.MAX_PLAYER_COUNT)
+            lobbiesWithOpenSeats.put(lobby.getGameID(), lobby);
+        else
+            lobbiesWithOpenSeats.remove(lobby.getGameID());
+        publish(previous == null ? MessageType.LOBBY_CREATED : MessageType.LOBBY_UPDATED, lobby);
+    }
+
+    public void remove(String gameID){
+        remove(gameID, MessageType.LOBBY_REMOVED);
+    }
+
+    public void started(String gameID){
+        remove(gameID, MessageType.LOBBY_STARTED);
+    }
+
+    private void remove(String gameID, String eventType){
+        lobbiesWithOpenSeats.remove(gameID);
+        LobbyDto removed = lobbies.remove(gameID);
+        if(removed != null)
+            publish(eventType, removed);
+    }
+
+    private void publish(String eventType, LobbyDto lobby){
+        messagingService.notifyLobbyDirectory(new LobbyChangedDto(eventType, lobby, version.incrementAndGet()));
+    }
+
+    public LobbyDirectorySnapshotDto getSnapshot(){
+        //version first: lobbies changed in between are also sent as deltas with a higher version
+        long snapshotVersion = version.get();
+        return new LobbyDirectorySnapshotDto(List.copyOf(lobbies.values()), snapshotVersion);
+    }
+
+    /**
+     * @param cursor id of the last lobby of the previous page, or null for the first page
+     */
+    public Page list(boolean openSeatsOnly, String cursor, int limit){
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        NavigableMap<String, LobbyDto> source = openSeatsOnly ? lobbiesWithOpenSeats : lobbies;
+        if(cursor != null)
+            source = source.tailMap(cursor, false);
+
+        List<LobbyDto> page = new ArrayList<>();
+        String nextCursor = null;
+        for(LobbyDto lobby : source.values()){
+            if(page.size() == pageSize){
+                nextCursor = page.get(page.size() - 1).getGameID();
+                break;
+            }
+            page.add(lobby);
+        }
+        return new Page(page, nextCursor);
+    }
+
+    public List<LobbyDto> getAll(){
+        return List.copyOf(lobbies.values());
+    }
+
+    public int size(){
+        return lobbies.size();
+    }
+
+    public long getVersion(){
+        return version.get();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Page {
+        private final List<LobbyDto> lobbies;
+        private final String nextCursor;
+    }
+}
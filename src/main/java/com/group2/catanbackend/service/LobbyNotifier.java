@@ -0,0 +1,106 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.GameDescriptor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debounces lobby notifications per lobby. The first change of a lobby opens a window,
+ * further changes within it are covered by the one message with the latest state sent at its end.
+ * <p>
+ * The message is built and sent while holding the lobby's monitor, the lock {@link GameService} changes a lobby under,
+ * so it never sees a half applied change and sends of the same lobby never overlap.
+ * <p>
+ * Unlike a direct send, the notification of a change may reach a client that subscribed shortly after the change.
+ */
+@Service
+@Slf4j
+@Scope("singleton")
+public class LobbyNotifier {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MessagingService messagingService;
+    private final long windowMillis;
+    private final Map<String, GameDescriptor> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lobby-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LobbyNotifier(MessagingService messagingService,
+                         @Value("${catan.lobby.notify-debounce-ms:50}") long windowMillis){
+        this.messagingService = messagingService;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * The player list is read when the window closes, so it always reflects the trailing state.
+     */
+    public void notifyPlayersChanged(GameDescriptor lobby){
+        if(windowMillis <= 0){
+            synchronized (lobby) {
+                messagingService.notifyLobby(lobby.getId(), lobby.getPlayersInLobbyDto());
+            }
+            return;
+        }
+        if(pending.put(lobby.getId(), lobby) == null)
+            schedule(lobby.getId(), 1);
+    }
+
+    /**
+     * Sends the pending notification of a lobby right away, e.g. before the game start is announced.
+     * Once this returns, every earlier change of the lobby has been sent.
+     */
+    public void flush(GameDescriptor lobby){
+        synchronized (lobby) {
+            //nothing pending or a concurrent flush got the lock first and already sent the latest state
+            if(pending.remove(lobby.getId(), lobby))
+                messagingService.notifyLobby(lobby.getId(), lobby.getPlayersInLobbyDto());
+        }
+    }
+
+    //a failed send is retried with the then current player list, so a lost message is made up for by a later one
+    private void flushScheduled(String gameID, int attempt){
+        GameDescriptor lobby = pending.get(gameID);
+        if(lobby == null)
+            return;
+        try {
+            flush(lobby);
+        } catch (RuntimeException e) {
+            if(attempt >= MAX_ATTEMPTS){
+                log.error("Could not notify lobby " + gameID + ", giving up after " + attempt + " attempts", e);
+                return;
+            }
+            log.warn("Could not notify lobby " + gameID + ", retrying", e);
+            if(pending.putIfAbsent(gameID, lobby) == null)
+                schedule(gameID, attempt + 1);
+        }
+    }
+
+    private void schedule(String gameID, int attempt){
+        try {
+            scheduler.schedule(() -> flushScheduled(gameID, attempt), windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            //shutting down, the pending notification goes out with the final flush
+        }
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        scheduler.shutdownNow();
+        pending.values().forEach(this::flush);
+    }
+}
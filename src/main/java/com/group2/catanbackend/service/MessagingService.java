@@ -2,31 +2,99 @@ package com.group2.catanbackend.service;
 
 import com.group2.catanbackend.config.Constants;
 import com.group2.catanbackend.dto.game.MessageDto;
+import com.group2.catanbackend.monitoring.GameCosts;
+import com.group2.catanbackend.monitoring.GameEventContext;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameMetrics.Channel;
+import com.group2.catanbackend.monitoring.GameTracing;
+import io.opentelemetry.api.trace.Span;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 @Scope("singleton")
 public class MessagingService {
     private final SimpMessagingTemplate messagingTemplate;
+    private final GameMetrics metrics;
+    private final GameTracing tracing;
 
-    public MessagingService(SimpMessagingTemplate messagingTemplate){
+    @Autowired
+    public MessagingService(SimpMessagingTemplate messagingTemplate, GameMetrics metrics, GameTracing tracing){
         this.messagingTemplate = messagingTemplate;
+        this.metrics = metrics;
+        this.tracing = tracing;
     }
 
     public void notifyLobby(String gameID, MessageDto payload){
         final String destination = Constants.TOPIC_GAME_LOBBY.formatted(gameID);
-        messagingTemplate.convertAndSend(destination, payload);
+        send(Channel.LOBBY, gameID, destination, payload);
     }
 
     public void notifyGameProgress(String gameID, MessageDto payload){
         final String destination = Constants.TOPIC_GAME_PROGRESS.formatted(gameID);
-        messagingTemplate.convertAndSend(destination, payload);
+        send(Channel.GAME, gameID, destination, payload);
+    }
+
+    public void notifyLobbyDirectory(MessageDto payload){
+        send(Channel.LOBBY_DIRECTORY, null, Constants.TOPIC_LOBBY_DIRECTORY, payload);
     }
 
     public void notifyUser(String token, MessageDto payload){
         final String destination = Constants.QUEUE_USER_MESSAGE;
-        messagingTemplate.convertAndSendToUser(token, destination, payload);
+        long start = metrics.start();
+        GameEventContext events = GameEventContext.broadcastStarted(null);
+        Span span = tracing.messageSending(destination, payload);
+        try {
+            //the trace context goes along as STOMP headers, messages of unsampled traces have none
+            Map<String, Object> headers = tracing.headers(span);
+            if(headers == null)
+                messagingTemplate.convertAndSendToUser(token, destination, payload);
+            else
+                messagingTemplate.convertAndSendToUser(token, destination, payload, headers);
+        } catch (MessagingException e) {
+            metrics.messageFailed(Channel.USER);
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+            if (events != null)
+                events.broadcastEnded();
+        }
+        metrics.messageSent(Channel.USER, payload, start);
+        chargeGame(Channel.USER);
+    }
+
+    private void send(Channel channel, String gameID, String destination, MessageDto payload){
+        long start = metrics.start();
+        GameEventContext events = GameEventContext.broadcastStarted(gameID);
+        Span span = tracing.messageSending(destination, payload);
+        try {
+            Map<String, Object> headers = tracing.headers(span);
+            if(headers == null)
+                messagingTemplate.convertAndSend(destination, payload);
+            else
+                messagingTemplate.convertAndSend(destination, payload, headers);
+        } catch (MessagingException e) {
+            metrics.messageFailed(channel);
+            GameTracing.failed(span, e);
+            throw e;
+        } finally {
+            span.end();
+            if (events != null)
+                events.broadcastEnded();
+        }
+        metrics.messageSent(channel, payload, start);
+        chargeGame(channel);
+    }
+
+    private static void chargeGame(Channel channel){
+        GameCosts costs = GameCosts.current();
+        if(costs != null)
+            costs.messageSent(channel);
     }
 }
@@ -0,0 +1,46 @@
+package com.group2.catanbackend.service;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Request limits checked before anything reaches the {@link GameService}.
+ * Moves are limited per player token, shared by REST and STOMP. Creating and joining lobbies happens before there is
+ * a token, so those are limited per client address.
+ */
+@Service
+public class RateLimits {
+    @Getter
+    private final TokenBucketLimiter moves;
+    @Getter
+    private final TokenBucketLimiter lobbies;
+    private final boolean enabled;
+
+    /**
+     * @param slots buckets per limit, 8 bytes each however many clients there are
+     */
+    @Autowired
+    public RateLimits(@Value("${catan.ratelimit.enabled:true}") boolean enabled,
+                      @Value("${catan.ratelimit.moves-per-second:10}") double movesPerSecond,
+                      @Value("${catan.ratelimit.move-burst:20}") int moveBurst,
+                      @Value("${catan.ratelimit.lobbies-per-second:1}") double lobbiesPerSecond,
+                      @Value("${catan.ratelimit.lobby-burst:5}") int lobbyBurst,
+                      @Value("${catan.ratelimit.slots:65536}") int slots) {
+        this.enabled = enabled;
+        this.moves = new TokenBucketLimiter(movesPerSecond, moveBurst, slots);
+        this.lobbies = new TokenBucketLimiter(lobbiesPerSecond, lobbyBurst, slots);
+    }
+
+    /**
+     * @param token the player token, requests without one are left to the usual checks
+     */
+    public boolean allowMove(String token) {
+        return !enabled || token == null || moves.tryAcquire(token);
+    }
+
+    public boolean allowLobby(String clientAddress) {
+        return !enabled || clientAddress == null || lobbies.tryAcquire(clientAddress);
+    }
+}
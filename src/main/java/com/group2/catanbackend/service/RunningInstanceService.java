@@ -1,24 +1,43 @@
 package com.group2.catanbackend.service;
 
+import com.group2.catanbackend.dto.GameCostDto;
 import com.group2.catanbackend.dto.game.*;
 import com.group2.catanbackend.exception.ErrorCode;
 import com.group2.catanbackend.exception.GameException;
 import com.group2.catanbackend.exception.InvalidGameMoveException;
 import com.group2.catanbackend.exception.NoSuchGameException;
+import com.group2.catanbackend.exception.NotOwnerException;
 import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.gamelogic.GameStateCodec;
 import com.group2.catanbackend.model.Player;
 import com.group2.catanbackend.model.PlayerState;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameCosts;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.persistence.GameHandover;
+import com.group2.catanbackend.persistence.JournaledGame;
+import com.group2.catanbackend.persistence.MoveCodec;
+import com.group2.catanbackend.persistence.MoveJournal;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 @Service
 @Scope("prototype")
 public class RunningInstanceService {
+    //heap held by the board of a running game and by each of its players, measured on a 64 bit JVM with compressed oops
+    static final long BOARD_BYTES = 16_700;
+    static final long PLAYER_BYTES = 230;
+
     @Getter
     @Setter
     private String gameId;
@@ -26,18 +45,80 @@ public class RunningInstanceService {
     private final MessagingService messagingService;
     private boolean started = false;
     private GameLogicController gameLogicController;
+    private final MoveJournal journal;
+    private int moveSequence = 0;
+    private final GameHibernator hibernator;
+    private boolean hibernated = false;
+    private final GameMetrics metrics;
+    private final GameCosts costs;
+    private final GameTracing tracing;
+    @Getter
+    private volatile long lastActivity = System.nanoTime();
+    //base URL of the node the game was handed over to, null while it runs here
+    @Getter
+    private volatile String movedTo;
+    //id of the handover the game was adopted with, null if it started or was recovered here
+    @Getter
+    private volatile String handoverId;
 
+    /**
+     * @param journal records the game so it survives a restart, null if journaling is disabled
+     * @param hibernator takes the game off the heap while idle, null if hibernation is disabled
+     * @param metrics times the moves of the game
+     * @param costAccounting keeps track of what the game costs this node
+     * @param tracing spans around applying the moves of the game
+     */
     @Autowired
-    public RunningInstanceService(MessagingService messagingService) {
+    public RunningInstanceService(MessagingService messagingService, @Nullable MoveJournal journal, @Nullable GameHibernator hibernator,
+                                  GameMetrics metrics, GameCostAccounting costAccounting, GameTracing tracing) {
         this.messagingService = messagingService;
+        this.journal = journal;
+        this.hibernator = hibernator;
+        this.metrics = metrics;
+        this.costs = costAccounting.newGame();
+        this.tracing = tracing;
     }
 
-    public void makeMove(GameMoveDto gameMove, Player player) {
+    //synchronized so moves reach the journal in the order they were applied
+    public synchronized void makeMove(GameMoveDto gameMove, Player player) {
         if (gameMove == null)
             throw new InvalidGameMoveException(ErrorCode.ERROR_DTO_WAS_NULL);
 
-        if (gameLogicController != null) gameLogicController.makeMove(gameMove, player);
-        else throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND);
+        requireNotMoved();
+        wakeUp();
+        if (gameLogicController == null)
+            throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND);
+        long previousActivity = lastActivity;
+        lastActivity = System.nanoTime();
+        if (hibernator != null)
+            hibernator.touched(this, previousActivity);
+        long cpuStart = costs.begin(connectedPlayers());
+        try {
+            try {
+                gameLogicController.makeMove(gameMove, player);
+            } catch (RuntimeException e) {
+                costs.moveRejected();
+                throw e;
+            }
+            costs.moveAccepted();
+            if (journal != null) {
+                journal.moveAccepted(gameId, moveSequence, players.indexOf(player), gameMove);
+                if (gameLogicController.isGameover())
+                    journal.gameEnded(gameId);
+                else if (journal.isSnapshotDue(moveSequence + 1))
+                    journal.snapshot(gameId, moveSequence + 1, gameLogicController.getBoard().getSeed(), players, gameLogicController);
+            }
+            moveSequence++;
+        } finally {
+            costs.end(cpuStart);
+        }
+    }
+
+    /**
+     * @return the tokens of the players, also of those who left
+     */
+    public List<String> getTokens() {
+        return players == null ? List.of() : players.stream().map(Player::getToken).toList();
     }
 
     public void addPlayers(List<Player> players) {
@@ -49,14 +130,155 @@ public class RunningInstanceService {
         if (started) {
             return;
         }
-        notifyGameStart();
+        long cpuStart = costs.begin(connectedPlayers());
+        try {
+            notifyGameStart();
+            started = true;
+            long seed = ThreadLocalRandom.current().nextLong();
+            if (journal != null)
+                journal.gameStarted(gameId, seed, players);
+            gameLogicController = new GameLogicController(players, messagingService, gameId, seed, false);
+            gameLogicController.setMetrics(metrics);
+            gameLogicController.setTracing(tracing);
+        } finally {
+            costs.end(cpuStart);
+        }
+        if (hibernator != null)
+            hibernator.activated(this);
+    }
+
+    /**
+     * Rebuilds a game from the journal, starting at its latest snapshot if there is one and replaying the moves after it.
+     * Nothing is sent to the players, they get the current state once they reconnect.
+     */
+    public synchronized void restore(JournaledGame journaledGame, List<Player> players) {
+        this.players = players;
+        this.gameId = journaledGame.getGameId();
         started = true;
-        gameLogicController = new GameLogicController(players, messagingService, gameId);
+        if (journaledGame.getSnapshot() != null)
+            gameLogicController = GameStateCodec.decode(ByteBuffer.wrap(journaledGame.getSnapshot()), players, messagingService, gameId);
+        else
+            gameLogicController = new GameLogicController(players, messagingService, gameId, journaledGame.getSeed(), true);
+        gameLogicController.setSilent(true);
+        for (JournaledGame.JournaledMove move : journaledGame.getMoves()) {
+            gameLogicController.makeMove(MoveCodec.decode(move.getType(), move.getArgument()), players.get(move.getPlayerIndex()));
+        }
+        moveSequence = journaledGame.getSnapshotSequence() + journaledGame.getMoves().size();
+        gameLogicController.setSilent(false);
+        gameLogicController.setMetrics(metrics);
+        gameLogicController.setTracing(tracing);
+        if (hibernator != null)
+            hibernator.activated(this);
+    }
+
+    /**
+     * Takes over a game handed over by another node. Unlike a recovered game it is written to this node's journal,
+     * as the other node no longer keeps it.
+     * @param handoverId chosen by the other node, it asks for the id if it missed the answer to the handover
+     */
+    public synchronized void adopt(JournaledGame handover, List<Player> players, String handoverId) {
+        restore(handover, players);
+        this.handoverId = handoverId;
+        if (journal != null) {
+            journal.gameStarted(gameId, handover.getSeed(), players);
+            journal.snapshot(gameId, moveSequence, handover.getSeed(), players, gameLogicController);
+        }
+    }
+
+    /**
+     * Hands the game over to another node. The game lock is held throughout, so no move can slip in between the
+     * encoded state and the switch; if the transfer fails the game keeps running here.
+     * @param transfer sends the encoded game, throws if the other node did not take it
+     */
+    public synchronized void handOver(String node, Consumer<byte[]> transfer) {
+        requireNotMoved();
+        wakeUp();
+        if (gameLogicController == null)
+            throw new NoSuchGameException(ErrorCode.ERROR_GAME_NOT_FOUND.formatted(gameId));
+        transfer.accept(GameHandover.encode(gameId, moveSequence, gameLogicController.getBoard().getSeed(), players, gameLogicController));
+        movedTo = node;
+        gameLogicController = null;
+        if (journal != null)
+            journal.gameEnded(gameId);
+        messagingService.notifyGameProgress(gameId, new GameMovedDto(node));
+    }
+
+    private void requireNotMoved() {
+        if (movedTo != null)
+            throw new NotOwnerException(ErrorCode.ERROR_GAME_NOT_OWNED.formatted(gameId, movedTo), movedTo);
+    }
+
+    /**
+     * Encodes the game into the hibernation store and drops its state from the heap.
+     * @return false if the game had no state in memory
+     */
+    synchronized boolean hibernate() {
+        if (gameLogicController == null)
+            return false;
+        hibernator.save(gameId, gameLogicController);
+        gameLogicController = null;
+        hibernated = true;
+        return true;
+    }
+
+    public synchronized boolean isHibernated() {
+        return hibernated;
+    }
+
+    private void wakeUp() {
+        if (!hibernated)
+            return;
+        gameLogicController = hibernator.load(gameId, players, messagingService);
+        gameLogicController.setMetrics(metrics);
+        gameLogicController.setTracing(tracing);
+        hibernated = false;
+        lastActivity = System.nanoTime();
+        hibernator.activated(this);
+    }
+
+    public synchronized void handlePlayerReconnected(Player p) {
+        if (movedTo != null) {
+            messagingService.notifyUser(p.getToken(), new GameMovedDto(movedTo));
+            return;
+        }
+        p.setPlayerState(PlayerState.CONNECTED);
+        long cpuStart = costs.begin(connectedPlayers());
+        try {
+            wakeUp();
+            if (gameLogicController != null)
+                messagingService.notifyUser(p.getToken(), gameLogicController.getCurrentGameState());
+        } finally {
+            costs.end(cpuStart);
+        }
+    }
+
+    /**
+     * @return what the game cost this node so far, memory only counts while the game is on the heap
+     */
+    public GameCostDto getCosts() {
+        //read without the lock, the estimate may be off by a hibernation that is just happening
+        boolean resident = gameLogicController != null;
+        List<Player> players = this.players;
+        long retained = !resident || players == null ? 0 : BOARD_BYTES + players.size() * PLAYER_BYTES;
+        return new GameCostDto(gameId, costs.getCpuNanos(), costs.getBytesSerialized(), costs.getFramesSent(),
+                costs.getMovesAccepted(), costs.getMovesRejected(), retained);
+    }
+
+    private int connectedPlayers() {
+        int connected = 0;
+        for (Player player : players) {
+            if (player.getPlayerState() == PlayerState.CONNECTED)
+                connected++;
+        }
+        return connected;
     }
 
     //Players are not removed once the game is started.
     public void removePlayer(Player p) {
+        requireNotMoved();
         p.setPlayerState(PlayerState.DISCONNECTED);
+        if (journal != null)
+            journal.playerLeft(gameId, players.indexOf(p));
         PlayersInLobbyDto dto = new PlayersInLobbyDto();
         dto.setPlayers(players.stream().map(Player::toPlayerDto).toList());
         dto.setAdmin(null);
@@ -3,11 +3,15 @@ package com.group2.catanbackend.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 import java.security.Principal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.group2.catanbackend.config.Constants.FULL_USER_QUEUE_PATH;
 
@@ -16,10 +20,19 @@ import static com.group2.catanbackend.config.Constants.FULL_USER_QUEUE_PATH;
 public class StompEventListener {
     GameService gameService;
     private static final String KEY_SUBSCRIPTION_PATH = "simpDestination";
+    //ids instead of a counter, a disconnect is also published for sessions that never completed the CONNECT
+    private final Set<String> connectedSessions = ConcurrentHashMap.newKeySet();
 
     public StompEventListener(@Autowired GameService gameService){
         this.gameService = gameService;
     }
+    @EventListener
+    public void onClientConnected(SessionConnectedEvent event){
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if(sessionId != null)
+            connectedSessions.add(sessionId);
+    }
+
     @EventListener
     public void onClientSubscribe(SessionSubscribeEvent event){
         String destination = event.getMessage().getHeaders().get(KEY_SUBSCRIPTION_PATH, String.class);
@@ -32,9 +45,14 @@ public class StompEventListener {
 
     @EventListener
     public void onClientDisconnect(SessionDisconnectEvent event){
+        connectedSessions.remove(event.getSessionId());
         Principal user = event.getUser();
         if(user != null){
             gameService.handleConnectionLost(user.getName());
         }
     }
+
+    public int getConnectedSessionCount(){
+        return connectedSessions.size();
+    }
 }
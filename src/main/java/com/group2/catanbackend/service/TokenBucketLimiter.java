@@ -0,0 +1,72 @@
+package com.group2.catanbackend.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets for any number of keys in a fixed amount of memory.
+ * Keys are hashed onto a fixed number of slots and a slot holds a single long, the time at which its bucket will be
+ * full again. Taking a token pushes that time out by one refill interval, which is refused if the bucket would have to
+ * go below empty. Slots are updated with compare-and-set, so there are no locks and nothing is allocated per key.
+ * <p>
+ * Keys that share a slot share a bucket. With enough slots that is rare, and it can only make the limit stricter.
+ */
+public class TokenBucketLimiter {
+    private final AtomicLongArray fullAt;
+    private final int mask;
+    private final long refillNanos;
+    private final long capacityNanos;
+    //keeps the clock positive, so an untouched slot at 0 reads as a full bucket
+    private final long origin = System.nanoTime() - 1;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param perSecond tokens added per second
+     * @param burst tokens a full bucket holds
+     * @param slots number of buckets, rounded up to a power of two; each takes 8 bytes
+     */
+    public TokenBucketLimiter(double perSecond, int burst, int slots) {
+        if (perSecond <= 0 || burst < 1 || slots < 1)
+            throw new IllegalArgumentException("rate, burst and slots must be positive");
+        int tableSize = slots == 1 ? 1 : Integer.highestOneBit(slots - 1) << 1;
+        this.fullAt = new AtomicLongArray(tableSize);
+        this.mask = tableSize - 1;
+        this.refillNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        this.capacityNanos = refillNanos * burst;
+    }
+
+    /**
+     * @return true if the key had a token left, which is now taken
+     */
+    public boolean tryAcquire(String key) {
+        int slot = spread(key.hashCode()) & mask;
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long current = fullAt.get(slot);
+            long next = Math.max(current, now) + refillNanos;
+            if (next - now > capacityNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (fullAt.compareAndSet(slot, current, next))
+                return true;
+        }
+    }
+
+    /**
+     * @return seconds until the next token of a drained bucket, rounded up
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (refillNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    //tokens are UUIDs and addresses share long prefixes, so mix the high bits into the slot index
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
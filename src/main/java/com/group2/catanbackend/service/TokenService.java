@@ -1,24 +1,44 @@
 package com.group2.catanbackend.service;
 
+import com.group2.catanbackend.exception.ErrorCode;
+import com.group2.catanbackend.exception.TokenCapacityExceededException;
 import com.group2.catanbackend.model.Player;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Service
+@Slf4j
 @Scope("singleton")
 public class TokenService {
 
-    private final Map<String, Player> registeredTokens = new ConcurrentHashMap<>();
+    private final TokenStore registeredTokens;
+
+    @Autowired
+    public TokenService(@Value("${catan.tokens.capacity:16384}") int capacity,
+                        @Value("${catan.tokens.ttl-minutes:120}") long ttlMinutes){
+        this(new TokenStore(capacity, TimeUnit.MINUTES.toNanos(ttlMinutes)));
+    }
+
+    TokenService(TokenStore registeredTokens){
+        this.registeredTokens = registeredTokens;
+    }
+
     public String generateToken(){
         return UUID.randomUUID().toString();
     }
 
     public void pushToken(String token, Player player){
-        registeredTokens.put(token, player);
+        if(!registeredTokens.put(token, player))
+            throw new TokenCapacityExceededException(ErrorCode.ERROR_TOKEN_CAPACITY_EXCEEDED);
     }
 
     public boolean validateToken(String token, String gameID){
@@ -32,10 +52,47 @@ public class TokenService {
     }
 
     public boolean tokenExists(String token){
-        return registeredTokens.containsKey(token);
+        return registeredTokens.get(token) != null;
     }
 
     public Player getPlayerByToken(String token){
         return registeredTokens.get(token);
     }
+
+    /**
+     * Called with the player of every token that expires. Expired tokens are already removed at that point.
+     */
+    public void setExpiryListener(Consumer<Player> listener){
+        registeredTokens.setExpiryListener(listener);
+    }
+
+    /**
+     * Tokens of players the condition turns down stay valid however long they are idle.
+     */
+    public void setExpiryCondition(Predicate<Player> mayExpire){
+        registeredTokens.setExpiryCondition(mayExpire);
+    }
+
+    @Scheduled(fixedDelayString = "${catan.tokens.sweep-interval-ms:60000}")
+    public void purgeExpiredTokens(){
+        int purged = registeredTokens.purgeExpired();
+        if(purged > 0)
+            log.info("Expired " + purged + " tokens");
+    }
+
+    public int getTokenCount(){
+        return registeredTokens.size();
+    }
+
+    public int getTokenCapacity(){
+        return registeredTokens.getCapacity();
+    }
+
+    public long getEvictionCount(){
+        return registeredTokens.getEvictionCount();
+    }
+
+    public long getTableBytes(){
+        return registeredTokens.getTableBytes();
+    }
 }
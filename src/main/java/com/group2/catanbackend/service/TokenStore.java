@@ -0,0 +1,296 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Fixed-size token table with sliding expiry.
+ * Tokens are canonical UUID strings and are stored as their two 64-bit halves in an open-addressing table,
+ * so a lookup parses the token in place and never allocates.
+ * <p>
+ * The access time lives in the entry of a token, which moves with the key when a removal shifts the probe chain,
+ * so a lookup can refresh it without taking the lock.
+ * <p>
+ * Only tokens whose player the expiry condition accepts expire, all others stay until they are removed.
+ */
+public class TokenStore {
+    private static final int UUID_LENGTH = 36;
+    private static final int REFERENCE_SIZE = 8;
+    //object header, access time and player reference of an Entry
+    private static final int ENTRY_SIZE = 32;
+    private static final int SWEEP_SLOTS_PER_INSERT = 8;
+
+    private final int capacity;
+    private final long ttlNanos;
+    private final int mask;
+    private final long[] keysHigh;
+    private final long[] keysLow;
+    private final Entry[] entries;
+    private final StampedLock lock = new StampedLock();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile Consumer<Player> onExpired = player -> {};
+    private volatile Predicate<Player> mayExpire = player -> true;
+    private int size = 0;
+    private int sweepHand = 0;
+
+    public TokenStore(int capacity, long ttlNanos) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.ttlNanos = ttlNanos;
+        //keep the load factor at or below 0.5 so probe chains stay short
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.mask = tableSize - 1;
+        this.keysHigh = new long[tableSize];
+        this.keysLow = new long[tableSize];
+        this.entries = new Entry[tableSize];
+    }
+
+    /**
+     * @return false if the store is full even after removing expired tokens
+     * @throws IllegalArgumentException if the token is not a canonical UUID
+     */
+    public boolean put(String token, Player player) {
+        if (!isCanonicalUuid(token))
+            throw new IllegalArgumentException("Token is not a UUID: " + token);
+        long high = parseHigh(token);
+        long low = parseLow(token);
+        long now = System.nanoTime();
+        List<Player> expired = new ArrayList<>();
+        try {
+            long stamp = lock.writeLock();
+            try {
+                sweep(now, SWEEP_SLOTS_PER_INSERT, expired);
+                int slot = slotOf(high, low);
+                if (slot < 0) {
+                    if (size >= capacity)
+                        sweep(now, entries.length, expired);
+                    if (size >= capacity)
+                        return false;
+                    slot = ~slot;
+                    keysHigh[slot] = high;
+                    keysLow[slot] = low;
+                    size++;
+                }
+                entries[slot] = new Entry(player, now);
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        } finally {
+            notifyExpired(expired);
+        }
+    }
+
+    /**
+     * Looks up a token and refreshes its expiry. Expired tokens are treated as absent.
+     */
+    public Player get(String token) {
+        if (!isCanonicalUuid(token))
+            return null;
+        long high = parseHigh(token);
+        long low = parseLow(token);
+
+        long stamp = lock.tryOptimisticRead();
+        int slot = slotOf(high, low);
+        Entry entry = slot >= 0 ? entries[slot] : null;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = slotOf(high, low);
+                entry = slot >= 0 ? entries[slot] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (entry == null)
+            return null;
+
+        long now = System.nanoTime();
+        if (isExpired(entry, now))
+            return null;
+        //the entry belongs to this token wherever it was moved meanwhile, touching a removed one has no effect
+        entry.lastAccess = now;
+        return entry.player;
+    }
+
+    public Player remove(String token) {
+        if (!isCanonicalUuid(token))
+            return null;
+        long high = parseHigh(token);
+        long low = parseLow(token);
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(high, low);
+            if (slot < 0)
+                return null;
+            Player removed = entries[slot].player;
+            deleteSlot(slot);
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every expired token and hands its player to the expiry listener.
+     * @return the number of removed tokens
+     */
+    public int purgeExpired() {
+        List<Player> expired = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            sweep(System.nanoTime(), entries.length, expired);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        notifyExpired(expired);
+        return expired.size();
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Bytes held by the table arrays and the entries. The Player objects themselves are not included.
+     */
+    public long getTableBytes() {
+        return (long) entries.length * (Long.BYTES * 2 + REFERENCE_SIZE) + (long) size() * ENTRY_SIZE;
+    }
+
+    public void setExpiryListener(Consumer<Player> onExpired) {
+        this.onExpired = onExpired;
+    }
+
+    /**
+     * @param mayExpire tells whether the token of an idle player may expire, asked only once the TTL has passed
+     */
+    public void setExpiryCondition(Predicate<Player> mayExpire) {
+        this.mayExpire = mayExpire;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.lastAccess > ttlNanos && mayExpire.test(entry.player);
+    }
+
+    private void notifyExpired(List<Player> expired) {
+        for (Player player : expired) {
+            onExpired.accept(player);
+        }
+    }
+
+    //returns the slot of the key, or the bitwise complement of the free slot where it would be inserted
+    private int slotOf(long high, long low) {
+        int slot = hash(high, low) & mask;
+        while (entries[slot] != null) {
+            if (keysHigh[slot] == high && keysLow[slot] == low)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    private void sweep(long now, int slots, List<Player> expired) {
+        for (int i = 0; i < slots && size > 0; i++) {
+            int slot = sweepHand;
+            sweepHand = (sweepHand + 1) & mask;
+            //the backward shift of a deletion may move an unchecked entry into this slot, so it is checked again
+            Entry entry;
+            while ((entry = entries[slot]) != null && isExpired(entry, now)) {
+                deleteSlot(slot);
+                evictions.incrementAndGet();
+                expired.add(entry.player);
+            }
+        }
+    }
+
+    //linear probing deletion without tombstones: shift later entries of the probe chain back
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (entries[next] != null) {
+            int home = hash(keysHigh[next], keysLow[next]) & mask;
+            boolean movable = (next > gap) ? (home <= gap || home > next) : (home <= gap && home > next);
+            if (movable) {
+                keysHigh[gap] = keysHigh[next];
+                keysLow[gap] = keysLow[next];
+                entries[gap] = entries[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        entries[gap] = null;
+        size--;
+    }
+
+    private static final class Entry {
+        private final Player player;
+        private volatile long lastAccess;
+
+        private Entry(Player player, long lastAccess) {
+            this.player = player;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static int hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    public static boolean isCanonicalUuid(String token) {
+        if (token == null || token.length() != UUID_LENGTH)
+            return false;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = token.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //layout: xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx, the first 16 digits form the high half
+    public static long parseHigh(String token) {
+        return parseHex(token, 0, 18);
+    }
+
+    public static long parseLow(String token) {
+        return parseHex(token, 19, UUID_LENGTH);
+    }
+
+    private static long parseHex(String token, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            if (c != '-')
+                value = (value << 4) | Character.digit(c, 16);
+        }
+        return value;
+    }
+}
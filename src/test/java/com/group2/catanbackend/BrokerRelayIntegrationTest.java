@@ -0,0 +1,139 @@
+package com.group2.catanbackend;
+
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.TokenService;
+import com.group2.catanbackend.websocket.StompFrameHandlerClientImpl;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.net.ServerSocket;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the socket endpoints against an embedded Artemis broker in relay mode.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"catan.broker.relay.enabled=true", "catan.ratelimit.enabled=false"})
+class BrokerRelayIntegrationTest {
+    private static EmbeddedActiveMQ broker;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Autowired
+    @Qualifier("stompBrokerRelayMessageHandler")
+    private AbstractBrokerMessageHandler relay;
+
+    @DynamicPropertySource
+    static void startBroker(DynamicPropertyRegistry registry) throws Exception {
+        int brokerPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            brokerPort = socket.getLocalPort();
+        }
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + brokerPort + "?protocols=STOMP");
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration).start();
+        registry.add("catan.broker.relay.port", () -> brokerPort);
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        broker.stop();
+    }
+
+    //the relay's system session connects in the background, until then client CONNECTs get "Broker not available"
+    @BeforeEach
+    void awaitBroker() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!relay.isBrokerAvailable() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(relay.isBrokerAvailable()).isTrue();
+    }
+
+    @Test
+    void gameTopicIsServedByBroker() throws Exception {
+        StompSession session = connect("gameID");
+        BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        String topic = Constants.TOPIC_GAME_PROGRESS.formatted("gameID");
+        session.subscribe(topic, new StompFrameHandlerClientImpl(messages));
+
+        //the relay connects asynchronously, resend until the subscription is in place
+        String received = null;
+        for (int i = 0; i < 20 && received == null; i++) {
+            simpMessagingTemplate.convertAndSend(topic, "hello");
+            received = messages.poll(500, TimeUnit.MILLISECONDS);
+        }
+        assertThat(received).isEqualTo("hello");
+    }
+
+    @Test
+    void userQueueIsResolvedThroughBroker() throws Exception {
+        String token = UUID.randomUUID().toString();
+        StompSession session = connect("gameID", token);
+        BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        session.subscribe(Constants.FULL_USER_QUEUE_PATH, new StompFrameHandlerClientImpl(messages));
+
+        String received = null;
+        for (int i = 0; i < 20 && received == null; i++) {
+            simpMessagingTemplate.convertAndSendToUser(token, Constants.QUEUE_USER_MESSAGE, "private");
+            received = messages.poll(500, TimeUnit.MILLISECONDS);
+        }
+        assertThat(received).isEqualTo("private");
+    }
+
+    @Test
+    void userRegistryCannotBeSubscribed() throws Exception {
+        StompSession session = connect("gameID");
+        BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        session.subscribe(Constants.TOPIC_USER_REGISTRY, new StompFrameHandlerClientImpl(messages));
+
+        assertThat(messages.poll(3, TimeUnit.SECONDS)).isNull();
+    }
+
+    private StompSession connect(String gameID) throws Exception {
+        return connect(gameID, UUID.randomUUID().toString());
+    }
+
+    private StompSession connect(String gameID, String token) throws Exception {
+        tokenService.pushToken(token, new Player(token, "player", gameID));
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.add(HttpHeaders.AUTHORIZATION, token);
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+        return stompClient.connectAsync("ws://localhost:%d/catan".formatted(port), headers, new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -1,6 +1,7 @@
 package com.group2.catanbackend;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.config.Constants;
 import com.group2.catanbackend.dto.CreateRequestDto;
 import com.group2.catanbackend.dto.JoinRequestDto;
 import com.group2.catanbackend.dto.JoinResponseDto;
@@ -26,11 +27,13 @@ import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = CatanBackendApplication.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, classes = CatanBackendApplication.class,
+        properties = {"catan.ratelimit.enabled=false", "catan.cluster.secret=" + GameControllerTest.CLUSTER_SECRET})
 @AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class GameControllerTest {
     private static final String URLGAMEMOVE = "/catan/game/gamemove";
+    static final String CLUSTER_SECRET = "secret";
     @Autowired
     private MockMvc mockMvc;
 
@@ -47,6 +50,32 @@ public class GameControllerTest {
                 .andExpect(content().string(containsString(response.getGameID())));
     }
 
+    @Test
+    public void testListNotModifiedWhenEtagMatches() throws Exception{
+        gameService.createAndJoin(new CreateRequestDto("Player"));
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/catan/game/list"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/catan/game/list").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        gameService.createAndJoin(new CreateRequestDto("Player2"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/catan/game/list").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testListIsPaginated() throws Exception{
+        for (int i = 0; i < 3; i++) {
+            gameService.createAndJoin(new CreateRequestDto("Player" + i));
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/catan/game/list").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
     @Test
     public void testCannotJoinNotExistingGame() throws Exception {
         JoinRequestDto requestDto = new JoinRequestDto("a", "asdf");
@@ -181,6 +210,16 @@ public class GameControllerTest {
                 .andExpect(status().is(HttpStatus.UNAUTHORIZED.value()));
     }
 
+    @Test
+    void testCostliestGamesNeedClusterSecret() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/catan/monitoring/games"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/catan/monitoring/games").header(Constants.CLUSTER_SECRET_HEADER, "wrong"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(MockMvcRequestBuilders.get("/catan/monitoring/games").header(Constants.CLUSTER_SECRET_HEADER, CLUSTER_SECRET))
+                .andExpect(status().isOk());
+    }
+
     private String toJson(final Object obj){
         try {
             return new ObjectMapper().writeValueAsString(obj);
@@ -0,0 +1,40 @@
+package com.group2.catanbackend.benchmark;
+
+import com.group2.catanbackend.cluster.GameIdAllocator;
+import com.group2.catanbackend.cluster.ShardRing;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game ids per second from the allocator compared to the random UUID prefix used before.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class GameIdBenchmark {
+    private final GameIdAllocator allocator = new GameIdAllocator(
+            new ShardRing("http://localhost:8080,http://localhost:8081", "http://localhost:8080", 128));
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameIdBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Benchmark
+    public String allocator() {
+        return allocator.nextId();
+    }
+
+    @Benchmark
+    public String uuidPrefix() {
+        return UUID.randomUUID().toString().substring(0, 7);
+    }
+}
@@ -0,0 +1,146 @@
+package com.group2.catanbackend.benchmark;
+
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.persistence.OffHeapHibernationStore;
+import com.group2.catanbackend.service.GameHibernator;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move throughput with 100k running games, all of them on the heap compared to only the most recently used ones
+ * resident and the rest hibernated into the off-heap store. Most moves go to a small set of hot games, the others to
+ * any game. Heap usage after a full GC and the GC time of the trial are printed at teardown; add {@code -prof gc}
+ * for the allocation rate.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=256m"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class GameStoreBenchmark {
+    private static final int GAMES = 100_000;
+    private static final int HOT_GAMES = 1_000;
+    private static final int HOT_MOVE_PERCENT = 90;
+
+    @Param({"heap", "off-heap"})
+    String store;
+
+    private final MessagingService messagingService = new SilentMessagingService();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private GameHibernator hibernator;
+    private RunningInstanceService[] games;
+    private List<List<Player>> players;
+    private int[] turnMoves;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        if (store.equals("off-heap"))
+            hibernator = new GameHibernator(new OffHeapHibernationStore(256L * 1024 * 1024), 3600, HOT_GAMES * 2, 3_600_000);
+        games = new RunningInstanceService[GAMES];
+        players = new ArrayList<>(GAMES);
+        turnMoves = new int[GAMES];
+        for (int i = 0; i < GAMES; i++) {
+            String gameId = String.format("%07x", i);
+            List<Player> gamePlayers = players(gameId);
+            RunningInstanceService game = new RunningInstanceService(messagingService, null, hibernator,
+                    GameMetrics.NOOP, GameCostAccounting.DISABLED, GameTracing.NOOP);
+            game.setGameId(gameId);
+            game.addPlayers(gamePlayers);
+            game.start();
+            Player player1 = gamePlayers.get(0);
+            Player player2 = gamePlayers.get(1);
+            game.makeMove(new BuildVillageMoveDto(9), player1);
+            game.makeMove(new BuildRoadMoveDto(12), player1);
+            game.makeMove(new BuildVillageMoveDto(13), player2);
+            game.makeMove(new BuildRoadMoveDto(21), player2);
+            game.makeMove(new BuildVillageMoveDto(22), player2);
+            game.makeMove(new BuildRoadMoveDto(29), player2);
+            game.makeMove(new BuildVillageMoveDto(29), player1);
+            game.makeMove(new BuildRoadMoveDto(36), player1);
+            games[i] = game;
+            players.add(gamePlayers);
+        }
+        //let the hibernator catch up with the evictions scheduled during setup
+        while (hibernator != null && hibernator.getResidentCount() > HOT_GAMES * 2) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long gcMillis = 0;
+        long gcCount = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcMillis += collector.getCollectionTime();
+            gcCount += collector.getCollectionCount();
+        }
+        System.gc();
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.println(store + ": " + heapUsed / (1024 * 1024) + " MB heap after GC, "
+                + gcCount + " collections taking " + gcMillis + " ms"
+                + (hibernator == null ? "" : ", " + hibernator.getResidentCount() + " resident, "
+                + hibernator.getHibernatedCount() + " hibernated"));
+        if (hibernator != null)
+            hibernator.shutdown();
+    }
+
+    /**
+     * A roll or end of turn by the active player of a random game, turns alternate between the two players.
+     */
+    @Benchmark
+    public void move() {
+        int index = random.nextInt(100) < HOT_MOVE_PERCENT ? random.nextInt(HOT_GAMES) : random.nextInt(GAMES);
+        int move = turnMoves[index]++;
+        Player player = players.get(index).get((move / 2) % 2);
+        games[index].makeMove(move % 2 == 0 ? new RollDiceDto(2 + random.nextInt(11)) : new EndTurnMoveDto(), player);
+    }
+
+    private static List<Player> players(String gameId) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(UUID.randomUUID().toString(), "Player" + i, gameId);
+            player.setInGameID(i + 1);
+            players.add(player);
+        }
+        return players;
+    }
+
+    private static class SilentMessagingService extends MessagingService {
+        SilentMessagingService() {
+            super(null, GameMetrics.NOOP, GameTracing.NOOP);
+        }
+
+        @Override
+        public void notifyLobby(String gameID, MessageDto payload) {
+        }
+
+        @Override
+        public void notifyGameProgress(String gameID, MessageDto payload) {
+        }
+
+        @Override
+        public void notifyUser(String token, MessageDto payload) {
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.group2.catanbackend.benchmark;
+
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.persistence.JournaledGame;
+import com.group2.catanbackend.persistence.MoveJournal;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append throughput of the move journal and the time to recover 10k running games after a restart.
+ * Run with {@code main} from the IDE or after {@code mvn test-compile}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JournalBenchmark {
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+    private static final int RECOVERED_GAMES = 10_000;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JournalBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+        @Param({"1", "4"})
+        int shards;
+        @Param({"false", "true"})
+        boolean syncCommit;
+
+        Path directory;
+        MoveJournal journal;
+        String[] gameIds;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            journal = new MoveJournal(directory, shards, SEGMENT_BYTES, 5, syncCommit);
+            gameIds = new String[1024];
+            for (int i = 0; i < gameIds.length; i++) {
+                gameIds[i] = String.format("%07x", i);
+                journal.gameStarted(gameIds[i], i, players(gameIds[i]));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int move;
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void appendMove(AppendState state, Cursor cursor) {
+        int move = cursor.move++;
+        state.journal.moveAccepted(state.gameIds[move & 1023], move, 0, new RollDiceDto(2 + move % 11));
+    }
+
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            try (MoveJournal journal = new MoveJournal(directory, 4, SEGMENT_BYTES, 5, false)) {
+                for (int i = 0; i < RECOVERED_GAMES; i++) {
+                    String gameId = String.format("%07x", i);
+                    List<Player> players = players(gameId);
+                    journal.gameStarted(gameId, i, players);
+                    List<GameMoveDto> moves = legalMoves();
+                    for (int sequence = 0; sequence < moves.size(); sequence++) {
+                        journal.moveAccepted(gameId, sequence, playerOf(sequence), moves.get(sequence));
+                    }
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Reads the journal and replays every game into a fresh RunningInstanceService.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void recover10kGames(RecoveryState state, Blackhole blackhole) throws IOException {
+        MessagingService messagingService = new SilentMessagingService();
+        try (MoveJournal journal = new MoveJournal(state.directory, 4, SEGMENT_BYTES, 5, false)) {
+            for (JournaledGame game : journal.takeRecoveredGames()) {
+                List<Player> players = new ArrayList<>();
+                for (JournaledGame.JournaledPlayer journaledPlayer : game.getPlayers()) {
+                    Player player = new Player(journaledPlayer.getToken(), journaledPlayer.getDisplayName(), game.getGameId());
+                    player.setInGameID(journaledPlayer.getInGameID());
+                    players.add(player);
+                }
+                RunningInstanceService service = new RunningInstanceService(messagingService, journal, null,
+                        GameMetrics.NOOP, GameCostAccounting.DISABLED, GameTracing.NOOP);
+                service.restore(game, players);
+                blackhole.consume(service);
+            }
+        }
+    }
+
+    private static List<Player> players(String gameId) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(UUID.randomUUID().toString(), "Player" + i, gameId);
+            player.setInGameID(i + 1);
+            players.add(player);
+        }
+        return players;
+    }
+
+    //setup phase of two players followed by 16 turns, 40 moves in total
+    private static List<GameMoveDto> legalMoves() {
+        List<GameMoveDto> moves = new ArrayList<>(List.of(
+                new BuildVillageMoveDto(9), new BuildRoadMoveDto(12),
+                new BuildVillageMoveDto(13), new BuildRoadMoveDto(21),
+                new BuildVillageMoveDto(22), new BuildRoadMoveDto(29),
+                new BuildVillageMoveDto(29), new BuildRoadMoveDto(36)));
+        for (int turn = 0; turn < 16; turn++) {
+            moves.add(new RollDiceDto(2 + turn % 11));
+            moves.add(new EndTurnMoveDto());
+        }
+        return moves;
+    }
+
+    private static int playerOf(int sequence) {
+        if (sequence < 8)
+            return sequence < 2 || sequence >= 6 ? 0 : 1;
+        return ((sequence - 8) / 2) % 2;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    //restored games are silent, so nothing is ever sent
+    private static class SilentMessagingService extends MessagingService {
+        SilentMessagingService() {
+            super(null, GameMetrics.NOOP, GameTracing.NOOP);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.group2.catanbackend.benchmark;
+
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a move with the move, state and message timers recording compared to metrics disabled. Messages are
+ * converted to JSON as in production and then dropped, so the comparison includes the broadcast work the timers wrap.
+ * Run with {@code -prof gc} to check that recording does not add to the allocation rate.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+    @Param({"off", "on"})
+    String metrics;
+
+    private RunningInstanceService game;
+    private Player player1;
+    private Player player2;
+    private int move;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MetricsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameMetrics gameMetrics = metrics.equals("on") ? new GameMetrics(new SimpleMeterRegistry()) : GameMetrics.NOOP;
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        MessagingService messagingService = new MessagingService(template, gameMetrics, GameTracing.NOOP);
+
+        String gameId = "metrics";
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(UUID.randomUUID().toString(), "Player" + i, gameId);
+            player.setInGameID(i + 1);
+            players.add(player);
+        }
+        player1 = players.get(0);
+        player2 = players.get(1);
+        game = new RunningInstanceService(messagingService, null, null,
+                gameMetrics, GameCostAccounting.DISABLED, GameTracing.NOOP);
+        game.setGameId(gameId);
+        game.addPlayers(players);
+        game.start();
+        game.makeMove(new BuildVillageMoveDto(9), player1);
+        game.makeMove(new BuildRoadMoveDto(12), player1);
+        game.makeMove(new BuildVillageMoveDto(13), player2);
+        game.makeMove(new BuildRoadMoveDto(21), player2);
+        game.makeMove(new BuildVillageMoveDto(22), player2);
+        game.makeMove(new BuildRoadMoveDto(29), player2);
+        game.makeMove(new BuildVillageMoveDto(29), player1);
+        game.makeMove(new BuildRoadMoveDto(36), player1);
+    }
+
+    /**
+     * Alternating rolls and ends of turn, each sends the game state and a progress message.
+     */
+    @Benchmark
+    public void move() {
+        int current = move++;
+        Player player = (current / 2) % 2 == 0 ? player1 : player2;
+        game.makeMove(current % 2 == 0 ? new RollDiceDto(2 + current % 11) : new EndTurnMoveDto(), player);
+    }
+
+    /**
+     * A rejected move sends nothing, so the timers make up a larger share of it.
+     */
+    @Benchmark
+    public void rejectedMove() {
+        try {
+            game.makeMove(new RollDiceDto(1), player1);
+        } catch (RuntimeException e) {
+            //expected
+        }
+    }
+}
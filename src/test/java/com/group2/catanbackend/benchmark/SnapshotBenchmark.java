@@ -0,0 +1,109 @@
+package com.group2.catanbackend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.gamelogic.GameStateCodec;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.service.MessagingService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of the binary game snapshot compared to serializing the CurrentGameStateDto with Jackson.
+ * The sizes of both are printed at setup.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MessagingService messagingService = new SilentMessagingService();
+    private List<Player> players;
+    private GameLogicController game;
+    private ByteBuffer snapshotBuffer;
+    private ByteBuffer snapshot;
+    private byte[] json;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SnapshotBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(UUID.randomUUID().toString(), "Player" + i, "bench");
+            player.setInGameID(i + 1);
+            players.add(player);
+        }
+        game = new GameLogicController(players, messagingService, "bench", 42L, false);
+        Player player1 = players.get(0);
+        Player player2 = players.get(1);
+        game.makeMove(new BuildVillageMoveDto(9), player1);
+        game.makeMove(new BuildRoadMoveDto(12), player1);
+        game.makeMove(new BuildVillageMoveDto(13), player2);
+        game.makeMove(new BuildRoadMoveDto(21), player2);
+        game.makeMove(new BuildVillageMoveDto(22), player2);
+        game.makeMove(new BuildRoadMoveDto(29), player2);
+        game.makeMove(new BuildVillageMoveDto(29), player1);
+        game.makeMove(new BuildRoadMoveDto(36), player1);
+        for (int roll = 2; roll <= 12; roll++) {
+            game.makeMove(new RollDiceDto(roll), player1);
+        }
+
+        snapshotBuffer = ByteBuffer.allocate(GameStateCodec.MAX_ENCODED_BYTES);
+        GameStateCodec.encode(game, snapshotBuffer);
+        snapshot = ByteBuffer.allocate(snapshotBuffer.position()).put(snapshotBuffer.flip());
+        json = mapper.writeValueAsBytes(game.getCurrentGameState());
+        System.out.println("snapshot: " + snapshot.capacity() + " bytes, CurrentGameStateDto as JSON: " + json.length + " bytes");
+    }
+
+    @Benchmark
+    public ByteBuffer encodeSnapshot() {
+        snapshotBuffer.clear();
+        GameStateCodec.encode(game, snapshotBuffer);
+        return snapshotBuffer;
+    }
+
+    @Benchmark
+    public GameLogicController decodeSnapshot() {
+        snapshot.rewind();
+        return GameStateCodec.decode(snapshot, players, messagingService, "bench");
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(game.getCurrentGameState());
+    }
+
+    @Benchmark
+    public CurrentGameStateDto deserializeJson() throws IOException {
+        return mapper.readValue(json, CurrentGameStateDto.class);
+    }
+
+    private static class SilentMessagingService extends MessagingService {
+        SilentMessagingService() {
+            super(null, GameMetrics.NOOP, GameTracing.NOOP);
+        }
+
+        @Override
+        public void notifyGameProgress(String gameID, MessageDto payload) {
+        }
+    }
+}
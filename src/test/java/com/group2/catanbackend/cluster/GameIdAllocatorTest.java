@@ -0,0 +1,72 @@
+package com.group2.catanbackend.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameIdAllocatorTest {
+
+    @Test
+    void idsAreShortAndUrlSafe() {
+        GameIdAllocator allocator = new GameIdAllocator(new ShardRing());
+        for (int i = 0; i < 1000; i++) {
+            String id = allocator.nextId();
+            assertEquals(GameIdAllocator.ID_LENGTH, id.length());
+            assertTrue(id.matches("[0-9a-f]{2}[0-9a-hjkmnp-tv-z]{8}"), id);
+        }
+    }
+
+    @Test
+    void idsDoNotRepeat() {
+        GameIdAllocator allocator = new GameIdAllocator(new ShardRing(), 0);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            assertTrue(ids.add(allocator.nextId()));
+        }
+    }
+
+    @Test
+    void idsDoNotRepeatAcrossCounterWrap() {
+        //the counter is masked to 40 bits, ids only repeat after a full cycle
+        GameIdAllocator allocator = new GameIdAllocator(new ShardRing(), (1L << 40) - 500);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ids.add(allocator.nextId()));
+        }
+    }
+
+    @Test
+    void idsDoNotRepeatAcrossThreads() throws InterruptedException {
+        GameIdAllocator allocator = new GameIdAllocator(new ShardRing());
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    ids.add(allocator.nextId());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, ids.size());
+    }
+
+    @Test
+    void idsBelongToLocalShards() {
+        String nodes = "http://localhost:8080,http://localhost:8081";
+        ShardRing ring = new ShardRing(nodes, "http://localhost:8081", 128);
+        GameIdAllocator allocator = new GameIdAllocator(ring);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ring.isLocal(allocator.nextId()));
+        }
+    }
+}
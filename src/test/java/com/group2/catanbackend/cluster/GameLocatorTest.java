@@ -0,0 +1,60 @@
+package com.group2.catanbackend.cluster;
+
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.persistence.FileGameRegistry;
+import com.group2.catanbackend.service.GameFixtures;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLocatorTest {
+    private static final String NODE_1 = "http://localhost:8080";
+    private static final String NODE_2 = "http://localhost:8081";
+    private static final String NODE_3 = "http://localhost:8082";
+    private static final String THREE_NODES = NODE_1 + "," + NODE_2 + "," + NODE_3;
+
+    @TempDir
+    Path directory;
+
+    private final MessagingService messagingService = Mockito.mock(MessagingService.class);
+
+    @Test
+    void gameIsLocatedOnNodeOfItsShard() throws IOException {
+        GameLocator locator = new GameLocator(new FileGameRegistry(directory, NODE_3), new ShardRing(THREE_NODES, NODE_3, 128));
+        String gameId = new GameIdAllocator(new ShardRing(THREE_NODES, NODE_1, 128)).nextId();
+        String token = ShardRing.withShardOf("00000000-0000-0000-0000-000000000000", gameId);
+
+        assertEquals(NODE_1, locator.ownerOfGame(gameId));
+        assertEquals(NODE_1, locator.ownerOfToken(token));
+        assertFalse(locator.isSelf(NODE_1));
+        assertTrue(locator.isSelf(NODE_3));
+    }
+
+    @Test
+    void handedOverGameIsLocatedOnItsNewNode() throws IOException {
+        FileGameRegistry source = new FileGameRegistry(directory, NODE_1);
+        FileGameRegistry target = new FileGameRegistry(directory, NODE_2);
+        GameLocator sourceLocator = new GameLocator(source, new ShardRing(THREE_NODES, NODE_1, 128));
+        GameLocator otherLocator = new GameLocator(new FileGameRegistry(directory, NODE_3), new ShardRing(THREE_NODES, NODE_3, 128));
+        String gameId = new GameIdAllocator(new ShardRing(THREE_NODES, NODE_1, 128)).nextId();
+        List<Player> players = GameFixtures.players(gameId);
+        RunningInstanceService game = GameFixtures.start(GameFixtures.newGame(messagingService), gameId, players);
+        source.getRunningGames().put(gameId, game);
+
+        game.handOver(NODE_2, handover -> target.getRunningGames().put(gameId,
+                GameFixtures.start(GameFixtures.newGame(messagingService), gameId, players)));
+
+        for (GameLocator locator : List.of(sourceLocator, otherLocator)) {
+            assertEquals(NODE_2, locator.ownerOfGame(gameId));
+            assertEquals(NODE_2, locator.ownerOfToken(players.get(0).getToken()));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.group2.catanbackend.cluster;
+
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.GameFixtures;
+import com.group2.catanbackend.service.GameService;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import com.group2.catanbackend.service.TokenService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hands games over to a running node through its cluster endpoint. The node under test is the receiving one; the
+ * sending node is a {@link GameMigrator} with a game of its own, optionally talking through a proxy that delays
+ * the handover or its answer beyond the handover timeout.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"catan.ratelimit.enabled=false", "catan.cluster.secret=" + GameMigrationIntegrationTest.SECRET})
+class GameMigrationIntegrationTest {
+    static final String SECRET = "secret";
+    //generous, the node has to adopt the game before the handover times out for the lost answer to be confirmed
+    private static final long TIMEOUT_MILLIS = 2000;
+    private static final long DELAY_MILLIS = 2 * TIMEOUT_MILLIS;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final MessagingService messagingService = Mockito.mock(MessagingService.class);
+    private final GameMigrator migrator = new GameMigrator(Mockito.mock(GameService.class), SECRET, 1, TIMEOUT_MILLIS);
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ExecutorService proxyThreads = Executors.newCachedThreadPool();
+    private HttpServer proxy;
+    private volatile long handoverDelayMillis;
+    private volatile long answerDelayMillis;
+    //status the node answered a delayed handover with
+    private final CompletableFuture<Integer> delayedHandover = new CompletableFuture<>();
+
+    @BeforeEach
+    void startProxy() throws IOException {
+        proxy = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        proxy.createContext("/", this::forward);
+        proxy.setExecutor(proxyThreads);
+        proxy.start();
+    }
+
+    @AfterEach
+    void stopProxy() {
+        proxy.stop(0);
+        proxyThreads.shutdownNow();
+    }
+
+    @Test
+    void handedOverGameRunsOnNode() {
+        List<Player> players = GameFixtures.players("migrated1");
+        RunningInstanceService source = startGame("migrated1", players);
+
+        migrator.migrate(source, nodeUrl());
+
+        assertEquals(nodeUrl(), source.getMovedTo());
+        RunningInstanceService adopted = gameService.getRunningGames().get("migrated1");
+        assertNotNull(adopted);
+        assertNotNull(adopted.getHandoverId());
+        assertEquals("migrated1", tokenService.getPlayerByToken(players.get(0).getToken()).getGameID());
+    }
+
+    @Test
+    void lostAnswerIsConfirmedByNode() {
+        RunningInstanceService source = startGame("migrated2", GameFixtures.players("migrated2"));
+        answerDelayMillis = DELAY_MILLIS;
+
+        migrator.migrate(source, proxyUrl());
+
+        assertEquals(proxyUrl(), source.getMovedTo());
+        assertTrue(gameService.getRunningGames().containsKey("migrated2"));
+    }
+
+    @Test
+    void handoverArrivingAfterTimeoutIsRefused() throws Exception {
+        RunningInstanceService source = startGame("migrated3", GameFixtures.players("migrated3"));
+        handoverDelayMillis = DELAY_MILLIS;
+
+        assertThrows(UncheckedIOException.class, () -> migrator.migrate(source, proxyUrl()));
+
+        assertNull(source.getMovedTo());
+        assertEquals(400, delayedHandover.get(DELAY_MILLIS + 5000, TimeUnit.MILLISECONDS));
+        assertFalse(gameService.getRunningGames().containsKey("migrated3"));
+    }
+
+    private RunningInstanceService startGame(String gameId, List<Player> players) {
+        return GameFixtures.start(GameFixtures.newGame(messagingService), gameId, players);
+    }
+
+    private String nodeUrl() {
+        return "http://localhost:" + port;
+    }
+
+    private String proxyUrl() {
+        return "http://localhost:" + proxy.getAddress().getPort();
+    }
+
+    //passes requests on to the node, holding back handovers or their answers as configured
+    private void forward(HttpExchange exchange) throws IOException {
+        boolean handover = exchange.getRequestURI().getPath().equals(Constants.CLUSTER_PATH + Constants.CLUSTER_GAMES_PATH);
+        try (exchange) {
+            if (handover)
+                sleep(handoverDelayMillis);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(nodeUrl() + exchange.getRequestURI()))
+                    .method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.ofByteArray(exchange.getRequestBody().readAllBytes()));
+            for (String header : List.of(HttpHeaders.CONTENT_TYPE, Constants.CLUSTER_SECRET_HEADER, Constants.CLUSTER_HANDOVER_HEADER)) {
+                String value = exchange.getRequestHeaders().getFirst(header);
+                if (value != null)
+                    request.header(header, value);
+            }
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (handover && handoverDelayMillis > 0)
+                delayedHandover.complete(response.statusCode());
+            if (handover)
+                sleep(answerDelayMillis);
+            exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response.body());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0)
+            Thread.sleep(millis);
+    }
+}
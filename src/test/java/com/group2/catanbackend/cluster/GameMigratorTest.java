@@ -0,0 +1,28 @@
+package com.group2.catanbackend.cluster;
+
+import com.group2.catanbackend.exception.NotAuthorizedException;
+import com.group2.catanbackend.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMigratorTest {
+    private final GameService gameService = Mockito.mock(GameService.class);
+
+    @Test
+    void clusterRequestsNeedTheSecret() {
+        GameMigrator migrator = new GameMigrator(gameService, "secret", 1, 1000);
+
+        assertDoesNotThrow(() -> migrator.checkSecret("secret"));
+        assertThrows(NotAuthorizedException.class, () -> migrator.checkSecret("wrong"));
+        assertThrows(NotAuthorizedException.class, () -> migrator.checkSecret(null));
+    }
+
+    @Test
+    void clusterRequestsAreRefusedWithoutConfiguredSecret() {
+        GameMigrator migrator = new GameMigrator(gameService, "", 1, 1000);
+
+        assertThrows(NotAuthorizedException.class, () -> migrator.checkSecret(""));
+    }
+}
@@ -0,0 +1,91 @@
+package com.group2.catanbackend.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRingTest {
+    private static final String NODE_1 = "http://localhost:8080";
+    private static final String NODE_2 = "http://localhost:8081";
+    private static final String NODE_3 = "http://localhost:8082";
+    private static final String THREE_NODES = NODE_1 + "," + NODE_2 + "," + NODE_3;
+
+    private static String idOfShard(int shard) {
+        return String.format("%02x00000", shard);
+    }
+
+    @Test
+    void singleNodeOwnsEveryShard() {
+        ShardRing ring = new ShardRing("", NODE_1, 128);
+
+        assertFalse(ring.isClustered());
+        for (int shard = 0; shard < ShardRing.SHARDS; shard++) {
+            assertTrue(ring.isLocal(idOfShard(shard)));
+        }
+        assertEquals(0, ring.localShard(0));
+        assertEquals(ShardRing.SHARDS - 1, ring.localShard(-1));
+    }
+
+    @Test
+    void nodesAgreeOnOwners() {
+        List<ShardRing> rings = List.of(new ShardRing(THREE_NODES, NODE_1, 128),
+                new ShardRing(THREE_NODES, NODE_2, 128), new ShardRing(THREE_NODES, NODE_3, 128));
+        Map<String, Integer> shardsPerNode = new HashMap<>();
+        for (int shard = 0; shard < ShardRing.SHARDS; shard++) {
+            String id = idOfShard(shard);
+            String owner = rings.get(0).ownerOf(id);
+            shardsPerNode.merge(owner, 1, Integer::sum);
+            long localOn = rings.stream().filter(ring -> ring.isLocal(id)).count();
+            assertEquals(1, localOn);
+            for (ShardRing ring : rings) {
+                assertEquals(owner, ring.ownerOf(id));
+            }
+        }
+        assertEquals(3, shardsPerNode.size());
+        shardsPerNode.values().forEach(shards -> assertTrue(shards > 30, "unbalanced ring " + shardsPerNode));
+    }
+
+    @Test
+    void localShardsAreOwnedByNode() {
+        ShardRing node1 = new ShardRing(THREE_NODES, NODE_1, 128);
+        ShardRing node2 = new ShardRing(THREE_NODES, NODE_2, 128);
+        for (int i = 0; i < 100; i++) {
+            String gameId = idOfShard(node2.localShard(i));
+            assertTrue(node2.isLocal(gameId));
+            assertFalse(node1.isLocal(gameId));
+            assertEquals(NODE_2, node1.ownerOf(gameId));
+        }
+    }
+
+    @Test
+    void addingNodeOnlyMovesShardsToIt() {
+        ShardRing before = new ShardRing(NODE_1 + "," + NODE_2, NODE_1, 128);
+        ShardRing after = new ShardRing(THREE_NODES, NODE_1, 128);
+        for (int shard = 0; shard < ShardRing.SHARDS; shard++) {
+            String id = idOfShard(shard);
+            if (!before.ownerOf(id).equals(after.ownerOf(id)))
+                assertEquals(NODE_3, after.ownerOf(id));
+        }
+    }
+
+    @Test
+    void tokenIsRoutedLikeItsGame() {
+        ShardRing ring = new ShardRing(THREE_NODES, NODE_1, 128);
+        String gameId = idOfShard(new ShardRing(THREE_NODES, NODE_3, 128).localShard(7));
+        String token = ShardRing.withShardOf(UUID.randomUUID().toString(), gameId);
+
+        assertEquals(UUID.fromString(token).toString(), token);
+        assertEquals(NODE_3, ring.ownerOf(token));
+        assertEquals("myToken", ShardRing.withShardOf("myToken", gameId));
+    }
+
+    @Test
+    void selfMustBeClusterNode() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(NODE_1 + "," + NODE_2, NODE_3, 128));
+    }
+}
@@ -0,0 +1,65 @@
+package com.group2.catanbackend.config;
+
+import com.group2.catanbackend.service.RateLimits;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+    private static final byte[] BODY = "{\"statusCode\":429}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimits rateLimits = new RateLimits(true, 1, 2, 1, 1, 1024);
+    private final RateLimitInterceptor moves = new RateLimitInterceptor(
+            request -> rateLimits.allowMove(request.getHeader(HttpHeaders.AUTHORIZATION)), rateLimits.getMoves(), BODY);
+
+    private static MockHttpServletRequest move(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", Constants.GAME_PATH + "/gamemove");
+        if (token != null)
+            request.addHeader(HttpHeaders.AUTHORIZATION, token);
+        return request;
+    }
+
+    @Test
+    void testMovesOverTheLimitAreAnsweredWith429() throws Exception {
+        assertTrue(moves.preHandle(move("token"), new MockHttpServletResponse(), null));
+        assertTrue(moves.preHandle(move("token"), new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(moves.preHandle(move("token"), response, null));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+
+        assertTrue(moves.preHandle(move("other"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testRequestsWithoutTokenAreLeftToTheController() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(moves.preHandle(move(null), new MockHttpServletResponse(), null));
+        }
+    }
+
+    @Test
+    void testLobbiesAreLimitedPerAddress() {
+        assertTrue(rateLimits.allowLobby("10.0.0.1"));
+        assertFalse(rateLimits.allowLobby("10.0.0.1"));
+        assertTrue(rateLimits.allowLobby("10.0.0.2"));
+    }
+
+    @Test
+    void testDisabledLimitsAllowEverything() {
+        RateLimits disabled = new RateLimits(false, 1, 1, 1, 1, 16);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(disabled.allowMove("token"));
+            assertTrue(disabled.allowLobby("10.0.0.1"));
+        }
+        assertEquals(0, disabled.getMoves().getRejected());
+    }
+}
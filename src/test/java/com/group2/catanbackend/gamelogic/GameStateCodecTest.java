@@ -0,0 +1,110 @@
+package com.group2.catanbackend.gamelogic;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.exception.InvalidGameMoveException;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.MessagingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GameStateCodecTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private MessagingService messagingService;
+    private List<Player> players;
+    private GameLogicController game;
+
+    @BeforeEach
+    void setUp() {
+        messagingService = mock(MessagingService.class);
+        players = players();
+        game = new GameLogicController(players, messagingService, "this", 42L, false);
+        Player player1 = players.get(0);
+        Player player2 = players.get(1);
+        game.makeMove(new BuildVillageMoveDto(9), player1);
+        game.makeMove(new BuildRoadMoveDto(12), player1);
+        game.makeMove(new BuildVillageMoveDto(13), player2);
+        game.makeMove(new BuildRoadMoveDto(21), player2);
+        game.makeMove(new BuildVillageMoveDto(22), player2);
+        game.makeMove(new BuildRoadMoveDto(29), player2);
+        game.makeMove(new BuildVillageMoveDto(29), player1);
+        game.makeMove(new BuildRoadMoveDto(36), player1);
+        for (int roll = 2; roll <= 12; roll++) {
+            game.makeMove(new RollDiceDto(roll), player1);
+        }
+        game.makeMove(new EndTurnMoveDto(), player1);
+    }
+
+    private static List<Player> players() {
+        List<Player> players = new ArrayList<>();
+        Player player1 = new Player("Token1", "Player One(1)", "this");
+        player1.setInGameID(1);
+        Player player2 = new Player("Token2", "Player Two(2)", "this");
+        player2.setInGameID(2);
+        players.add(player1);
+        players.add(player2);
+        return players;
+    }
+
+    private GameLogicController roundTrip(List<Player> decodedPlayers) {
+        ByteBuffer buffer = ByteBuffer.allocate(GameStateCodec.MAX_ENCODED_BYTES);
+        GameStateCodec.encode(game, buffer);
+        buffer.flip();
+        GameLogicController decoded = GameStateCodec.decode(buffer, decodedPlayers, messagingService, "this");
+        assertFalse(buffer.hasRemaining());
+        return decoded;
+    }
+
+    private String json(GameLogicController controller) throws JsonProcessingException {
+        return mapper.writeValueAsString(controller.getCurrentGameState());
+    }
+
+    @Test
+    void decodedStateEqualsTheOriginal() throws JsonProcessingException {
+        GameLogicController decoded = roundTrip(players());
+
+        assertEquals(json(game), json(decoded));
+        assertEquals(game.getBoard().getSeed(), decoded.getBoard().getSeed());
+        assertFalse(decoded.isSetupPhase());
+    }
+
+    @Test
+    void decodedGameContinuesLikeTheOriginal() throws JsonProcessingException {
+        List<Player> decodedPlayers = players();
+        GameLogicController decoded = roundTrip(decodedPlayers);
+
+        for (int roll = 2; roll <= 12; roll++) {
+            game.makeMove(new RollDiceDto(roll), players.get(1));
+            decoded.makeMove(new RollDiceDto(roll), decodedPlayers.get(1));
+        }
+        assertEquals(json(game), json(decoded));
+        assertThrows(InvalidGameMoveException.class, () -> decoded.makeMove(new BuildVillageMoveDto(13), decodedPlayers.get(1)));
+    }
+
+    @Test
+    void snapshotIsCompact() throws JsonProcessingException {
+        ByteBuffer buffer = ByteBuffer.allocate(GameStateCodec.MAX_ENCODED_BYTES);
+        GameStateCodec.encode(game, buffer);
+
+        assertTrue(buffer.position() < 512);
+        assertTrue(buffer.position() * 10 < mapper.writeValueAsBytes(game.getCurrentGameState()).length);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(GameStateCodec.MAX_ENCODED_BYTES);
+        GameStateCodec.encode(game, buffer);
+        buffer.put(0, (byte) (GameStateCodec.VERSION + 1));
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(buffer, players(), messagingService, "this"));
+    }
+}
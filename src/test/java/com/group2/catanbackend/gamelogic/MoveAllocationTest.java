@@ -0,0 +1,204 @@
+package com.group2.catanbackend.gamelogic;
+
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.service.MessagingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated on the current thread per move, per game state and per dice distribution, checked against budgets
+ * so that new garbage on the move path fails the build. Budgets are about 1.5 times what was measured when they were
+ * set; lower them when the code gets leaner.
+ * <p>
+ * Messages are dropped before conversion, so the budgets cover the game logic and the DTOs it builds, not JSON.
+ * Each operation runs in many rounds and the leanest one is checked, as the interpreter allocates where compiled code
+ * does not.
+ */
+class MoveAllocationTest {
+    private static final int ROUNDS = 20;
+    private static final int RUNS_PER_ROUND = 1_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final MessagingService messagingService = new MessagingService(null, GameMetrics.NOOP, GameTracing.NOOP) {
+        @Override
+        public void notifyGameProgress(String gameID, MessageDto payload) {
+        }
+
+        @Override
+        public void notifyUser(String token, MessageDto payload) {
+        }
+    };
+    private Player player1;
+    private Player player2;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled());
+    }
+
+    private GameLogicController newGame() {
+        player1 = new Player("Token1", "Player One", "game");
+        player1.setInGameID(1);
+        player2 = new Player("Token2", "Player Two", "game");
+        player2.setInGameID(2);
+        return new GameLogicController(new ArrayList<>(List.of(player1, player2)), messagingService, "game", 42, false);
+    }
+
+    private GameLogicController newGameAfterSetup() {
+        GameLogicController game = newGame();
+        game.makeMove(new BuildVillageMoveDto(9), player1);
+        game.makeMove(new BuildRoadMoveDto(12), player1);
+        game.makeMove(new BuildVillageMoveDto(13), player2);
+        game.makeMove(new BuildRoadMoveDto(21), player2);
+        game.makeMove(new BuildVillageMoveDto(22), player2);
+        game.makeMove(new BuildRoadMoveDto(29), player2);
+        game.makeMove(new BuildVillageMoveDto(29), player1);
+        game.makeMove(new BuildRoadMoveDto(36), player1);
+        return game;
+    }
+
+    /**
+     * Bytes allocated by the measured part of the i-th run of an operation.
+     */
+    @FunctionalInterface
+    private interface Allocation {
+        long measure(int i);
+    }
+
+    /**
+     * Runs the operation in rounds on a thread of its own, so the depth of the stack, which the stack traces of
+     * exceptions depend on, does not change with the test runner. The leanest round counts: the first ones run before
+     * the JIT compiled the operation, and compilations in between can disturb any round.
+     */
+    private static long bytesPerRun(Allocation allocation) throws Exception {
+        FutureTask<Long> task = new FutureTask<>(() -> {
+            long leanest = Long.MAX_VALUE;
+            int i = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long allocated = 0;
+                for (int run = 0; run < RUNS_PER_ROUND; run++)
+                    allocated += allocation.measure(i++);
+                leanest = Math.min(leanest, allocated / RUNS_PER_ROUND);
+            }
+            return leanest;
+        });
+        Thread thread = new Thread(task, "move-allocation");
+        thread.start();
+        return task.get(2, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Alternates rolls and ends of turn and measures only the moves of the given type, from the moment the DTO was
+     * created until the move and its messages were done.
+     */
+    private long bytesPerTurnMove(boolean roll) throws Exception {
+        GameLogicController game = newGameAfterSetup();
+        return bytesPerRun(i -> {
+            Player player = i % 2 == 0 ? player1 : player2;
+            GameMoveDto rollMove = new RollDiceDto(2 + i % 11);
+            GameMoveDto endMove = new EndTurnMoveDto();
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            game.makeMove(rollMove, player);
+            long afterRoll = THREADS.getCurrentThreadAllocatedBytes();
+            game.makeMove(endMove, player);
+            long afterEnd = THREADS.getCurrentThreadAllocatedBytes();
+            return roll ? afterRoll - before : afterEnd - afterRoll;
+        });
+    }
+
+    /**
+     * Builds on a fresh game each time, as every place can only be built on once.
+     */
+    private long bytesPerSetupMove(boolean village) throws Exception {
+        return bytesPerRun(i -> {
+            GameLogicController game = newGame();
+            GameMoveDto villageMove = new BuildVillageMoveDto(9);
+            GameMoveDto roadMove = new BuildRoadMoveDto(12);
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            game.makeMove(villageMove, player1);
+            long afterVillage = THREADS.getCurrentThreadAllocatedBytes();
+            game.makeMove(roadMove, player1);
+            long afterRoad = THREADS.getCurrentThreadAllocatedBytes();
+            return village ? afterVillage - before : afterRoad - afterVillage;
+        });
+    }
+
+    private static void assertWithinBudget(long budget, long measured, String operation) {
+        assertTrue(measured <= budget, operation + " allocated " + measured + " bytes, the budget is " + budget);
+    }
+
+    //every move sends the game state, which makes up most of its allocations
+    @Test
+    void testRollDiceMove() throws Exception {
+        assertWithinBudget(36_000, bytesPerTurnMove(true), "Roll dice move");
+    }
+
+    @Test
+    void testEndTurnMove() throws Exception {
+        assertWithinBudget(36_000, bytesPerTurnMove(false), "End turn move");
+    }
+
+    @Test
+    void testBuildVillageMove() throws Exception {
+        assertWithinBudget(36_000, bytesPerSetupMove(true), "Build village move");
+    }
+
+    @Test
+    void testBuildRoadMove() throws Exception {
+        assertWithinBudget(36_000, bytesPerSetupMove(false), "Build road move");
+    }
+
+    @Test
+    void testRejectedMove() throws Exception {
+        GameLogicController game = newGameAfterSetup();
+        long allocated = bytesPerRun(i -> {
+            GameMoveDto move = new EndTurnMoveDto();
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            try {
+                game.makeMove(move, player2);
+            } catch (RuntimeException e) {
+                return THREADS.getCurrentThreadAllocatedBytes() - before;
+            }
+            throw new AssertionError("Ending the turn of the other player was accepted");
+        });
+        assertWithinBudget(2_000, allocated, "Rejected move");
+    }
+
+    @Test
+    void testGameState() throws Exception {
+        GameLogicController game = newGameAfterSetup();
+        long allocated = bytesPerRun(i -> {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            CurrentGameStateDto state = game.getCurrentGameState();
+            long after = THREADS.getCurrentThreadAllocatedBytes();
+            assertNotNull(state);
+            return after - before;
+        });
+        assertWithinBudget(36_000, allocated, "Game state");
+    }
+
+    //handing out resources only changes counters
+    @Test
+    void testDiceDistribution() throws Exception {
+        Board board = newGameAfterSetup().getBoard();
+        long allocated = bytesPerRun(i -> {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            board.distributeResourcesByDiceRoll(2 + i % 11);
+            return THREADS.getCurrentThreadAllocatedBytes() - before;
+        });
+        assertWithinBudget(0, allocated, "Dice distribution");
+    }
+}
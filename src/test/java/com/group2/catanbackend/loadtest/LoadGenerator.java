@@ -0,0 +1,127 @@
+package com.group2.catanbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays legal games against a running server with many simulated players and reports throughput, the latency until
+ * the players receive the result of a move, and errors.
+ * <p>
+ * Run against a local server with e.g.
+ * {@code --url=http://localhost:8080 --players=200 --duration-s=120 --think-ms=100 --moves=stomp}.
+ * All players share one address, so start the server with {@code --catan.ratelimit.enabled=false}.
+ * Every pair of players plays one game after the other; the games start spread over the ramp-up time.
+ * <p>
+ * The CPU of the server is sampled from its actuator once a second and reported as cores and as CPU time per
+ * delivered message, which compares the fan-out cost of the simple broker and the broker relay.
+ */
+public class LoadGenerator {
+
+    public static class Options {
+        String url = "http://localhost:8080";
+        int players = 20;
+        int durationSeconds = 60;
+        int rampUpSeconds = 5;
+        //pause of a game between two moves
+        long thinkMillis = 100;
+        //turns per game after the setup phase, each is a roll and an end of turn
+        int turns = 20;
+        //moves are sent over STOMP unless set, the lobby is always handled over REST
+        boolean restMoves = false;
+        long timeoutMillis = 5000;
+        int reportSeconds = 10;
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("="))
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            Options options = new Options();
+            options.url = values.getOrDefault("url", options.url).replaceAll("/$", "");
+            options.players = Integer.parseInt(values.getOrDefault("players", String.valueOf(options.players)));
+            options.durationSeconds = Integer.parseInt(values.getOrDefault("duration-s", String.valueOf(options.durationSeconds)));
+            options.rampUpSeconds = Integer.parseInt(values.getOrDefault("ramp-up-s", String.valueOf(options.rampUpSeconds)));
+            options.thinkMillis = Long.parseLong(values.getOrDefault("think-ms", String.valueOf(options.thinkMillis)));
+            options.turns = Integer.parseInt(values.getOrDefault("turns", String.valueOf(options.turns)));
+            options.restMoves = values.getOrDefault("moves", "stomp").equals("rest");
+            options.timeoutMillis = Long.parseLong(values.getOrDefault("timeout-ms", String.valueOf(options.timeoutMillis)));
+            options.reportSeconds = Integer.parseInt(values.getOrDefault("report-s", String.valueOf(options.reportSeconds)));
+            if (options.players < 2 || options.players % 2 != 0)
+                throw new IllegalArgumentException("players must be an even number of at least 2");
+            return options;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options = Options.parse(args);
+        LoadStats stats = run(options, System.out);
+        System.exit(stats.getErrors() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Runs the load until the duration is over and every game finished its current move.
+     */
+    public static LoadStats run(Options options, PrintStream out) throws InterruptedException {
+        int games = options.players / 2;
+        out.printf("%d players in %d games against %s for %d s, %d ms between moves, moves over %s%n", options.players,
+                games, options.url, options.durationSeconds, options.thinkMillis, options.restMoves ? "REST" : "STOMP");
+        LoadStats stats = new LoadStats();
+        RestTemplate rest = new RestTemplate();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        ExecutorService players = Executors.newFixedThreadPool(games);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (int i = 0; i < games; i++) {
+                long delay = games == 1 ? 0 : TimeUnit.SECONDS.toMillis(options.rampUpSeconds) * i / games;
+                SimulatedGame game = new SimulatedGame(options, stats, rest, stompClient, "load" + i, deadline);
+                scheduler.schedule(() -> players.execute(game), delay, TimeUnit.MILLISECONDS);
+            }
+            scheduler.scheduleAtFixedRate(() -> stats.printInterval(out), options.reportSeconds, options.reportSeconds, TimeUnit.SECONDS);
+            scheduler.scheduleAtFixedRate(() -> sampleServerCpu(rest, options.url, stats), 1, 1, TimeUnit.SECONDS);
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            scheduler.shutdownNow();
+            players.shutdown();
+            //games stop after their current move, which takes at most the timeout
+            if (!players.awaitTermination(2 * options.timeoutMillis + options.thinkMillis, TimeUnit.MILLISECONDS))
+                players.shutdownNow();
+        } finally {
+            scheduler.shutdownNow();
+            players.shutdownNow();
+        }
+        stats.printSummary(out);
+        return stats;
+    }
+
+    //process.cpu.usage is a share of all cores of the machine, a server without the metrics endpoint is not sampled
+    private static void sampleServerCpu(RestTemplate rest, String url, LoadStats stats) {
+        try {
+            double usage = metric(rest, url, "process.cpu.usage");
+            double cores = metric(rest, url, "system.cpu.count");
+            stats.serverCpuSampled(usage * cores);
+        } catch (RestClientException | NullPointerException e) {
+            //leaves the server cpu out of the summary
+        }
+    }
+
+    private static double metric(RestTemplate rest, String url, String name) {
+        JsonNode metric = rest.getForObject(url + "/actuator/metrics/" + name, JsonNode.class);
+        return metric.get("measurements").get(0).get("value").asDouble();
+    }
+}
@@ -0,0 +1,38 @@
+package com.group2.catanbackend.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "catan.ratelimit.enabled=false")
+class LoadGeneratorIntegrationTest {
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testSimulatedPlayersPlayLegalGames() throws Exception {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[]{"--url=http://localhost:" + port,
+                "--players=4", "--duration-s=3", "--ramp-up-s=0", "--think-ms=0", "--turns=3"});
+
+        LoadStats stats = LoadGenerator.run(options, new PrintStream(OutputStream.nullOutputStream()));
+
+        assertTrue(stats.getGamesCompleted() > 0);
+        assertEquals(0, stats.getErrors());
+        //the mover waits for its own copy of the state, the other player's copy may still be on its way at the end
+        assertTrue(stats.getDeliveries() >= stats.getMovesAccepted());
+    }
+
+    @Test
+    void testOptionsAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[]{"--players=3"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[]{"players=4"}));
+    }
+}
@@ -0,0 +1,125 @@
+package com.group2.catanbackend.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and delivery latencies of a load run, shared by all simulated games.
+ * <p>
+ * Delivery latency is the time from sending a move until a player received the game state the move produced, it is
+ * recorded for every player of the game, not only the one who moved.
+ */
+public class LoadStats {
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    final LongAdder movesAccepted = new LongAdder();
+    final LongAdder movesRejected = new LongAdder();
+    final LongAdder deliveries = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+    final LongAdder restErrors = new LongAdder();
+    final LongAdder connectErrors = new LongAdder();
+    final LongAdder transportErrors = new LongAdder();
+    final LongAdder gamesCompleted = new LongAdder();
+    final LongAdder gamesAbandoned = new LongAdder();
+    //cores the server kept busy, sampled from its actuator while the load runs
+    private final DoubleAdder serverCores = new DoubleAdder();
+    private final LongAdder serverCpuSamples = new LongAdder();
+    private final Recorder deliveryMicros = new Recorder(MAX_MICROS, 3);
+    private final Histogram total = new Histogram(MAX_MICROS, 3);
+    private final long started = System.nanoTime();
+    private long intervalStarted = started;
+    private long intervalMoves;
+    private long intervalDeliveries;
+    private long intervalErrors;
+
+    void delivered(long sentAt) {
+        long micros = (System.nanoTime() - sentAt) / 1000;
+        deliveryMicros.recordValue(Math.max(0, Math.min(micros, MAX_MICROS)));
+        deliveries.increment();
+    }
+
+    void serverCpuSampled(double cores) {
+        serverCores.add(cores);
+        serverCpuSamples.increment();
+    }
+
+    /**
+     * @return average number of cores the server process kept busy, -1 if its metrics could not be read
+     */
+    public double getServerCores() {
+        long samples = serverCpuSamples.sum();
+        return samples == 0 ? -1 : serverCores.sum() / samples;
+    }
+
+    public long getMovesAccepted() {
+        return movesAccepted.sum();
+    }
+
+    public long getMovesRejected() {
+        return movesRejected.sum();
+    }
+
+    public long getDeliveries() {
+        return deliveries.sum();
+    }
+
+    public long getGamesCompleted() {
+        return gamesCompleted.sum();
+    }
+
+    /**
+     * @return everything that went wrong, including rejected moves as the simulated players only play legal moves
+     */
+    public long getErrors() {
+        return movesRejected.sum() + timeouts.sum() + restErrors.sum() + connectErrors.sum() + transportErrors.sum();
+    }
+
+    /**
+     * Prints throughput and latency since the last interval, or since the start for the first one.
+     */
+    synchronized void printInterval(PrintStream out) {
+        long now = System.nanoTime();
+        Histogram interval = deliveryMicros.getIntervalHistogram();
+        total.add(interval);
+        double seconds = (now - intervalStarted) / 1e9;
+        long moves = getMovesAccepted();
+        long delivered = getDeliveries();
+        long errors = getErrors();
+        out.printf(Locale.ROOT, "%6.0f s  %8.1f moves/s  %8.1f deliveries/s  p50 %7.2f ms  p99 %7.2f ms  errors %d%n",
+                (now - started) / 1e9, (moves - intervalMoves) / seconds, (delivered - intervalDeliveries) / seconds,
+                millis(interval, 50), millis(interval, 99), errors - intervalErrors);
+        intervalStarted = now;
+        intervalMoves = moves;
+        intervalDeliveries = delivered;
+        intervalErrors = errors;
+    }
+
+    synchronized void printSummary(PrintStream out) {
+        total.add(deliveryMicros.getIntervalHistogram());
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long moves = getMovesAccepted();
+        long attempted = moves + getMovesRejected() + timeouts.sum();
+        out.printf(Locale.ROOT, "games       %d completed, %d abandoned%n", getGamesCompleted(), gamesAbandoned.sum());
+        out.printf(Locale.ROOT, "moves       %d accepted (%.1f/s), %d rejected%n", moves, moves / seconds, getMovesRejected());
+        out.printf(Locale.ROOT, "deliveries  %d (%.1f/s)%n", getDeliveries(), getDeliveries() / seconds);
+        out.printf(Locale.ROOT, "latency ms  p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n", millis(total, 50),
+                millis(total, 90), millis(total, 99), millis(total, 99.9), total.getMaxValue() / 1000.0);
+        double cores = getServerCores();
+        if (cores >= 0)
+            out.printf(Locale.ROOT, "server cpu  %.2f cores, %.1f us per delivery%n", cores,
+                    getDeliveries() == 0 ? 0 : cores * seconds * 1e6 / getDeliveries());
+        out.printf(Locale.ROOT, "errors      %d timeouts, %d rest, %d connect, %d transport (%.2f %% of moves)%n",
+                timeouts.sum(), restErrors.sum(), connectErrors.sum(), transportErrors.sum(),
+                attempted == 0 ? 0 : 100.0 * getErrors() / attempted);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
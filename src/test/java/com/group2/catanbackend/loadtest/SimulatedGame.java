@@ -0,0 +1,279 @@
+package com.group2.catanbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group2.catanbackend.config.Constants;
+import com.group2.catanbackend.dto.CreateRequestDto;
+import com.group2.catanbackend.dto.JoinRequestDto;
+import com.group2.catanbackend.dto.game.*;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Two players who play one game after the other until the deadline: they create and join a lobby over REST, connect
+ * over STOMP, play the setup phase and a number of turns, and leave.
+ * <p>
+ * Every accepted move sends exactly one game state to the game topic, so the n-th state a player receives after the
+ * start belongs to the n-th move. Only one move is in flight per game.
+ */
+class SimulatedGame implements Runnable {
+    //player index and move of a legal setup phase, it does not depend on the board
+    private static final int[] SETUP_PLAYERS = {0, 0, 1, 1, 1, 1, 0, 0};
+    private static final int[] SETUP_POSITIONS = {9, 12, 13, 21, 22, 29, 29, 36};
+    private static final Object ROSTER_COMPLETE = new Object();
+    private static final Object REJECTED = new Object();
+
+    private final LoadGenerator.Options options;
+    private final LoadStats stats;
+    private final RestTemplate rest;
+    private final WebSocketStompClient stompClient;
+    private final String name;
+    private final long deadline;
+
+    SimulatedGame(LoadGenerator.Options options, LoadStats stats, RestTemplate rest, WebSocketStompClient stompClient,
+                  String name, long deadline) {
+        this.options = options;
+        this.stats = stats;
+        this.rest = rest;
+        this.stompClient = stompClient;
+        this.name = name;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (playGame())
+                    stats.gamesCompleted.increment();
+                else
+                    stats.gamesAbandoned.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return false if the game had to be given up
+     */
+    private boolean playGame() throws InterruptedException {
+        int moves = SETUP_PLAYERS.length + 2 * options.turns;
+        AtomicLongArray sentAt = new AtomicLongArray(moves + 1);
+        Player[] players = new Player[2];
+        try {
+            JsonNode created = rest.postForObject(options.url + "/catan/game/create", new CreateRequestDto(name + "-0"), JsonNode.class);
+            String gameId = created.get("gameID").asText();
+            players[0] = new Player(name + "-0", created.get("token").asText(), gameId, sentAt);
+            JsonNode joined = rest.postForObject(options.url + "/catan/game/connect", new JoinRequestDto(name + "-1", gameId), JsonNode.class);
+            players[1] = new Player(name + "-1", joined.get("token").asText(), gameId, sentAt);
+        } catch (RestClientException e) {
+            stats.restErrors.increment();
+            leave(players);
+            return false;
+        }
+        try {
+            for (Player player : players) {
+                if (!player.connect()) {
+                    stats.connectErrors.increment();
+                    return false;
+                }
+            }
+            try {
+                post("/catan/game/start", null, players[0].token);
+            } catch (RestClientException e) {
+                stats.restErrors.increment();
+                return false;
+            }
+            for (int move = 1; move <= moves && System.nanoTime() < deadline; move++) {
+                int mover;
+                GameMoveDto gameMove;
+                if (move <= SETUP_PLAYERS.length) {
+                    mover = SETUP_PLAYERS[move - 1];
+                    int position = SETUP_POSITIONS[move - 1];
+                    gameMove = move % 2 == 1 ? new BuildVillageMoveDto(position) : new BuildRoadMoveDto(position);
+                } else {
+                    int turn = (move - SETUP_PLAYERS.length - 1) / 2;
+                    mover = turn % 2;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    gameMove = move % 2 == 1 ? new RollDiceDto(random.nextInt(1, 7) + random.nextInt(1, 7)) : new EndTurnMoveDto();
+                }
+                if (!makeMove(players[mover], move, gameMove, sentAt))
+                    return false;
+                if (options.thinkMillis > 0)
+                    Thread.sleep(options.thinkMillis);
+            }
+            return true;
+        } finally {
+            for (Player player : players) {
+                player.disconnect();
+            }
+            leave(players);
+        }
+    }
+
+    private boolean makeMove(Player mover, int move, GameMoveDto gameMove, AtomicLongArray sentAt) throws InterruptedException {
+        sentAt.set(move, System.nanoTime());
+        if (options.restMoves) {
+            try {
+                post("/catan/game/gamemove", gameMove, mover.token);
+            } catch (HttpClientErrorException e) {
+                stats.movesRejected.increment();
+                return false;
+            } catch (RestClientException e) {
+                stats.restErrors.increment();
+                return false;
+            }
+        } else {
+            mover.session.send(Constants.APP_DESTINATION_PREFIX + Constants.APP_GAME_MOVE, gameMove);
+        }
+        //the queue also holds the states of the moves of the other player, which are skipped
+        long timeout = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.timeoutMillis);
+        while (true) {
+            Object event = mover.events.poll(timeout - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (event == null) {
+                stats.timeouts.increment();
+                return false;
+            }
+            if (event == REJECTED) {
+                stats.movesRejected.increment();
+                return false;
+            }
+            if (event instanceof Integer state && state == move) {
+                stats.movesAccepted.increment();
+                return true;
+            }
+        }
+    }
+
+    private void post(String path, Object body, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, token);
+        rest.postForEntity(options.url + path, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private void leave(Player[] players) {
+        for (Player player : players) {
+            if (player == null)
+                continue;
+            try {
+                post("/catan/game/leave", null, player.token);
+            } catch (RestClientException e) {
+                //the game is over for the simulation either way
+            }
+        }
+    }
+
+    private class Player {
+        private final String displayName;
+        private final String token;
+        private final String gameId;
+        //send time of every move of the game, shared by its players
+        private final AtomicLongArray sentAt;
+        private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+        //states received since the start, the initial state is number 0
+        private final AtomicInteger states = new AtomicInteger(-1);
+        private StompSession session;
+
+        Player(String displayName, String token, String gameId, AtomicLongArray sentAt) {
+            this.displayName = displayName;
+            this.token = token;
+            this.gameId = gameId;
+            this.sentAt = sentAt;
+        }
+
+        /**
+         * Connects and waits until the lobby shows this player as connected, which also means the game topic is
+         * followed before the game starts.
+         */
+        boolean connect() throws InterruptedException {
+            WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+            headers.add(HttpHeaders.AUTHORIZATION, token);
+            String socketUrl = options.url.replaceFirst("^http", "ws") + "/" + Constants.SOCKET_ENDPOINT;
+            try {
+                session = stompClient.connectAsync(socketUrl, headers, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        stats.transportErrors.increment();
+                    }
+                }).get(options.timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                return false;
+            }
+            session.subscribe(Constants.TOPIC_GAME_PROGRESS.formatted(gameId), new JsonHandler() {
+                @Override
+                void handle(JsonNode message) {
+                    handleGameMessage(message);
+                }
+            });
+            session.subscribe(Constants.FULL_USER_QUEUE_PATH, new JsonHandler() {
+                @Override
+                void handle(JsonNode message) {
+                    if (MessageType.INVALID_GAME_MOVE.equals(message.path("eventType").asText()))
+                        events.add(REJECTED);
+                }
+            });
+            return events.poll(options.timeoutMillis, TimeUnit.MILLISECONDS) == ROSTER_COMPLETE;
+        }
+
+        private void handleGameMessage(JsonNode message) {
+            switch (message.path("eventType").asText()) {
+                case MessageType.PLAYERS_CHANGED -> {
+                    if (states.get() < 0 && isConnected(message.path("players")))
+                        events.add(ROSTER_COMPLETE);
+                }
+                case MessageType.GAME_OBJECT -> {
+                    int state = states.incrementAndGet();
+                    if (state > 0 && state < sentAt.length()) {
+                        stats.delivered(sentAt.get(state));
+                        events.add(state);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private boolean isConnected(JsonNode roster) {
+            for (JsonNode player : roster) {
+                //the lobby does not publish tokens, the display names of the simulation are unique per game
+                if (player.path("displayName").asText().equals(displayName))
+                    return player.path("state").asText().equals("CONNECTED");
+            }
+            return false;
+        }
+
+        void disconnect() {
+            if (session != null && session.isConnected())
+                session.disconnect();
+        }
+    }
+
+    private abstract static class JsonHandler implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            handle((JsonNode) payload);
+        }
+
+        abstract void handle(JsonNode message);
+    }
+}
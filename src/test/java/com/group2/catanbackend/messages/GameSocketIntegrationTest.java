@@ -15,19 +15,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
 
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "catan.ratelimit.enabled=false")
 class GameSocketIntegrationTest {
     @LocalServerPort
     private int port;
@@ -54,6 +60,7 @@ class GameSocketIntegrationTest {
         client.subscribe(Constants.TOPIC_GAME_LOBBY.formatted(responseDto.getGameID()), handler);
 
         Thread.sleep(1000);
+        queue.clear(); //the debounced notification of the lobby's creation may arrive after subscribing
 
         gameService.joinGame(new JoinRequestDto("Player2", responseDto.getGameID()));
         MessageDto dto = queue.poll(2, TimeUnit.SECONDS);
@@ -74,6 +81,7 @@ class GameSocketIntegrationTest {
         client.subscribe(Constants.TOPIC_GAME_LOBBY.formatted(player2.getGameID()), handler);
 
         Thread.sleep(1000); //To process subscription;
+        queue.clear(); //the debounced notification of the lobby's creation may arrive after subscribing
 
         gameService.leaveGame(player1.getToken());
 
@@ -99,10 +107,9 @@ class GameSocketIntegrationTest {
         StompFrameHandlerImpl<MessageDto> handler2 = new StompFrameHandlerImpl<>(queue, MessageDto.class);
         client2.subscribe(Constants.FULL_USER_QUEUE_PATH, handler);
 
-        MessageDto dto = queue.poll(2, TimeUnit.SECONDS);
-        assertThat(dto.getClass()).isEqualTo(PlayersInLobbyDto.class);
-        PlayersInLobbyDto playersInLobbyDto = (PlayersInLobbyDto) dto;
-        assertThat(playersInLobbyDto.getPlayers().get(1).getState()).isEqualTo(PlayerState.CONNECTED);
+        MessageDto dto = pollFirstMatching(queue, message -> message instanceof PlayersInLobbyDto players
+                && players.getPlayers().get(1).getState() == PlayerState.CONNECTED);
+        assertThat(dto).isNotNull();
     }
 
     @Test
@@ -126,6 +133,7 @@ class GameSocketIntegrationTest {
         StompFrameHandlerImpl<MessageDto> handler = new StompFrameHandlerImpl<>(queue, MessageDto.class);
         client.subscribe(Constants.TOPIC_GAME_LOBBY.formatted(player2.getGameID()), handler);
         Thread.sleep(1000);
+        queue.clear(); //the debounced notification of the lobby's creation may arrive after subscribing
         gameService.startGame(player1.getToken()); //as Player1 is admin
         Thread.sleep(1000);
         MessageDto dto = queue.poll(2, TimeUnit.SECONDS);
@@ -144,8 +152,8 @@ class GameSocketIntegrationTest {
 
         gameService.startGame(player1.getToken()); //as Player1 is admin
 
-        Thread.sleep(1000);
-        MessageDto dto = queue.poll(2, TimeUnit.SECONDS);
+        //the game start is announced on the same topic, the subscription may be processed before it
+        MessageDto dto = pollFirstMatching(queue, CurrentGameStateDto.class::isInstance);
         assert dto instanceof CurrentGameStateDto;
         List<HexagonDto> hexagonDtos = ((CurrentGameStateDto) dto).getHexagons();
         List<IntersectionDto> intersectionDtos = ((CurrentGameStateDto) dto).getIntersections();
@@ -209,4 +217,61 @@ class GameSocketIntegrationTest {
             assertNull(connectionDtoList.get(10).getOwner());
         } else fail("Received dto is not instance of CurrentGameStateDto");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGameMoveSentOverSocketUpdatesGameState() throws Exception {
+        JoinResponseDto player1 = gameService.createAndJoin(new CreateRequestDto("Player1"));
+        JoinResponseDto player2 = gameService.joinGame(new JoinRequestDto("Player2", player1.getGameID()));
+
+        gameService.startGame(player1.getToken()); //as Player1 is admin
+
+        TestClientImplementation client = new TestClientImplementation(port, player1.getToken());
+        BlockingQueue<MessageDto> queue = new LinkedBlockingQueue<>();
+        StompFrameHandlerImpl<MessageDto> handler = new StompFrameHandlerImpl<>(queue, MessageDto.class);
+        client.subscribe(Constants.TOPIC_GAME_PROGRESS.formatted(player1.getGameID()), handler);
+        Thread.sleep(1000);
+
+        client.send("/app" + Constants.APP_GAME_MOVE, new BuildVillageMoveDto(22));
+
+        MessageDto dto = queue.poll(2, TimeUnit.SECONDS);
+        if (dto instanceof CurrentGameStateDto currentGameStateDto) {
+            assertEquals(BuildingType.VILLAGE.name(), currentGameStateDto.getIntersections().get(22).getBuildingType());
+        } else fail("Received dto is not instance of CurrentGameStateDto");
+    }
+
+    @Test
+    void testAnonymousClientReceivesLobbySnapshotAndDeltas() throws Exception {
+        gameService.createAndJoin(new CreateRequestDto("Player1"));
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompSession session = stompClient.connectAsync("ws://localhost:%d/%s".formatted(port, Constants.LOBBY_SOCKET_ENDPOINT),
+                new StompSessionHandlerAdapter() {
+                }).get(2, TimeUnit.SECONDS);
+
+        BlockingQueue<MessageDto> deltas = new LinkedBlockingQueue<>();
+        session.subscribe(Constants.TOPIC_LOBBY_DIRECTORY, new StompFrameHandlerImpl<>(deltas, MessageDto.class));
+        BlockingQueue<MessageDto> snapshots = new LinkedBlockingQueue<>();
+        session.subscribe(Constants.APP_DESTINATION_PREFIX + Constants.APP_LOBBY_DIRECTORY, new StompFrameHandlerImpl<>(snapshots, MessageDto.class));
+
+        MessageDto snapshot = snapshots.poll(2, TimeUnit.SECONDS);
+        assertInstanceOf(LobbyDirectorySnapshotDto.class, snapshot);
+        assertFalse(((LobbyDirectorySnapshotDto) snapshot).getLobbies().isEmpty());
+
+        JoinResponseDto created = gameService.createAndJoin(new CreateRequestDto("Player2"));
+        MessageDto delta = deltas.poll(2, TimeUnit.SECONDS);
+        assertInstanceOf(LobbyChangedDto.class, delta);
+        assertEquals(MessageType.LOBBY_CREATED, delta.getEventType());
+        assertEquals(created.getGameID(), ((LobbyChangedDto) delta).getLobby().getGameID());
+    }
+
+    private static MessageDto pollFirstMatching(BlockingQueue<MessageDto> queue, Predicate<MessageDto> predicate) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        MessageDto dto;
+        while ((dto = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+            if (predicate.test(dto))
+                return dto;
+        }
+        return null;
+    }
+}
@@ -29,5 +29,9 @@ public class TestClientImplementation {
         session.subscribe(destination, handler);
     }
 
+    public void send(String destination, Object payload){
+        session.send(destination, payload);
+    }
+
     public void disconnect(){session.disconnect();}
 }
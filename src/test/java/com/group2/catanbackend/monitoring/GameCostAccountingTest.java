@@ -0,0 +1,83 @@
+package com.group2.catanbackend.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.GameCostDto;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.exception.GameException;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.model.PlayerState;
+import com.group2.catanbackend.service.GameFixtures;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCostAccountingTest {
+    private final AtomicInteger messages = new AtomicInteger();
+    private MessagingService messagingService;
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> messages.incrementAndGet() > 0);
+        template.setMessageConverter(new RecordingJsonMessageConverter(new ObjectMapper()));
+        messagingService = new MessagingService(template, GameMetrics.NOOP, GameTracing.NOOP);
+    }
+
+    private RunningInstanceService startGame(String gameId, GameCostAccounting accounting) {
+        List<Player> players = GameFixtures.players(gameId);
+        players.forEach(player -> player.setPlayerState(PlayerState.CONNECTED));
+        RunningInstanceService game = GameFixtures.start(new RunningInstanceService(messagingService, null, null,
+                GameMetrics.NOOP, accounting, GameTracing.NOOP), gameId, players);
+        game.makeMove(new BuildVillageMoveDto(9), players.get(0));
+        assertThrows(GameException.class, () -> game.makeMove(new EndTurnMoveDto(), players.get(0)));
+        return game;
+    }
+
+    @Test
+    void testMovesAndTheirMessagesAreChargedToTheGame() {
+        RunningInstanceService game = startGame("game1", new GameCostAccounting(true, true));
+
+        GameCostDto costs = game.getCosts();
+        assertEquals("game1", costs.getGameId());
+        assertEquals(1, costs.getMovesAccepted());
+        assertEquals(1, costs.getMovesRejected());
+        //every message went to the game topic, which both connected players follow
+        assertEquals(2L * messages.get(), costs.getFramesSent());
+        assertTrue(costs.getBytesSerialized() > 0);
+        assertTrue(costs.getCpuNanos() >= 0);
+        assertTrue(costs.getRetainedBytes() > 0);
+        assertNull(GameCosts.current());
+    }
+
+    @Test
+    void testTopListsTheCostliestGamesFirst() {
+        GameCostAccounting accounting = new GameCostAccounting(true, false);
+        RunningInstanceService quiet = startGame("quiet", accounting);
+        RunningInstanceService busy = startGame("busy", accounting);
+        RunningInstanceService busiest = startGame("busiest", accounting);
+        assertThrows(GameException.class, () -> busy.makeMove(new EndTurnMoveDto(), null));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(GameException.class, () -> busiest.makeMove(new EndTurnMoveDto(), null));
+        }
+
+        List<GameCostDto> top = accounting.top(List.of(quiet, busy, busiest), GameCostAccounting.Cost.REJECTED, 2);
+
+        assertEquals(List.of("busiest", "busy"), top.stream().map(GameCostDto::getGameId).toList());
+        assertEquals(0, top.get(0).getCpuNanos());
+    }
+
+    @Test
+    void testNothingIsChargedWhileDisabled() {
+        RunningInstanceService game = startGame("game1", GameCostAccounting.DISABLED);
+
+        GameCostDto costs = game.getCosts();
+        assertEquals(0, costs.getMovesAccepted() + costs.getMovesRejected() + costs.getFramesSent() + costs.getBytesSerialized());
+        assertTrue(GameCostAccounting.DISABLED.top(List.of(game), GameCostAccounting.Cost.CPU, 10).isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.group2.catanbackend.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.exception.NotActivePlayerException;
+import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.MessagingService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineEventTest {
+    private static final List<String> EVENTS = List.of("catan.MoveValidation", "catan.BoardMutation",
+            "catan.GameStateBuild", "catan.Serialization", "catan.Broadcast");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMovesAndTheirMessagesAreRecorded() throws IOException {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(new RecordingJsonMessageConverter(new ObjectMapper()));
+        Player player1 = new Player("Token1", "Player One", "game");
+        player1.setInGameID(1);
+        Player player2 = new Player("Token2", "Player Two", "game");
+        player2.setInGameID(2);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            EVENTS.forEach(event -> recording.enable(event).withoutThreshold());
+            recording.start();
+            GameLogicController controller = new GameLogicController(new ArrayList<>(List.of(player1, player2)),
+                    new MessagingService(template, GameMetrics.NOOP, GameTracing.NOOP), "game");
+            controller.makeMove(new BuildVillageMoveDto(9), player1);
+            assertThrows(NotActivePlayerException.class, () -> controller.makeMove(new EndTurnMoveDto(), player1));
+            recording.stop();
+            Path file = directory.resolve("recording.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(2, count(events, "catan.MoveValidation"));
+        assertEquals(1, count(events, "catan.BoardMutation"));
+        //the initial state and the state after the village
+        assertEquals(2, count(events, "catan.GameStateBuild"));
+        assertEquals(2, count(events, "catan.Broadcast"));
+        RecordedEvent lastBroadcast = events.stream().filter(event -> event.getEventType().getName().equals("catan.Broadcast"))
+                .reduce((first, second) -> second).orElseThrow();
+        assertEquals("game", lastBroadcast.getString("gameId"));
+        assertEquals(GameMoveType.BUILDVILLAGEMOVE, lastBroadcast.getString("moveType"));
+        assertTrue(lastBroadcast.getLong("payloadSize") > 0);
+        RecordedEvent lastSerialization = events.stream().filter(event -> event.getEventType().getName().equals("catan.Serialization"))
+                .reduce((first, second) -> second).orElseThrow();
+        assertEquals(lastBroadcast.getLong("payloadSize"), lastSerialization.getLong("payloadSize"));
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}
@@ -0,0 +1,109 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.game.EndTurnMoveDto;
+import com.group2.catanbackend.model.GameDescriptor;
+import com.group2.catanbackend.service.InMemoryGameRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLoadHealthIndicatorTest {
+    private final MoveLatencies latencies = new MoveLatencies(10_000, 6);
+    private final InMemoryGameRegistry registry = new InMemoryGameRegistry();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private GameLoadHealthIndicator indicator(long maxMoveP99Millis, long minMoves, int maxOutboundQueue, int maxGames) {
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        return new GameLoadHealthIndicator(new NodeLoad(latencies, registry, executor, executor),
+                maxMoveP99Millis, minMoves, maxOutboundQueue, maxGames);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private void recordMoves(int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            latencies.moveStarted(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis));
+            latencies.moveFinished(new EndTurnMoveDto(), true);
+        }
+        latencies.roll();
+    }
+
+    @Test
+    void testIdleNodeIsUp() {
+        Health health = indicator(250, 100, 1000, 10).health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(0, health.getDetails().get("games"));
+        assertEquals(0, health.getDetails().get("outboundQueue"));
+        assertFalse(health.getDetails().containsKey("moveP99Micros"));
+    }
+
+    @Test
+    void testSlowMovesDegradeOnceTheWindowHoldsEnoughOfThem() {
+        GameLoadHealthIndicator indicator = indicator(250, 100, 1000, 10);
+        recordMoves(99, 300);
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        recordMoves(1, 300);
+
+        Health health = indicator.health();
+        assertEquals(GameLoadHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(List.of("moveP99Micros"), health.getDetails().get("saturated"));
+        assertTrue((long) health.getDetails().get("moveP99Micros") >= 290_000);
+    }
+
+    @Test
+    void testFastMovesStayUp() {
+        GameLoadHealthIndicator indicator = indicator(250, 100, 1000, 10);
+        recordMoves(200, 1);
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void testFullOutboundQueueDegrades() {
+        GameLoadHealthIndicator indicator = indicator(250, 100, 2, 10);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> { });
+        }
+
+        Health health = indicator.health();
+        assertEquals(GameLoadHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(3, health.getDetails().get("outboundQueue"));
+        assertEquals(List.of("outboundQueue"), health.getDetails().get("saturated"));
+    }
+
+    @Test
+    void testGameLimitDegrades() {
+        GameLoadHealthIndicator indicator = indicator(250, 100, 1000, 2);
+        registry.getLobbies().put("A", new GameDescriptor("A"));
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        registry.getLobbies().put("B", new GameDescriptor("B"));
+
+        Health health = indicator.health();
+        assertEquals(GameLoadHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(2, health.getDetails().get("games"));
+    }
+}
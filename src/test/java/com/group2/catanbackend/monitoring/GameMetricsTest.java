@@ -0,0 +1,97 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.exception.InvalidGameMoveException;
+import com.group2.catanbackend.gamelogic.GameLogicController;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.MessagingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class GameMetricsTest {
+    private SimpleMeterRegistry registry;
+    private GameMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new GameMetrics(registry);
+    }
+
+    @Test
+    void testMovesAreTimedByTypeAndOutcome() {
+        Player player1 = new Player("Token1", "Player One", "game");
+        player1.setInGameID(1);
+        Player player2 = new Player("Token2", "Player Two", "game");
+        player2.setInGameID(2);
+        GameLogicController controller = new GameLogicController(new ArrayList<>(List.of(player1, player2)), mock(MessagingService.class), "game");
+        controller.setMetrics(metrics);
+
+        controller.makeMove(new BuildVillageMoveDto(9), player1);
+        assertThrows(InvalidGameMoveException.class, () -> controller.makeMove(new RollDiceDto(6), player1));
+
+        assertEquals(1, moveCount(GameMoveType.BUILDVILLAGEMOVE, "ok"));
+        assertEquals(1, moveCount(GameMoveType.ROLLDICEMOVE, "rejected"));
+        assertEquals(0, moveCount(GameMoveType.ROLLDICEMOVE, "ok"));
+        assertEquals(1, registry.get("catan.game.state.sends").timer().count());
+    }
+
+    @Test
+    void testUnknownMoveTypesShareOneTimer() {
+        long start = metrics.start();
+        metrics.moveApplied(new GameMoveDto("SOMETHING_ELSE"), GameMetrics.Outcome.ERROR, start);
+        metrics.moveApplied(new GameMoveDto(null), GameMetrics.Outcome.ERROR, start);
+
+        assertEquals(2, moveCount(GameMetrics.OTHER, "error"));
+        assertTrue(registry.find("catan.moves.applied").tag("type", "SOMETHING_ELSE").meters().isEmpty());
+    }
+
+    @Test
+    void testRequestsAreTimedByTransport() {
+        metrics.moveRequested(GameMetrics.Transport.SOCKET, new RollDiceDto(6), GameMetrics.Outcome.OK, metrics.moveStarted(0));
+
+        assertEquals(1, registry.get("catan.moves.requests").tag("transport", "socket").tag("outcome", "ok").timer().count());
+        assertEquals(0, registry.get("catan.moves.requests").tag("transport", "rest").tag("outcome", "ok").timer().count());
+    }
+
+    @Test
+    void testMessagesAreTimedByChannelAndFailuresCounted() {
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        MessagingService messagingService = new MessagingService(template, metrics, GameTracing.NOOP);
+
+        messagingService.notifyLobby("game", new GameStartedDto());
+        messagingService.notifyLobbyDirectory(new LobbyDirectorySnapshotDto());
+        doThrow(new MessageDeliveryException("closed")).when(template).convertAndSendToUser(anyString(), anyString(), any());
+        assertThrows(MessageDeliveryException.class, () -> messagingService.notifyUser("token", new GameMovedDto("node")));
+
+        assertEquals(1, registry.get("catan.messages.sent").tag("channel", "lobby").tag("type", MessageType.GAME_STARTED).timer().count());
+        assertEquals(1, registry.get("catan.messages.sent").tag("channel", "lobby-directory").tag("type", MessageType.LOBBY_DIRECTORY_SNAPSHOT).timer().count());
+        assertEquals(0, registry.get("catan.messages.sent").tag("channel", "user").tag("type", MessageType.GAME_MOVED).timer().count());
+        assertEquals(1, registry.get("catan.messages.failed").tag("channel", "user").counter().count());
+    }
+
+    @Test
+    void testNoopRecordsNothing() {
+        assertFalse(GameMetrics.NOOP.isEnabled());
+        assertEquals(0, GameMetrics.NOOP.start());
+        GameMetrics.NOOP.moveApplied(new RollDiceDto(6), GameMetrics.Outcome.OK, 0);
+        GameMetrics.NOOP.messageSent(GameMetrics.Channel.GAME, new GameStartedDto(), 0);
+        GameMetrics.NOOP.messageFailed(GameMetrics.Channel.GAME);
+    }
+
+    private long moveCount(String type, String outcome) {
+        return registry.get("catan.moves.applied").tag("type", type).tag("outcome", outcome).timer().count();
+    }
+}
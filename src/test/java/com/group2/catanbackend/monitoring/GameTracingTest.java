@@ -0,0 +1,118 @@
+package com.group2.catanbackend.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameMetrics.Transport;
+import com.group2.catanbackend.service.GameFixtures;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CLIENT_SPAN_ID = "00f067aa0ba902b7";
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final List<Message<?>> messages = new ArrayList<>();
+
+    private RunningInstanceService startGame(GameTracing tracing, List<Player> players) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> messages.add(message));
+        template.setMessageConverter(new RecordingJsonMessageConverter(new ObjectMapper()));
+        MessagingService messagingService = new MessagingService(template, GameMetrics.NOOP, tracing);
+        RunningInstanceService game = GameFixtures.start(new RunningInstanceService(messagingService, null, null,
+                GameMetrics.NOOP, GameCostAccounting.DISABLED, tracing), "game", players);
+        messages.clear();
+        return game;
+    }
+
+    private GameTracing tracing(Sampler sampler) {
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(sampler))
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        return new GameTracing(OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build());
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void testMoveContinuesTheClientTraceIntoTheMessages() {
+        List<Player> players = GameFixtures.players("game");
+        GameTracing tracing = tracing(Sampler.alwaysOn());
+        RunningInstanceService game = startGame(tracing, players);
+        exporter.reset();
+
+        GameMoveDto move = new BuildVillageMoveDto(9);
+        Span span = tracing.moveReceived(Transport.SOCKET, move, "00-" + TRACE_ID + "-" + CLIENT_SPAN_ID + "-01");
+        try (Scope scope = GameTracing.makeCurrent(span)) {
+            game.makeMove(move, players.get(0));
+        } finally {
+            span.end();
+        }
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertTrue(spans.stream().allMatch(data -> data.getTraceId().equals(TRACE_ID)));
+        SpanData received = span(spans, "catan.move.receive");
+        SpanData applied = span(spans, "catan.move.apply");
+        SpanData built = span(spans, "catan.state.build");
+        SpanData sent = span(spans, "catan.message.send");
+        assertEquals(CLIENT_SPAN_ID, received.getParentSpanId());
+        assertEquals(received.getSpanId(), applied.getParentSpanId());
+        assertEquals(applied.getSpanId(), built.getParentSpanId());
+        assertEquals(applied.getSpanId(), sent.getParentSpanId());
+
+        assertEquals(1, messages.size());
+        String traceparent = SimpMessageHeaderAccessor.wrap(messages.get(0)).getFirstNativeHeader(GameTracing.TRACEPARENT);
+        assertEquals("00-" + TRACE_ID + "-" + sent.getSpanId() + "-01", traceparent);
+    }
+
+    @Test
+    void testUnsampledMovesRecordNothing() {
+        List<Player> players = GameFixtures.players("game");
+        GameTracing tracing = tracing(Sampler.alwaysOff());
+        RunningInstanceService game = startGame(tracing, players);
+
+        GameMoveDto move = new BuildVillageMoveDto(9);
+        Span span = tracing.moveReceived(Transport.REST, move, null);
+        try (Scope scope = GameTracing.makeCurrent(span)) {
+            game.makeMove(move, players.get(0));
+        } finally {
+            span.end();
+        }
+
+        assertTrue(exporter.getFinishedSpanItems().isEmpty());
+        assertEquals(1, messages.size());
+        assertNull(SimpMessageHeaderAccessor.wrap(messages.get(0)).getFirstNativeHeader(GameTracing.TRACEPARENT));
+    }
+
+    @Test
+    void testNoopStartsNoSpans() {
+        assertFalse(GameTracing.NOOP.isEnabled());
+        assertSame(Span.getInvalid(), GameTracing.NOOP.moveReceived(Transport.REST, new EndTurnMoveDto(), null));
+        assertNull(GameTracing.NOOP.headers(Span.getInvalid()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.group2.catanbackend.monitoring;
+
+import com.group2.catanbackend.dto.LatencyDto;
+import com.group2.catanbackend.dto.game.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveLatenciesTest {
+
+    @Test
+    void testMoveAndItsMessagesAreRecordedAfterTheIntervalEnds() {
+        MoveLatencies latencies = new MoveLatencies(10_000, 6);
+        latencies.moveStarted(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5));
+        latencies.messageSent(new GameProgressDto(new RollDiceDto(6)));
+        latencies.moveFinished(new RollDiceDto(6), true);
+        assertTrue(latencies.getMoveLatencies().isEmpty());
+
+        latencies.roll();
+
+        LatencyDto move = latencies.getMoveLatencies().get(GameMoveType.ROLLDICEMOVE);
+        assertEquals(1, move.getCount());
+        assertTrue(move.getP50() >= 4_900, "p50 was " + move.getP50());
+        assertTrue(move.getMax() >= move.getP999() && move.getP999() >= move.getP99() && move.getP99() >= move.getP50());
+        assertEquals(1, latencies.getMessageLatencies().get(MessageType.GAME_MOVE_NOTIFIER).getCount());
+        assertEquals(60_000, latencies.getWindowMillis());
+    }
+
+    @Test
+    void testRejectedMovesAndMessagesOutsideOfMovesAreNotRecorded() {
+        MoveLatencies latencies = new MoveLatencies(10_000, 6);
+        latencies.moveStarted(System.nanoTime());
+        latencies.moveFinished(new EndTurnMoveDto(), false);
+        latencies.messageSent(new GameStartedDto());
+
+        latencies.roll();
+
+        assertTrue(latencies.getMoveLatencies().isEmpty());
+        assertTrue(latencies.getMessageLatencies().isEmpty());
+    }
+
+    @Test
+    void testMoveLatencyCoversAllTypes() {
+        MoveLatencies latencies = new MoveLatencies(10_000, 6);
+        assertTrue(latencies.getMoveLatency().isEmpty());
+        latencies.moveStarted(System.nanoTime());
+        latencies.moveFinished(new EndTurnMoveDto(), true);
+        latencies.moveStarted(System.nanoTime());
+        latencies.moveFinished(new RollDiceDto(6), true);
+        latencies.moveStarted(System.nanoTime());
+        latencies.moveFinished(null, true);
+
+        latencies.roll();
+
+        assertEquals(3, latencies.getMoveLatency().orElseThrow().getCount());
+    }
+
+    @Test
+    void testIntervalsLeaveTheWindow() {
+        MoveLatencies latencies = new MoveLatencies(10_000, 2);
+        latencies.moveStarted(System.nanoTime());
+        latencies.moveFinished(new EndTurnMoveDto(), true);
+        latencies.roll();
+        latencies.roll();
+        assertEquals(1, latencies.getMoveLatencies().get(GameMoveType.ENTTURNMOVE).getCount());
+
+        latencies.roll();
+
+        assertTrue(latencies.getMoveLatencies().isEmpty());
+    }
+
+    @Test
+    void testUnknownTypesAndOverlongMovesAreKept() {
+        MoveLatencies latencies = new MoveLatencies(10_000, 6);
+        latencies.moveStarted(System.nanoTime() - TimeUnit.MINUTES.toNanos(5));
+        latencies.moveFinished(new GameMoveDto("SOMETHING_ELSE"), true);
+
+        latencies.roll();
+
+        LatencyDto other = latencies.getMoveLatencies().get(GameMetrics.OTHER);
+        assertEquals(1, other.getCount());
+        assertTrue(other.getMax() >= MoveLatencies.MAX_MICROS * 99 / 100);
+    }
+}
@@ -0,0 +1,103 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.model.GameDescriptor;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.GameFixtures;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileGameRegistryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void siblingNodeSeesOwner() throws IOException {
+        FileGameRegistry first = new FileGameRegistry(directory, "node1");
+        FileGameRegistry second = new FileGameRegistry(directory, "node2");
+        GameDescriptor lobby = new GameDescriptor();
+        first.getLobbies().put(lobby.getId(), lobby);
+
+        assertEquals("node1", first.ownerOf(lobby.getId()));
+        assertEquals("node1", second.ownerOf(lobby.getId()));
+        assertNull(second.ownerOf("unknown"));
+    }
+
+    @Test
+    void startedGameKeepsItsRecord() throws IOException {
+        FileGameRegistry first = new FileGameRegistry(directory, "node1");
+        FileGameRegistry second = new FileGameRegistry(directory, "node2");
+        GameDescriptor lobby = new GameDescriptor();
+        first.getLobbies().put(lobby.getId(), lobby);
+
+        //same order as GameService.startGame
+        first.getRunningGames().put(lobby.getId(), GameFixtures.newGame(Mockito.mock(MessagingService.class)));
+        first.getLobbies().remove(lobby.getId());
+        assertEquals("node1", second.ownerOf(lobby.getId()));
+
+        first.getRunningGames().remove(lobby.getId());
+        assertNull(second.ownerOf(lobby.getId()));
+    }
+
+    @Test
+    void tokensOfRunningGameLeadToItsOwner() throws IOException {
+        FileGameRegistry first = new FileGameRegistry(directory, "node1");
+        FileGameRegistry second = new FileGameRegistry(directory, "node2");
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService game = GameFixtures.newGame(Mockito.mock(MessagingService.class));
+        game.addPlayers(players);
+
+        first.getRunningGames().put("game1", game);
+        assertEquals("node1", second.ownerOfToken(players.get(1).getToken()));
+        assertNull(second.ownerOfToken("unknown"));
+
+        first.getRunningGames().remove("game1");
+        assertNull(second.ownerOfToken(players.get(1).getToken()));
+    }
+
+    @Test
+    void staleRecordsOfRestartedNodeAreRemoved() throws IOException {
+        FileGameRegistry before = new FileGameRegistry(directory, "node1");
+        FileGameRegistry sibling = new FileGameRegistry(directory, "node2");
+        GameDescriptor own = new GameDescriptor();
+        GameDescriptor other = new GameDescriptor();
+        before.getLobbies().put(own.getId(), own);
+        sibling.getLobbies().put(other.getId(), other);
+
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService game = GameFixtures.newGame(Mockito.mock(MessagingService.class));
+        game.addPlayers(players);
+        before.getRunningGames().put("game1", game);
+
+        FileGameRegistry restarted = new FileGameRegistry(directory, "node1");
+
+        assertNull(restarted.ownerOf(own.getId()));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".token")));
+        }
+        assertEquals("node2", restarted.ownerOf(other.getId()));
+    }
+
+    @Test
+    void removingGameOwnedElsewhereKeepsForeignRecord() throws IOException {
+        FileGameRegistry first = new FileGameRegistry(directory, "node1");
+        FileGameRegistry second = new FileGameRegistry(directory, "node2");
+        GameDescriptor lobby = new GameDescriptor();
+        first.getLobbies().put(lobby.getId(), lobby);
+        second.getLobbies().put(lobby.getId(), lobby);
+
+        first.getLobbies().remove(lobby.getId());
+
+        assertEquals("node2", first.ownerOf(lobby.getId()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+
+class GameRecoveryServiceTest {
+    private final MoveJournal journal = Mockito.mock(MoveJournal.class);
+    private final GameService gameService = Mockito.mock(GameService.class);
+    private final ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+    private final GameRecoveryService recoveryService = new GameRecoveryService(journal, gameService, eventPublisher, 4, 10);
+
+    private static List<JournaledGame> games(int count) {
+        List<JournaledGame> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            games.add(new JournaledGame("game" + i, i, List.of(), 0));
+        }
+        return games;
+    }
+
+    @Test
+    void allGamesAreRestoredInParallel() throws InterruptedException {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        Mockito.doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(5);
+            return null;
+        }).when(gameService).restoreRunningGame(any());
+
+        assertEquals(100, recoveryService.recover(games(100)));
+        Mockito.verify(gameService, Mockito.times(100)).restoreRunningGame(any());
+        assertTrue(threads.size() > 1);
+    }
+
+    @Test
+    void failingGameDoesNotStopRecovery() throws InterruptedException {
+        List<JournaledGame> games = games(10);
+        Mockito.doThrow(new IllegalArgumentException()).when(gameService).restoreRunningGame(games.get(3));
+
+        assertEquals(9, recoveryService.recover(games));
+        Mockito.verify(gameService, Mockito.times(10)).restoreRunningGame(any());
+    }
+
+    @Test
+    void notReadyWhileRecovering() throws InterruptedException {
+        Mockito.when(journal.takeRecoveredGames()).thenReturn(games(3));
+
+        recoveryService.recoverGames();
+
+        ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, ((AvailabilityChangeEvent<?>) captor.getValue()).getState());
+        Mockito.verify(gameService, Mockito.times(3)).restoreRunningGame(any());
+    }
+}
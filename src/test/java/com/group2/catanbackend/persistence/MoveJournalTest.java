@@ -0,0 +1,209 @@
+package com.group2.catanbackend.persistence;
+
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.service.MessagingService;
+import com.group2.catanbackend.service.RunningInstanceService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private MoveJournal open() throws IOException {
+        return new MoveJournal(directory, 2, SEGMENT_BYTES, 1, false);
+    }
+
+    private static List<Player> players(String gameId) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(UUID.randomUUID().toString(), "Player" + i, gameId);
+            player.setInGameID(i + 1);
+            players.add(player);
+        }
+        return players;
+    }
+
+    @Test
+    void recoversStartParametersMovesAndLeftPlayers() throws IOException {
+        List<Player> players = players("game1");
+        try (MoveJournal journal = open()) {
+            journal.gameStarted("game1", 42L, players);
+            journal.moveAccepted("game1", 0, 0, new BuildVillageMoveDto(9));
+            journal.moveAccepted("game1", 1, 0, new BuildRoadMoveDto(12));
+            journal.playerLeft("game1", 1);
+        }
+
+        try (MoveJournal journal = open()) {
+            List<JournaledGame> games = journal.takeRecoveredGames();
+            assertEquals(1, games.size());
+            JournaledGame game = games.get(0);
+            assertEquals("game1", game.getGameId());
+            assertEquals(42L, game.getSeed());
+            assertEquals(players.get(0).getToken(), game.getPlayers().get(0).getToken());
+            assertEquals("Player1", game.getPlayers().get(1).getDisplayName());
+            assertEquals(2, game.getPlayers().get(1).getInGameID());
+            assertFalse(game.getPlayers().get(0).isLeft());
+            assertTrue(game.getPlayers().get(1).isLeft());
+            assertEquals(2, game.getMoves().size());
+            assertEquals(MoveCodec.BUILD_ROAD, game.getMoves().get(1).getType());
+            assertEquals(12, game.getMoves().get(1).getArgument());
+            assertEquals(1, game.getMoves().get(1).getSequence());
+            assertTrue(journal.takeRecoveredGames().isEmpty());
+        }
+    }
+
+    @Test
+    void endedGamesAreNotRecovered() throws IOException {
+        try (MoveJournal journal = open()) {
+            journal.gameStarted("game1", 1L, players("game1"));
+            journal.gameStarted("game2", 2L, players("game2"));
+            journal.gameEnded("game1");
+        }
+        try (MoveJournal journal = open()) {
+            List<JournaledGame> games = journal.takeRecoveredGames();
+            assertEquals(1, games.size());
+            assertEquals("game2", games.get(0).getGameId());
+        }
+    }
+
+    @Test
+    void tornRecordEndsTheSegment() throws IOException {
+        try (MoveJournal journal = open()) {
+            journal.gameStarted("game1", 1L, players("game1"));
+            journal.moveAccepted("game1", 0, 0, new BuildVillageMoveDto(9));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        //corrupt the last byte of the move record
+        byte[] content = Files.readAllBytes(segment);
+        int end = content.length;
+        while (content[end - 1] == 0) end--;
+        content[end - 1] ^= 0x7F;
+        Files.write(segment, content, StandardOpenOption.TRUNCATE_EXISTING);
+
+        try (MoveJournal journal = open()) {
+            JournaledGame game = journal.takeRecoveredGames().get(0);
+            assertTrue(game.getMoves().isEmpty());
+        }
+    }
+
+    @Test
+    void segmentsOfEndedGamesAreDeleted() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory, 1, SEGMENT_BYTES, 1, false)) {
+            journal.gameStarted("game1", 1L, players("game1"));
+            for (int i = 0; i < 10_000; i++) {
+                journal.moveAccepted("game1", i, 0, new RollDiceDto(7));
+            }
+            assertTrue(Files.exists(directory.resolve("journal-0-0.log")));
+            journal.gameEnded("game1");
+            journal.gameStarted("game2", 2L, players("game2"));
+            for (int i = 0; i < 10_000; i++) {
+                journal.moveAccepted("game2", i, 0, new RollDiceDto(7));
+            }
+        }
+        assertFalse(Files.exists(directory.resolve("journal-0-0.log")));
+    }
+
+    @Test
+    void recoveryStartsAtTheLatestSnapshot() throws IOException {
+        MessagingService messagingService = Mockito.mock(MessagingService.class);
+        List<Player> players = players("game1");
+        try (MoveJournal journal = new MoveJournal(directory, 1, SEGMENT_BYTES, 1, false, 4)) {
+            RunningInstanceService service = new RunningInstanceService(messagingService, journal, null,
+                    GameMetrics.NOOP, GameCostAccounting.DISABLED, GameTracing.NOOP);
+            service.setGameId("game1");
+            service.addPlayers(players);
+            service.start();
+            service.makeMove(new BuildVillageMoveDto(9), players.get(0));
+            service.makeMove(new BuildRoadMoveDto(12), players.get(0));
+            service.makeMove(new BuildVillageMoveDto(13), players.get(1));
+            service.makeMove(new BuildRoadMoveDto(21), players.get(1));
+            service.makeMove(new BuildVillageMoveDto(22), players.get(1));
+        }
+
+        try (MoveJournal journal = new MoveJournal(directory, 1, SEGMENT_BYTES, 1, false, 4)) {
+            JournaledGame game = journal.takeRecoveredGames().get(0);
+            assertNotNull(game.getSnapshot());
+            assertEquals(4, game.getSnapshotSequence());
+            assertEquals(1, game.getMoves().size());
+            assertEquals(players.get(1).getToken(), game.getPlayers().get(1).getToken());
+        }
+    }
+
+    @Test
+    void differentShardCountIsRejected() throws IOException {
+        open().close();
+        assertThrows(IllegalStateException.class, () -> new MoveJournal(directory, 3, SEGMENT_BYTES, 1, false));
+    }
+
+    @Test
+    void replayedGameMatchesTheOriginal() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        MessagingService messagingService = Mockito.mock(MessagingService.class);
+        List<Player> players = players("game1");
+        RunningInstanceService original;
+        try (MoveJournal journal = open()) {
+            original = new RunningInstanceService(messagingService, journal, null,
+                    GameMetrics.NOOP, GameCostAccounting.DISABLED, GameTracing.NOOP);
+            original.setGameId("game1");
+            original.addPlayers(players);
+            original.start();
+            Player p1 = players.get(0);
+            Player p2 = players.get(1);
+            original.makeMove(new BuildVillageMoveDto(9), p1);
+            original.makeMove(new BuildRoadMoveDto(12), p1);
+            original.makeMove(new BuildVillageMoveDto(13), p2);
+            original.makeMove(new BuildRoadMoveDto(21), p2);
+            original.makeMove(new BuildVillageMoveDto(22), p2);
+            original.makeMove(new BuildRoadMoveDto(29), p2);
+            original.makeMove(new BuildVillageMoveDto(29), p1);
+            original.makeMove(new BuildRoadMoveDto(36), p1);
+            original.makeMove(new RollDiceDto(6), p1);
+            original.makeMove(new EndTurnMoveDto(), p1);
+            original.makeMove(new RollDiceDto(8), p2);
+        }
+
+        try (MoveJournal journal = open()) {
+            JournaledGame journaledGame = journal.takeRecoveredGames().get(0);
+            List<Player> restoredPlayers = new ArrayList<>();
+            for (JournaledGame.JournaledPlayer journaledPlayer : journaledGame.getPlayers()) {
+                Player player = new Player(journaledPlayer.getToken(), journaledPlayer.getDisplayName(), "game1");
+                player.setInGameID(journaledPlayer.getInGameID());
+                restoredPlayers.add(player);
+            }
+            RunningInstanceService restored = new RunningInstanceService(messagingService, journal, null,
+                    GameMetrics.NOOP, GameCostAccounting.DISABLED, GameTracing.NOOP);
+            restored.restore(journaledGame, restoredPlayers);
+
+            ArgumentCaptor<MessageDto> captor = ArgumentCaptor.forClass(MessageDto.class);
+            original.handlePlayerReconnected(players.get(0));
+            restored.handlePlayerReconnected(restoredPlayers.get(0));
+            Mockito.verify(messagingService, Mockito.times(2)).notifyUser(Mockito.eq(players.get(0).getToken()), captor.capture());
+            List<MessageDto> states = captor.getAllValues();
+            assertEquals(mapper.writeValueAsString(states.get(0)), mapper.writeValueAsString(states.get(1)));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.group2.catanbackend.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapHibernationStoreTest {
+
+    private static ByteBuffer state(int length, int fill) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) (fill + i));
+        }
+        return buffer.flip();
+    }
+
+    @Test
+    void savedStateIsLoadedBack() {
+        OffHeapHibernationStore store = new OffHeapHibernationStore(1024 * 1024);
+        store.save("game1", state(300, 1));
+        store.save("game2", state(200, 7));
+
+        assertEquals(state(300, 1), store.load("game1"));
+        assertEquals(state(200, 7), store.load("game2"));
+        assertNull(store.load("game3"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void savingAgainOverwritesTheSlot() {
+        OffHeapHibernationStore store = new OffHeapHibernationStore(1024 * 1024);
+        store.save("game1", state(300, 1));
+        store.save("game1", state(100, 5));
+
+        assertEquals(state(100, 5), store.load("game1"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void deletedSlotIsReused() {
+        OffHeapHibernationStore store = new OffHeapHibernationStore(2L * OffHeapHibernationStore.SLOT_BYTES);
+        store.save("game1", state(100, 1));
+        store.save("game2", state(100, 2));
+        store.delete("game1");
+        assertNull(store.load("game1"));
+
+        store.save("game3", state(100, 3));
+        assertEquals(state(100, 2), store.load("game2"));
+        assertEquals(state(100, 3), store.load("game3"));
+    }
+
+    @Test
+    void fullStoreThrows() {
+        OffHeapHibernationStore store = new OffHeapHibernationStore(OffHeapHibernationStore.SLOT_BYTES);
+        assertEquals(1, store.getMaxSlots());
+        store.save("game1", state(100, 1));
+
+        assertThrows(IllegalStateException.class, () -> store.save("game2", state(100, 2)));
+    }
+
+    @Test
+    void oversizedStateIsRejected() {
+        OffHeapHibernationStore store = new OffHeapHibernationStore(1024 * 1024);
+
+        assertThrows(IllegalArgumentException.class, () -> store.save("game1", state(OffHeapHibernationStore.SLOT_BYTES, 1)));
+        assertEquals(0, store.size());
+    }
+}
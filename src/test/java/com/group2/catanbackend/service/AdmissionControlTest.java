@@ -0,0 +1,94 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.exception.NodeOverloadedException;
+import com.group2.catanbackend.model.GameDescriptor;
+import com.group2.catanbackend.monitoring.MoveLatencies;
+import com.group2.catanbackend.monitoring.NodeLoad;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AdmissionControlTest {
+    private final InMemoryGameRegistry registry = new InMemoryGameRegistry();
+    private final ThreadPoolTaskExecutor inbound = new ThreadPoolTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final NodeLoad nodeLoad = new NodeLoad(new MoveLatencies(10_000, 6), registry, inbound, new ThreadPoolTaskExecutor());
+
+    @BeforeEach
+    void setUp() {
+        inbound.setCorePoolSize(1);
+        inbound.initialize();
+    }
+
+    private AdmissionControl admissionControl(double maxHeapAfterGc, int maxInboundQueue, int maxRunningGames) {
+        return new AdmissionControl(nodeLoad, true, maxHeapAfterGc, maxInboundQueue, maxRunningGames, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        inbound.shutdown();
+    }
+
+    @Test
+    void testIdleNodeAdmits() {
+        assertDoesNotThrow(() -> admissionControl(1.0, 10, 10).admitGame());
+    }
+
+    @Test
+    void testGameLimit() {
+        AdmissionControl admissionControl = admissionControl(1.0, 10, 1);
+        registry.getLobbies().put("lobby", new GameDescriptor("lobby"));
+        assertDoesNotThrow(admissionControl::admitGame);
+
+        registry.getRunningGames().put("game", GameFixtures.newGame(null));
+
+        NodeOverloadedException e = assertThrows(NodeOverloadedException.class, admissionControl::admitGame);
+        assertEquals(10, e.getRetryAfterSeconds());
+        assertTrue(e.getMessage().contains("game limit"));
+    }
+
+    @Test
+    void testMessageBacklog() {
+        AdmissionControl admissionControl = admissionControl(1.0, 1, 10);
+        inbound.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        inbound.execute(() -> { });
+        assertDoesNotThrow(admissionControl::admitGame);
+
+        inbound.execute(() -> { });
+
+        NodeOverloadedException e = assertThrows(NodeOverloadedException.class, admissionControl::admitGame);
+        assertTrue(e.getMessage().contains("message backlog"));
+    }
+
+    @Test
+    void testHeapAfterGc() {
+        System.gc();
+        double heapUsed = nodeLoad.getHeapUsedAfterGc();
+        assumeTrue(heapUsed > 0, "no collection has run");
+        assertTrue(heapUsed < 1);
+        assertDoesNotThrow(admissionControl(heapUsed + 0.1, 10, 10)::admitGame);
+
+        NodeOverloadedException e = assertThrows(NodeOverloadedException.class, admissionControl(heapUsed / 2, 10, 10)::admitGame);
+        assertTrue(e.getMessage().contains("memory"));
+    }
+
+    @Test
+    void testDisabledAdmitsAnything() {
+        AdmissionControl admissionControl = new AdmissionControl(nodeLoad, false, 0, 0, 0, 10);
+
+        assertDoesNotThrow(admissionControl::admitGame);
+    }
+}
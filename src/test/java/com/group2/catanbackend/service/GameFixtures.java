@@ -0,0 +1,48 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Running games for tests that only need the game itself. Tests of a collaborator pass it to the constructor of
+ * {@link RunningInstanceService} and start the game with {@link #start}.
+ */
+public final class GameFixtures {
+
+    private GameFixtures() {
+    }
+
+    /**
+     * @return a game without journal, hibernation, metrics, cost accounting or tracing
+     */
+    public static RunningInstanceService newGame(MessagingService messagingService) {
+        return new RunningInstanceService(messagingService, null, null, GameMetrics.NOOP, GameCostAccounting.DISABLED,
+                GameTracing.NOOP);
+    }
+
+    public static RunningInstanceService start(RunningInstanceService game, String gameId, List<Player> players) {
+        game.setGameId(gameId);
+        game.addPlayers(players);
+        game.start();
+        return game;
+    }
+
+    /**
+     * @return two players with in-game ids 1 and 2, in a mutable list as the game expects
+     */
+    public static List<Player> players(String gameId) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(UUID.randomUUID().toString(), "Player" + i, gameId);
+            player.setInGameID(i + 1);
+            players.add(player);
+        }
+        return players;
+    }
+}
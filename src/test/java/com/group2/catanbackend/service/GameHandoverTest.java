@@ -0,0 +1,107 @@
+package com.group2.catanbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.exception.NotOwnerException;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.persistence.GameHandover;
+import com.group2.catanbackend.persistence.JournaledGame;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHandoverTest {
+    private static final String NODE = "http://localhost:8081";
+
+    private final MessagingService messagingService = Mockito.mock(MessagingService.class);
+
+    private RunningInstanceService startGame(List<Player> players) {
+        RunningInstanceService game = GameFixtures.start(GameFixtures.newGame(messagingService), "game1", players);
+        game.makeMove(new BuildVillageMoveDto(9), players.get(0));
+        game.makeMove(new BuildRoadMoveDto(12), players.get(0));
+        game.makeMove(new BuildVillageMoveDto(13), players.get(1));
+        return game;
+    }
+
+    //the players as the receiving node creates them from the handover
+    private static List<Player> playersOf(JournaledGame handover) {
+        List<Player> players = new ArrayList<>();
+        for (JournaledGame.JournaledPlayer journaledPlayer : handover.getPlayers()) {
+            Player player = new Player(journaledPlayer.getToken(), journaledPlayer.getDisplayName(), handover.getGameId());
+            player.setInGameID(journaledPlayer.getInGameID());
+            players.add(player);
+        }
+        return players;
+    }
+
+    private String currentState(RunningInstanceService game, Player player) throws Exception {
+        Mockito.clearInvocations(messagingService);
+        game.handlePlayerReconnected(player);
+        ArgumentCaptor<MessageDto> captor = ArgumentCaptor.forClass(MessageDto.class);
+        Mockito.verify(messagingService).notifyUser(Mockito.eq(player.getToken()), captor.capture());
+        return new ObjectMapper().writeValueAsString(captor.getValue());
+    }
+
+    @Test
+    void handedOverGameContinuesOnNewNode() throws Exception {
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService source = startGame(players);
+        String before = currentState(source, players.get(0));
+        AtomicReference<byte[]> sent = new AtomicReference<>();
+
+        source.handOver(NODE, sent::set);
+
+        JournaledGame handover = GameHandover.decode(sent.get());
+        assertEquals("game1", handover.getGameId());
+        List<Player> adoptedPlayers = playersOf(handover);
+        RunningInstanceService target = GameFixtures.newGame(messagingService);
+        target.adopt(handover, adoptedPlayers, "handover1");
+        assertEquals(before, currentState(target, adoptedPlayers.get(0)));
+        target.makeMove(new BuildRoadMoveDto(21), adoptedPlayers.get(1));
+    }
+
+    @Test
+    void movesOnOldNodeAreRedirected() {
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService source = startGame(players);
+        source.handOver(NODE, handover -> {
+        });
+
+        NotOwnerException e = assertThrows(NotOwnerException.class, () -> source.makeMove(new BuildRoadMoveDto(21), players.get(1)));
+        assertEquals(NODE, e.getOwner());
+        Mockito.verify(messagingService).notifyGameProgress(Mockito.eq("game1"), Mockito.any(GameMovedDto.class));
+    }
+
+    @Test
+    void reconnectOnOldNodeIsToldToMove() {
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService source = startGame(players);
+        source.handOver(NODE, handover -> {
+        });
+
+        source.handlePlayerReconnected(players.get(0));
+
+        ArgumentCaptor<MessageDto> captor = ArgumentCaptor.forClass(MessageDto.class);
+        Mockito.verify(messagingService).notifyUser(Mockito.eq(players.get(0).getToken()), captor.capture());
+        assertEquals(NODE, ((GameMovedDto) captor.getValue()).getNode());
+    }
+
+    @Test
+    void failedTransferKeepsGameHere() {
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService source = startGame(players);
+
+        assertThrows(IllegalStateException.class, () -> source.handOver(NODE, handover -> {
+            throw new IllegalStateException("refused");
+        }));
+
+        assertNull(source.getMovedTo());
+        source.makeMove(new BuildRoadMoveDto(21), players.get(1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.group2.catanbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group2.catanbackend.dto.game.*;
+import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.monitoring.GameCostAccounting;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.persistence.FileHibernationStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHibernatorTest {
+    @TempDir
+    Path directory;
+
+    private final MessagingService messagingService = Mockito.mock(MessagingService.class);
+    private GameHibernator hibernator;
+
+    @AfterEach
+    void tearDown() {
+        hibernator.shutdown();
+    }
+
+    private FileHibernationStore store() throws IOException {
+        return new FileHibernationStore(directory);
+    }
+
+    private RunningInstanceService startGame(String gameId, List<Player> players) {
+        return GameFixtures.start(new RunningInstanceService(messagingService, null, hibernator, GameMetrics.NOOP,
+                GameCostAccounting.DISABLED, GameTracing.NOOP), gameId, players);
+    }
+
+    private String currentState(RunningInstanceService game, Player player) throws Exception {
+        Mockito.clearInvocations(messagingService);
+        game.handlePlayerReconnected(player);
+        ArgumentCaptor<MessageDto> captor = ArgumentCaptor.forClass(MessageDto.class);
+        Mockito.verify(messagingService).notifyUser(Mockito.eq(player.getToken()), captor.capture());
+        return new ObjectMapper().writeValueAsString(captor.getValue());
+    }
+
+    @Test
+    void idleGameIsHibernatedAndWokenUpByReconnect() throws Exception {
+        FileHibernationStore store = store();
+        hibernator = new GameHibernator(store, 0, 100, 60_000);
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService game = startGame("game1", players);
+        game.makeMove(new BuildVillageMoveDto(9), players.get(0));
+        game.makeMove(new BuildRoadMoveDto(12), players.get(0));
+        String before = currentState(game, players.get(0));
+
+        assertEquals(1, hibernator.hibernateIdleGames());
+        assertTrue(game.isHibernated());
+        assertEquals(1, store.size());
+        assertEquals(0, hibernator.getResidentCount());
+
+        assertEquals(before, currentState(game, players.get(0)));
+        assertFalse(game.isHibernated());
+        assertEquals(0, store.size());
+        assertEquals(1, hibernator.getResidentCount());
+    }
+
+    @Test
+    void moveWakesUpHibernatedGame() throws Exception {
+        hibernator = new GameHibernator(store(), 0, 100, 60_000);
+        List<Player> players = GameFixtures.players("game1");
+        RunningInstanceService game = startGame("game1", players);
+        game.makeMove(new BuildVillageMoveDto(9), players.get(0));
+        hibernator.hibernateIdleGames();
+
+        game.makeMove(new BuildRoadMoveDto(12), players.get(0));
+        game.makeMove(new BuildVillageMoveDto(13), players.get(1));
+
+        assertFalse(game.isHibernated());
+        assertEquals(1, hibernator.getRehydrationCount());
+    }
+
+    @Test
+    void activeGamesAreNotHibernated() throws Exception {
+        hibernator = new GameHibernator(store(), 3600, 100, 60_000);
+        RunningInstanceService game = startGame("game1", GameFixtures.players("game1"));
+
+        assertEquals(0, hibernator.hibernateIdleGames());
+        assertFalse(game.isHibernated());
+    }
+
+    @Test
+    void leastRecentlyUsedGameIsHibernatedOverCapacity() throws Exception {
+        hibernator = new GameHibernator(store(), 3600, 1, 60_000);
+        RunningInstanceService first = startGame("game1", GameFixtures.players("game1"));
+        RunningInstanceService second = startGame("game2", GameFixtures.players("game2"));
+
+        hibernator.evictOverCapacity();
+        for (int i = 0; i < 100 && !first.isHibernated(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(first.isHibernated());
+        assertFalse(second.isHibernated());
+        assertEquals(1, hibernator.getResidentCount());
+    }
+}
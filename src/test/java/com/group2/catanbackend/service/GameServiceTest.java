@@ -1,24 +1,44 @@
 package com.group2.catanbackend.service;
 
+import com.group2.catanbackend.cluster.GameIdAllocator;
+import com.group2.catanbackend.cluster.GameLocator;
+import com.group2.catanbackend.cluster.ShardRing;
 import com.group2.catanbackend.dto.CreateRequestDto;
 import com.group2.catanbackend.dto.JoinRequestDto;
 import com.group2.catanbackend.dto.JoinResponseDto;
+import com.group2.catanbackend.dto.game.GameMoveDto;
+import com.group2.catanbackend.dto.game.MessageDto;
+import com.group2.catanbackend.dto.game.RollDiceDto;
+import com.group2.catanbackend.exception.GameException;
 import com.group2.catanbackend.exception.NoSuchGameException;
+import com.group2.catanbackend.exception.NodeOverloadedException;
 import com.group2.catanbackend.exception.NoSuchTokenException;
 import com.group2.catanbackend.exception.NotAuthorizedException;
+import com.group2.catanbackend.model.GameDescriptor;
 import com.group2.catanbackend.model.Player;
+import com.group2.catanbackend.model.PlayerState;
+import com.group2.catanbackend.monitoring.GameMetrics;
+import com.group2.catanbackend.monitoring.GameTracing;
+import com.group2.catanbackend.persistence.JournaledGame;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.configuration.IMockitoConfiguration;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationContext;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
 
 @ExtendWith(MockitoExtension.class)
 class GameServiceTest {
@@ -33,6 +53,30 @@ class GameServiceTest {
     @Mock
     private MessagingService messagingService;
 
+    @Mock
+    private LobbyDirectory lobbyDirectory;
+
+    @Mock
+    private LobbyNotifier lobbyNotifier;
+
+    @Spy
+    private InMemoryGameRegistry gameRegistry = new InMemoryGameRegistry();
+
+    @Spy
+    private GameLocator gameLocator = new GameLocator(gameRegistry, new ShardRing());
+
+    @Spy
+    private GameIdAllocator gameIdAllocator = new GameIdAllocator(new ShardRing());
+
+    @Spy
+    private GameMetrics gameMetrics = GameMetrics.NOOP;
+
+    @Spy
+    private GameTracing gameTracing = GameTracing.NOOP;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
     @InjectMocks
     private GameService gameService;
 
@@ -43,6 +87,14 @@ class GameServiceTest {
         assertEquals(responseDto.getGameID(), gameService.getRegisteredGames().get(responseDto.getGameID()).getId());
     }
 
+    @Test
+    void createGameTurnedDownWhileOverloaded() {
+        Mockito.doThrow(new NodeOverloadedException("busy", 10)).when(admissionControl).admitGame();
+
+        assertThrows(NodeOverloadedException.class, () -> gameService.createAndJoin(new CreateRequestDto("Player1")));
+        assertTrue(gameService.getRegisteredGames().isEmpty());
+    }
+
     @Test
     void joinGameNoSuchGame() {
         JoinRequestDto request = new JoinRequestDto("Player1", "invalid");
@@ -63,10 +115,12 @@ class GameServiceTest {
 
         assertTrue(gameService.getRunningGames().containsKey(response.getGameID()));
         assertFalse(gameService.getRegisteredGames().containsKey(response.getGameID()));
-        Mockito.verify(messagingService).notifyLobby(eq(response.getGameID()), any());
-        Mockito.verify(service).addPlayers(any());
-        Mockito.verify(service).setGameId(response.getGameID());
-        Mockito.verify(service).start();
+        Mockito.verify(lobbyNotifier).notifyPlayersChanged(argThat(lobby -> lobby.getId().equals(response.getGameID())));
+        InOrder inOrder = Mockito.inOrder(lobbyNotifier, service);
+        inOrder.verify(service).addPlayers(any());
+        inOrder.verify(service).setGameId(response.getGameID());
+        inOrder.verify(lobbyNotifier).flush(argThat(lobby -> lobby.getId().equals(response.getGameID())));
+        inOrder.verify(service).start();
     }
 
     @Test
@@ -98,4 +152,168 @@ class GameServiceTest {
 
         assertThrows(NotAuthorizedException.class, () -> {gameService.startGame(response2.getToken());});
     }
-}
\ No newline at end of file
+
+    @Test
+    void socketMoveUsesGameBoundToSession() {
+        Player player = new Player("MyToken", "Player1", "gameID");
+        GameSession session = new GameSession(player);
+        GameMoveDto move = new RollDiceDto(5);
+        Mockito.when(tokenService.getPlayerByToken("MyToken")).thenReturn(player);
+        gameService.getRunningGames().put("gameID", service);
+
+        gameService.makeMove(session, move);
+        gameService.getRunningGames().remove("gameID");
+        gameService.makeMove(session, move);
+
+        assertSame(service, session.getGame());
+        Mockito.verify(service, Mockito.times(2)).makeMove(move, player);
+    }
+
+    @Test
+    void socketMoveWithoutRunningGameThrowsNoSuchGame() {
+        Player player = new Player("MyToken", "Player1", "aNonExistingGame");
+        GameSession session = new GameSession(player);
+        GameMoveDto move = new RollDiceDto(5);
+        Mockito.when(tokenService.getPlayerByToken("MyToken")).thenReturn(player);
+        assertThrows(NoSuchGameException.class, () -> gameService.makeMove(session, move));
+    }
+
+    @Test
+    void socketMoveWithRevokedTokenThrowsNoSuchToken() {
+        GameSession session = new GameSession(new Player("MyToken", "Player1", "gameID"));
+        gameService.getRunningGames().put("gameID", service);
+
+        assertThrows(NoSuchTokenException.class, () -> gameService.makeMove(session, new RollDiceDto(5)));
+        Mockito.verifyNoInteractions(service);
+    }
+
+    @Test
+    void tokenStaysValidWhilePlayingOverSocketOnly() throws InterruptedException {
+        TokenService tokens = new TokenService(new TokenStore(16, TimeUnit.MILLISECONDS.toNanos(50)));
+        GameService gameService = gameServiceWith(tokens, lobbyNotifier);
+        Mockito.when(applicationContext.getBean("runningInstanceService")).thenReturn(service);
+        JoinResponseDto player = gameService.createAndJoin(new CreateRequestDto("Player1"));
+        gameService.startGame(player.getToken());
+        GameSession session = new GameSession(tokens.getPlayerByToken(player.getToken()));
+
+        //the moves span four times the TTL without the token being looked up in between
+        for (int i = 0; i < 10; i++) {
+            gameService.makeMove(session, new RollDiceDto(5));
+            Thread.sleep(20);
+            tokens.purgeExpiredTokens();
+        }
+
+        assertSame(session.getPlayer(), tokens.getPlayerByToken(player.getToken()));
+        Mockito.verify(service, Mockito.times(10)).makeMove(Mockito.any(RollDiceDto.class), Mockito.eq(session.getPlayer()));
+    }
+
+    @Test
+    void expiredTokenFreesSeatOfSoftJoinedPlayer() {
+        Mockito.when(tokenService.generateToken()).thenReturn("token1", "token2");
+        JoinResponseDto admin = gameService.createAndJoin(new CreateRequestDto("Player1"));
+        gameService.joinGame(new JoinRequestDto("Player2", admin.getGameID()));
+        GameDescriptor lobby = gameService.getRegisteredGames().get(admin.getGameID());
+
+        expiryListener().accept(lobby.getPlayers().get(1));
+
+        assertEquals(1, lobby.getPlayerCount());
+    }
+
+    @Test
+    void expiredTokenKeepsConnectedPlayerInLobby() {
+        Mockito.when(tokenService.generateToken()).thenReturn("token1", "token2");
+        JoinResponseDto admin = gameService.createAndJoin(new CreateRequestDto("Player1"));
+        gameService.joinGame(new JoinRequestDto("Player2", admin.getGameID()));
+        GameDescriptor lobby = gameService.getRegisteredGames().get(admin.getGameID());
+        Player connected = lobby.getPlayers().get(1);
+        connected.setPlayerState(PlayerState.CONNECTED);
+
+        expiryListener().accept(connected);
+
+        assertEquals(2, lobby.getPlayerCount());
+    }
+
+    @Test
+    void resentHandoverIsAdoptedOnce() {
+        JournaledGame handover = handover("game1");
+        Mockito.when(applicationContext.getBean("runningInstanceService")).thenReturn(service);
+        Mockito.when(service.getHandoverId()).thenReturn("handover1");
+
+        gameService.adoptRunningGame(handover, "handover1");
+        gameService.adoptRunningGame(handover, "handover1");
+
+        Mockito.verify(service).adopt(handover, List.of(), "handover1");
+        assertDoesNotThrow(() -> gameService.confirmAdoption("game1", "handover1"));
+        assertThrows(GameException.class, () -> gameService.adoptRunningGame(handover, "handover2"));
+    }
+
+    @Test
+    void handoverAskedForBeforeItArrivedIsRefused() {
+        JournaledGame handover = handover("game1");
+
+        assertThrows(NoSuchGameException.class, () -> gameService.confirmAdoption("game1", "handover1"));
+        assertThrows(GameException.class, () -> gameService.adoptRunningGame(handover, "handover1"));
+
+        assertFalse(gameService.getRunningGames().containsKey("game1"));
+        Mockito.verifyNoInteractions(applicationContext);
+    }
+
+    private static JournaledGame handover(String gameID) {
+        JournaledGame handover = Mockito.mock(JournaledGame.class);
+        Mockito.lenient().when(handover.getGameId()).thenReturn(gameID);
+        Mockito.lenient().when(handover.getPlayers()).thenReturn(List.of());
+        return handover;
+    }
+
+    @Test
+    void sweepKeepsTokensOfConnectedAndRunningPlayers() throws InterruptedException {
+        TokenService tokens = new TokenService(new TokenStore(16, TimeUnit.MILLISECONDS.toNanos(50)));
+        GameService gameService = gameServiceWith(tokens, lobbyNotifier);
+        Mockito.when(applicationContext.getBean("runningInstanceService")).thenReturn(service);
+        JoinResponseDto connected = gameService.createAndJoin(new CreateRequestDto("Player1"));
+        JoinResponseDto softJoined = gameService.joinGame(new JoinRequestDto("Player2", connected.getGameID()));
+        gameService.handleConnectionEstablished(connected.getToken());
+        JoinResponseDto playing = gameService.createAndJoin(new CreateRequestDto("Player3"));
+        gameService.startGame(playing.getToken());
+
+        Thread.sleep(100);
+        tokens.purgeExpiredTokens();
+
+        assertNotNull(tokens.getPlayerByToken(connected.getToken()));
+        assertNotNull(tokens.getPlayerByToken(playing.getToken()));
+        assertNull(tokens.getPlayerByToken(softJoined.getToken()));
+        assertEquals(1, gameService.getRegisteredGames().get(connected.getGameID()).getPlayerCount());
+    }
+
+    @Test
+    void burstOfJoinsAndConnectsIsAnnouncedOnce() {
+        LobbyNotifier notifier = new LobbyNotifier(messagingService, 200);
+        try {
+            GameService gameService = gameServiceWith(new TokenService(16, 120), notifier);
+            JoinResponseDto admin = gameService.createAndJoin(new CreateRequestDto("Player1"));
+            JoinResponseDto second = gameService.joinGame(new JoinRequestDto("Player2", admin.getGameID()));
+            JoinResponseDto third = gameService.joinGame(new JoinRequestDto("Player3", admin.getGameID()));
+            for (JoinResponseDto player : List.of(admin, second, third)) {
+                gameService.handleConnectionEstablished(player.getToken());
+            }
+
+            Mockito.verify(messagingService, Mockito.after(500).times(1))
+                    .notifyLobby(Mockito.eq(admin.getGameID()), any(MessageDto.class));
+        } finally {
+            notifier.shutdown();
+        }
+    }
+
+    //the services of the other tests with a real token service and lobby notifier
+    private GameService gameServiceWith(TokenService tokens, LobbyNotifier notifier) {
+        return new GameService(applicationContext, notifier, tokens, lobbyDirectory, gameRegistry, gameLocator,
+                gameIdAllocator, gameMetrics, gameTracing, admissionControl);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<Player> expiryListener() {
+        ArgumentCaptor<Consumer<Player>> listener = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(tokenService).setExpiryListener(listener.capture());
+        return listener.getValue();
+    }
+}
@@ -0,0 +1,127 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.dto.LobbyDto;
+import com.group2.catanbackend.dto.game.LobbyChangedDto;
+import com.group2.catanbackend.dto.game.MessageDto;
+import com.group2.catanbackend.dto.game.MessageType;
+import com.group2.catanbackend.model.GameDescriptor;
+import com.group2.catanbackend.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LobbyDirectoryTest {
+    private LobbyDirectory lobbyDirectory;
+    private MessagingService messagingService;
+
+    @BeforeEach
+    void setUp() {
+        messagingService = mock(MessagingService.class);
+        lobbyDirectory = new LobbyDirectory(messagingService);
+    }
+
+    @Test
+    void updatedLobbyIsListed() {
+        GameDescriptor game = gameWithPlayers(2);
+        lobbyDirectory.update(game);
+
+        List<LobbyDto> lobbies = lobbyDirectory.list(false, null, 10).getLobbies();
+        assertEquals(1, lobbies.size());
+        assertEquals(game.getId(), lobbies.get(0).getGameID());
+        assertEquals(2, lobbies.get(0).getPlayerCount());
+    }
+
+    @Test
+    void fullLobbyIsNotListedWithOpenSeatsOnly() {
+        lobbyDirectory.update(gameWithPlayers(4));
+        GameDescriptor open = gameWithPlayers(1);
+        lobbyDirectory.update(open);
+
+        List<LobbyDto> lobbies = lobbyDirectory.list(true, null, 10).getLobbies();
+        assertEquals(1, lobbies.size());
+        assertEquals(open.getId(), lobbies.get(0).getGameID());
+        assertEquals(2, lobbyDirectory.list(false, null, 10).getLobbies().size());
+    }
+
+    @Test
+    void pagesFollowTheCursor() {
+        for (int i = 0; i < 5; i++) {
+            lobbyDirectory.update(gameWithPlayers(1));
+        }
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            LobbyDirectory.Page page = lobbyDirectory.list(false, cursor, 2);
+            page.getLobbies().forEach(lobby -> seen.add(lobby.getGameID()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+    }
+
+    @Test
+    void versionChangesOnlyWhenListingChanges() {
+        GameDescriptor game = gameWithPlayers(1);
+        lobbyDirectory.update(game);
+        long version = lobbyDirectory.getVersion();
+
+        lobbyDirectory.update(game);
+        assertEquals(version, lobbyDirectory.getVersion());
+
+        game.join(new Player("token", "Player", game.getId()));
+        lobbyDirectory.update(game);
+        assertNotEquals(version, lobbyDirectory.getVersion());
+    }
+
+    @Test
+    void removedLobbyIsNotListed() {
+        GameDescriptor game = gameWithPlayers(1);
+        lobbyDirectory.update(game);
+        lobbyDirectory.remove(game.getId());
+
+        assertTrue(lobbyDirectory.list(false, null, 10).getLobbies().isEmpty());
+        assertTrue(lobbyDirectory.list(true, null, 10).getLobbies().isEmpty());
+    }
+
+    @Test
+    void changesArePublishedAsDeltas() {
+        GameDescriptor game = gameWithPlayers(1);
+        lobbyDirectory.update(game);
+        game.join(new Player("token", "Player", game.getId()));
+        lobbyDirectory.update(game);
+        lobbyDirectory.started(game.getId());
+
+        ArgumentCaptor<MessageDto> captor = ArgumentCaptor.forClass(MessageDto.class);
+        verify(messagingService, times(3)).notifyLobbyDirectory(captor.capture());
+        List<MessageDto> deltas = captor.getAllValues();
+        assertEquals(MessageType.LOBBY_CREATED, deltas.get(0).getEventType());
+        assertEquals(MessageType.LOBBY_UPDATED, deltas.get(1).getEventType());
+        assertEquals(2, ((LobbyChangedDto) deltas.get(1)).getLobby().getPlayerCount());
+        assertEquals(MessageType.LOBBY_STARTED, deltas.get(2).getEventType());
+        assertTrue(((LobbyChangedDto) deltas.get(2)).getVersion() > ((LobbyChangedDto) deltas.get(1)).getVersion());
+    }
+
+    @Test
+    void snapshotContainsCurrentLobbies() {
+        lobbyDirectory.update(gameWithPlayers(1));
+        lobbyDirectory.update(gameWithPlayers(2));
+
+        assertEquals(2, lobbyDirectory.getSnapshot().getLobbies().size());
+        assertEquals(lobbyDirectory.getVersion(), lobbyDirectory.getSnapshot().getVersion());
+    }
+
+    private GameDescriptor gameWithPlayers(int count) {
+        GameDescriptor game = new GameDescriptor();
+        for (int i = 0; i < count; i++) {
+            game.join(new Player("token" + i, "Player" + i, game.getId()));
+        }
+        return game;
+    }
+}
@@ -0,0 +1,109 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.dto.game.MessageDto;
+import com.group2.catanbackend.dto.game.PlayersInLobbyDto;
+import com.group2.catanbackend.model.GameDescriptor;
+import com.group2.catanbackend.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LobbyNotifierTest {
+    private final MessagingService messagingService = mock(MessagingService.class);
+    private LobbyNotifier lobbyNotifier;
+
+    @AfterEach
+    void tearDown() {
+        lobbyNotifier.shutdown();
+    }
+
+    @Test
+    void burstIsDeliveredOnceWithTrailingState() {
+        lobbyNotifier = new LobbyNotifier(messagingService, 100);
+        GameDescriptor lobby = new GameDescriptor("gameID");
+        for (int i = 0; i < 4; i++) {
+            lobby.join(new Player("token" + i, "Player" + i, "gameID"));
+            lobbyNotifier.notifyPlayersChanged(lobby);
+        }
+
+        verify(messagingService, timeout(1000)).notifyLobby(eq("gameID"), argThat(dto -> playerCount(dto) == 4));
+        verify(messagingService, after(300).times(1)).notifyLobby(eq("gameID"), any(MessageDto.class));
+    }
+
+    @Test
+    void lobbiesAreDebouncedSeparately() {
+        lobbyNotifier = new LobbyNotifier(messagingService, 50);
+        lobbyNotifier.notifyPlayersChanged(new GameDescriptor("game1"));
+        lobbyNotifier.notifyPlayersChanged(new GameDescriptor("game2"));
+
+        verify(messagingService, timeout(1000)).notifyLobby(eq("game1"), any(MessageDto.class));
+        verify(messagingService, timeout(1000)).notifyLobby(eq("game2"), any(MessageDto.class));
+    }
+
+    @Test
+    void flushSendsPendingNotificationImmediately() {
+        lobbyNotifier = new LobbyNotifier(messagingService, 60_000);
+        GameDescriptor lobby = new GameDescriptor("gameID");
+        lobbyNotifier.notifyPlayersChanged(lobby);
+
+        lobbyNotifier.flush(lobby);
+        lobbyNotifier.flush(lobby);
+
+        verify(messagingService).notifyLobby(eq("gameID"), any(MessageDto.class));
+    }
+
+    @Test
+    void flushWaitsForSendInFlight() throws InterruptedException {
+        lobbyNotifier = new LobbyNotifier(messagingService, 10);
+        GameDescriptor lobby = new GameDescriptor("gameID");
+        CountDownLatch sending = new CountDownLatch(1);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            sending.countDown();
+            Thread.sleep(200);
+            sent.add("players");
+            return null;
+        }).when(messagingService).notifyLobby(eq("gameID"), any(MessageDto.class));
+        lobbyNotifier.notifyPlayersChanged(lobby);
+        assertTrue(sending.await(1, TimeUnit.SECONDS));
+
+        lobbyNotifier.flush(lobby);
+        sent.add("game started");
+
+        assertEquals(List.of("players", "game started"), sent);
+    }
+
+    @Test
+    void failedSendIsRetried() {
+        lobbyNotifier = new LobbyNotifier(messagingService, 20);
+        doThrow(new IllegalStateException("broker down")).doNothing()
+                .when(messagingService).notifyLobby(eq("gameID"), any(MessageDto.class));
+        lobbyNotifier.notifyPlayersChanged(new GameDescriptor("gameID"));
+
+        verify(messagingService, timeout(1000).times(2)).notifyLobby(eq("gameID"), any(MessageDto.class));
+        verify(messagingService, after(200).times(2)).notifyLobby(eq("gameID"), any(MessageDto.class));
+    }
+
+    @Test
+    void zeroWindowSendsImmediately() {
+        lobbyNotifier = new LobbyNotifier(messagingService, 0);
+        lobbyNotifier.notifyPlayersChanged(new GameDescriptor("gameID"));
+
+        verify(messagingService).notifyLobby(eq("gameID"), any(MessageDto.class));
+    }
+
+    private static int playerCount(MessageDto dto) {
+        return dto instanceof PlayersInLobbyDto players ? players.getPlayers().size() : -1;
+    }
+}
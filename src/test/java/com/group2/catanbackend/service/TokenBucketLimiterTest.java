@@ -0,0 +1,86 @@
+package com.group2.catanbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+    private final String token = UUID.randomUUID().toString();
+
+    @Test
+    void testFullBucketAllowsTheBurstAndNoMore() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.1, 5, 1024);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(token), "request " + i);
+        }
+        assertFalse(limiter.tryAcquire(token));
+        assertFalse(limiter.tryAcquire(token));
+        assertEquals(2, limiter.getRejected());
+        assertEquals(10, limiter.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testKeysHaveTheirOwnBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.1, 1, 1 << 16);
+        assertTrue(limiter.tryAcquire(token));
+        assertFalse(limiter.tryAcquire(token));
+
+        assertTrue(limiter.tryAcquire(UUID.randomUUID().toString()));
+        assertTrue(limiter.tryAcquire("127.0.0.1"));
+    }
+
+    @Test
+    void testBucketRefills() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100, 1, 16);
+        assertTrue(limiter.tryAcquire(token));
+        assertFalse(limiter.tryAcquire(token));
+
+        Thread.sleep(20);
+
+        assertTrue(limiter.tryAcquire(token));
+        assertEquals(1, limiter.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testConcurrentRequestsTakeExactlyTheBurst() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0.001, 1000, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    int acquired = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire(token))
+                            acquired++;
+                    }
+                    return acquired;
+                }));
+            }
+            int acquired = 0;
+            for (Future<Integer> result : results) {
+                acquired += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1000, acquired);
+            assertEquals(3000, limiter.getRejected());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 1, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(1, 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(1, 1, 0));
+    }
+}
@@ -0,0 +1,163 @@
+package com.group2.catanbackend.service;
+
+import com.group2.catanbackend.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenStoreTest {
+    private static final long ONE_HOUR = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void storedTokenCanBeLookedUp() {
+        TokenStore store = new TokenStore(16, ONE_HOUR);
+        String token = UUID.randomUUID().toString();
+        Player player = new Player(token, "Player1", "gameID");
+
+        assertTrue(store.put(token, player));
+        assertSame(player, store.get(token));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void removedTokenIsGone() {
+        TokenStore store = new TokenStore(16, ONE_HOUR);
+        String token = UUID.randomUUID().toString();
+        store.put(token, new Player(token, "Player1", "gameID"));
+
+        assertNotNull(store.remove(token));
+        assertNull(store.get(token));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void lookupOfMalformedTokenReturnsNull() {
+        TokenStore store = new TokenStore(16, ONE_HOUR);
+        assertNull(store.get("not valid token"));
+        assertNull(store.get(null));
+    }
+
+    @Test
+    void putRejectsMalformedToken() {
+        TokenStore store = new TokenStore(16, ONE_HOUR);
+        Player player = new Player("token", "Player1", "gameID");
+        assertThrows(IllegalArgumentException.class, () -> store.put("token", player));
+    }
+
+    @Test
+    void putFailsWhenFull() {
+        TokenStore store = new TokenStore(2, ONE_HOUR);
+        for (int i = 0; i < 2; i++) {
+            String token = UUID.randomUUID().toString();
+            assertTrue(store.put(token, new Player(token, "Player" + i, "gameID")));
+        }
+        String token = UUID.randomUUID().toString();
+        assertFalse(store.put(token, new Player(token, "Player3", "gameID")));
+    }
+
+    @Test
+    void manyTokensSurviveRemovalOfOthers() {
+        TokenStore store = new TokenStore(1024, ONE_HOUR);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String token = UUID.randomUUID().toString();
+            tokens.add(token);
+            store.put(token, new Player(token, "Player" + i, "gameID"));
+        }
+        for (int i = 0; i < tokens.size(); i += 2) {
+            store.remove(tokens.get(i));
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i % 2 == 0) assertNull(store.get(tokens.get(i)));
+            else assertEquals(tokens.get(i), store.get(tokens.get(i)).getToken());
+        }
+    }
+
+    @Test
+    void expiredTokensAreEvictedAndReported() throws InterruptedException {
+        TokenStore store = new TokenStore(16, TimeUnit.MILLISECONDS.toNanos(1));
+        List<Player> expired = new ArrayList<>();
+        store.setExpiryListener(expired::add);
+        String token = UUID.randomUUID().toString();
+        Player player = new Player(token, "Player1", "gameID");
+        store.put(token, player);
+
+        Thread.sleep(10);
+
+        assertNull(store.get(token));
+        assertEquals(1, store.purgeExpired());
+        assertEquals(List.of(player), expired);
+        assertEquals(1, store.getEvictionCount());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void tokenTurnedDownByExpiryConditionStays() throws InterruptedException {
+        TokenStore store = new TokenStore(16, TimeUnit.MILLISECONDS.toNanos(1));
+        String kept = UUID.randomUUID().toString();
+        String expired = UUID.randomUUID().toString();
+        store.put(kept, new Player(kept, "Player1", "gameID"));
+        store.put(expired, new Player(expired, "Player2", "gameID"));
+        store.setExpiryCondition(player -> !player.getToken().equals(kept));
+
+        Thread.sleep(10);
+
+        assertEquals(1, store.purgeExpired());
+        assertNotNull(store.get(kept));
+        assertNull(store.get(expired));
+    }
+
+    @Test
+    void fullStoreMakesRoomByEvictingExpiredTokens() throws InterruptedException {
+        TokenStore store = new TokenStore(1, TimeUnit.MILLISECONDS.toNanos(100));
+        String first = UUID.randomUUID().toString();
+        store.put(first, new Player(first, "Player1", "gameID"));
+
+        Thread.sleep(150);
+
+        String second = UUID.randomUUID().toString();
+        assertTrue(store.put(second, new Player(second, "Player2", "gameID")));
+        assertNull(store.get(first));
+        assertNotNull(store.get(second));
+    }
+
+    @Test
+    void purgeRemovesEveryExpiredTokenInOnePass() throws InterruptedException {
+        TokenStore store = new TokenStore(1024, TimeUnit.MILLISECONDS.toNanos(200));
+        for (int i = 0; i < 1000; i++) {
+            String token = UUID.randomUUID().toString();
+            store.put(token, new Player(token, "Player" + i, "gameID"));
+        }
+
+        Thread.sleep(300);
+
+        store.purgeExpired();
+        assertEquals(0, store.size());
+        assertEquals(1000, store.getEvictionCount());
+    }
+
+    @Test
+    void refreshedTokenOutlivesExpiredNeighbours() throws InterruptedException {
+        TokenStore store = new TokenStore(1024, TimeUnit.MILLISECONDS.toNanos(200));
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String token = UUID.randomUUID().toString();
+            tokens.add(token);
+            store.put(token, new Player(token, "Player" + i, "gameID"));
+        }
+        String refreshed = tokens.get(500);
+
+        Thread.sleep(150);
+        assertNotNull(store.get(refreshed));
+        Thread.sleep(100);
+
+        store.purgeExpired();
+        assertEquals(1, store.size());
+        assertEquals(refreshed, store.get(refreshed).getToken());
+    }
+}